@@ -0,0 +1,81 @@
+package org.example.benchmark;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.enums.RepositoryType;
+import org.example.query.ProductQueryEngine;
+import org.example.query.ProductStatistics;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductRepositoryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+//full scans of the query engine with 1 to n fork join workers, parallelism 1 is the sequential baseline.
+//run with a single benchmark thread (the default), the workers are the engine's own
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProductQueryEngineBenchmark {
+    @Param({"SNAPSHOT", "COLUMNAR"})
+    public RepositoryType type;
+
+    @Param({"100000", "1000000", "10000000"})
+    public int catalogSize;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private ProductQueryEngine queryEngine;
+
+    @Setup(Level.Trial)
+    public void loadCatalog() {
+        ProductRepository productRepository = ProductRepositoryFactory.create(type);
+        List<Product> catalog = new ArrayList<>(catalogSize);
+        for (int id = 0; id < catalogSize; id++) {
+            catalog.add(new Product(id, "Product " + id, Category.values()[id % Category.values().length],
+                    (double) (id % 1000), id % 4 == 0 ? null : (double) (id % 100)));
+        }
+        productRepository.addAllProducts(catalog);
+        pool = new ForkJoinPool(parallelism);
+        queryEngine = parallelism == 1
+                ? new ProductQueryEngine(productRepository, pool, Integer.MAX_VALUE)
+                : new ProductQueryEngine(productRepository, pool, ProductQueryEngine.DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<Product> findDiscountedProducts() {
+        return queryEngine.findDiscountedProducts(Optional.of(20.0), Optional.of(30.0));
+    }
+
+    @Benchmark
+    public Map<Category, ProductStatistics> statisticsByCategory() {
+        return queryEngine.statisticsByCategory();
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.benchmark;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.enums.RepositoryType;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductRepositoryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//every ProductRepository operation against every repository type and catalog size.
+//the full matrix takes hours, narrow it down with -p type=... -p catalogSize=...
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProductRepositoryBenchmark {
+    private static final Category[] CATEGORIES = Category.values();
+
+    @Param({"LIST", "INDEXED", "SNAPSHOT", "PARTITIONED", "COLUMNAR", "OFF_HEAP"})
+    public RepositoryType type;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int catalogSize;
+
+    ProductRepository productRepository;
+    //ids above the catalog handed out to the threads that add products
+    final AtomicInteger nextFreshId = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void loadCatalog() {
+        productRepository = ProductRepositoryFactory.create(type);
+        List<Product> catalog = new ArrayList<>(catalogSize);
+        for (int id = 0; id < catalogSize; id++) {
+            catalog.add(product(id, 100.0));
+        }
+        productRepository.addAllProducts(catalog);
+        nextFreshId.set(catalogSize);
+    }
+
+    //products added during an iteration are removed after it, so the catalog size stays the same
+    @State(Scope.Thread)
+    public static class AddState {
+        final List<Integer> addedIds = new ArrayList<>();
+
+        @TearDown(Level.Iteration)
+        public void removeAdded(ProductRepositoryBenchmark benchmark) {
+            benchmark.productRepository.deleteProductsByIds(addedIds);
+            addedIds.clear();
+        }
+    }
+
+    //the product deleted by an invocation is added back outside the measured time
+    @State(Scope.Thread)
+    public static class DeleteState {
+        Product deleted;
+
+        @Setup(Level.Invocation)
+        public void pickProduct(ProductRepositoryBenchmark benchmark) {
+            //every thread deletes from its own ids so two threads never race for the same product
+            int id = benchmark.nextFreshId.getAndIncrement();
+            deleted = product(id, 100.0);
+            benchmark.productRepository.addProduct(deleted);
+        }
+    }
+
+    @Benchmark
+    public Product addProduct(AddState state) {
+        int id = nextFreshId.getAndIncrement();
+        state.addedIds.add(id);
+        return productRepository.addProduct(product(id, 100.0));
+    }
+
+    @Benchmark
+    public Optional<Product> findProductById() {
+        return productRepository.findProductById(randomId());
+    }
+
+    @Benchmark
+    public Product updateProduct() {
+        int id = randomId();
+        return productRepository.updateProduct(product(id, ThreadLocalRandom.current().nextDouble(100.0)), id);
+    }
+
+    @Benchmark
+    public List<Product> deleteProductById(DeleteState state) {
+        return productRepository.deleteProductById(state.deleted.getProductId());
+    }
+
+    @Benchmark
+    public List<Product> findDiscountedProducts() {
+        return productRepository.findDiscountedProducts(Optional.of(0.1), Optional.of(0.2));
+    }
+
+    @Benchmark
+    public List<Product> findAll() {
+        return productRepository.findAll();
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(catalogSize);
+    }
+
+    //discounts are spread over 0.00 - 0.99, so findDiscountedProducts matches about a tenth of the catalog
+    private static Product product(int id, double price) {
+        return new Product(id, "Product " + id, CATEGORIES[id % CATEGORIES.length], price, (id % 100) / 100.0);
+    }
+}
@@ -0,0 +1,290 @@
+package org.example.cache;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.BadArgumentsException;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductSnapshot;
+import org.example.utils.ValidationUtils;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+//read through cache in front of a slower repository (disk, off heap, remote).
+//findProductById is served from a bounded LRU map, misses are loaded from the delegate and cached, ids that don't
+//exist are cached too (negative entries) so repeated misses don't reach the delegate. every write goes to the
+//delegate first and then invalidates the touched ids. the other queries scan the whole catalog anyway, they go
+//straight to the delegate.
+//loading happens outside the lock, a load that raced with a write of the same catalog is not cached (the write
+//counter changed in the meantime), so a stale product can't end up in the cache.
+public class CachingProductRepository implements ProductRepository {
+    private static final int NEGATIVE_ENTRY_WEIGHT = 1;
+
+    private final ProductRepository delegate;
+    private final long maxWeight;
+    private final ToIntFunction<Product> weigher;
+    private final long timeToLiveNanos;
+    private final LongSupplier ticker;
+    //access ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long writes;
+    private long hitCount;
+    private long negativeHitCount;
+    private long missCount;
+    private long evictionCount;
+
+    //every product weighs 1, so maxWeight is the max number of cached ids, entries don't expire
+    public CachingProductRepository(ProductRepository delegate, long maxWeight) {
+        this(delegate, maxWeight, product -> 1, Optional.empty(), System::nanoTime);
+    }
+
+    /**
+     * @param maxWeight upper bound for the summed weight of the cached products, a cached missing id weighs 1
+     * @param weigher weight of a cached product, e.g. its estimated size in bytes
+     * @param timeToLive how long an entry stays valid after it was loaded, none keeps it until it's evicted
+     * @param ticker nanosecond clock, replaceable for tests
+     * @throws BadArgumentsException
+     */
+    public CachingProductRepository(ProductRepository delegate, long maxWeight, ToIntFunction<Product> weigher,
+                                    Optional<Duration> timeToLive, LongSupplier ticker) {
+        if (maxWeight < 1) throw new BadArgumentsException("Max weight must be positive");
+        if (timeToLive.isPresent() && (timeToLive.get().isNegative() || timeToLive.get().isZero())) {
+            throw new BadArgumentsException("Time to live must be positive");
+        }
+        this.delegate = delegate;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.timeToLiveNanos = timeToLive.map(Duration::toNanos).orElse(Long.MAX_VALUE);
+        this.ticker = ticker;
+    }
+
+    @Override
+    public Optional<Product> findProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        long writesBeforeLoad;
+        synchronized (this) {
+            Entry entry = entries.get(productId);
+            if (entry != null && !entry.isExpired(ticker.getAsLong())) {
+                hitCount++;
+                if (entry.product == null) negativeHitCount++;
+                return Optional.ofNullable(entry.product);
+            }
+            if (entry != null) remove(productId);
+            missCount++;
+            writesBeforeLoad = writes;
+        }
+        Optional<Product> loaded = delegate.findProductById(productId);
+        synchronized (this) {
+            if (writes == writesBeforeLoad) cache(productId, loaded.orElse(null));
+        }
+        return loaded;
+    }
+
+    @Override
+    public Product addProduct(Product product) {
+        Product added = delegate.addProduct(product);
+        invalidate(product.getProductId());
+        return added;
+    }
+
+    @Override
+    public Product updateProduct(Product product, Integer productId) {
+        Product updated = delegate.updateProduct(product, productId);
+        invalidate(updated.getProductId());
+        return updated;
+    }
+
+    @Override
+    public List<Product> deleteProductById(Integer productId) {
+        List<Product> remaining = delegate.deleteProductById(productId);
+        invalidate(productId);
+        return remaining;
+    }
+
+    @Override
+    public Product removeProductById(Integer productId) {
+        Product removed = delegate.removeProductById(productId);
+        invalidate(productId);
+        return removed;
+    }
+
+    @Override
+    public void deleteAllProducts() {
+        delegate.deleteAllProducts();
+        invalidateAll();
+    }
+
+    @Override
+    public List<Product> addAllProducts(List<Product> products) {
+        List<Product> added = delegate.addAllProducts(products);
+        invalidateProducts(added);
+        return added;
+    }
+
+    @Override
+    public List<Product> updateAllProducts(List<Product> products) {
+        List<Product> updated = delegate.updateAllProducts(products);
+        invalidateProducts(updated);
+        return updated;
+    }
+
+    @Override
+    public void deleteProductsByIds(List<Integer> productIds) {
+        delegate.deleteProductsByIds(productIds);
+        invalidateIds(productIds);
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        return delegate.findDiscountedProducts(discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Category category, Optional<Double> discountMin,
+                                                Optional<Double> discountMax) {
+        return delegate.findDiscountedProducts(category, discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        return delegate.findByCategory(category);
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Product> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Product> streamDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        return delegate.streamDiscountedProducts(discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findAll(int offset, int limit) {
+        return delegate.findAll(offset, limit);
+    }
+
+    @Override
+    public List<Product> findAllAfter(Optional<Integer> afterId, int limit) {
+        return delegate.findAllAfter(afterId, limit);
+    }
+
+    @Override
+    public List<Product> findByPriceRange(Optional<Double> priceMin, Optional<Double> priceMax) {
+        return delegate.findByPriceRange(priceMin, priceMax);
+    }
+
+    @Override
+    public List<Product> findByPriceRange(Category category, Optional<Double> priceMin, Optional<Double> priceMax) {
+        return delegate.findByPriceRange(category, priceMin, priceMax);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(int limit) {
+        return delegate.findCheapestProducts(limit);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Category category, int limit) {
+        return delegate.findCheapestProducts(category, limit);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Optional<Double> effectivePriceMin, Optional<Double> effectivePriceMax,
+                                              int limit) {
+        return delegate.findCheapestProducts(effectivePriceMin, effectivePriceMax, limit);
+    }
+
+    @Override
+    public ProductSnapshot snapshot() {
+        return delegate.snapshot();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hitCount, negativeHitCount, missCount, evictionCount);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    //drops the cached entries only, the delegate is not touched
+    public synchronized void invalidateAll() {
+        writes++;
+        entries.clear();
+        weight = 0;
+    }
+
+    private synchronized void invalidate(Integer productId) {
+        writes++;
+        remove(productId);
+    }
+
+    private synchronized void invalidateProducts(List<Product> products) {
+        writes++;
+        products.forEach(product -> remove(product.getProductId()));
+    }
+
+    private synchronized void invalidateIds(List<Integer> productIds) {
+        writes++;
+        productIds.forEach(this::remove);
+    }
+
+    private void cache(Integer productId, Product product) {
+        int entryWeight = product == null ? NEGATIVE_ENTRY_WEIGHT : weigher.applyAsInt(product);
+        //a product heavier than the whole cache would evict everything and itself, it's not worth it
+        if (entryWeight > maxWeight) return;
+        remove(productId);
+        long now = ticker.getAsLong();
+        long expiresAt = timeToLiveNanos == Long.MAX_VALUE ? Long.MAX_VALUE : now + timeToLiveNanos;
+        entries.put(productId, new Entry(product, entryWeight, expiresAt));
+        weight += entryWeight;
+        Iterator<Map.Entry<Integer, Entry>> leastRecentlyUsed = entries.entrySet().iterator();
+        while (weight > maxWeight) {
+            Entry evicted = leastRecentlyUsed.next().getValue();
+            leastRecentlyUsed.remove();
+            weight -= evicted.weight;
+            evictionCount++;
+        }
+    }
+
+    private void remove(Integer productId) {
+        Entry removed = entries.remove(productId);
+        if (removed != null) weight -= removed.weight;
+    }
+
+    //product is null for an id that doesn't exist in the delegate
+    private static final class Entry {
+        private final Product product;
+        private final int weight;
+        private final long expiresAt;
+
+        Entry(Product product, int weight, long expiresAt) {
+            this.product = product;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0 && expiresAt != Long.MAX_VALUE;
+        }
+    }
+}
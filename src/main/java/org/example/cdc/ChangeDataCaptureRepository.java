@@ -0,0 +1,196 @@
+package org.example.cdc;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.enums.ChangeType;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductSnapshot;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+//decorator that publishes every successful write of the delegate as ChangeEvents into a ChangeEventRingBuffer.
+//writes are serialized by one lock, which makes the decorator the ring buffer's single producer and keeps the
+//event order the delegate's order. an event is only published after the delegate applied the write, a write that
+//throws publishes nothing. a batch publishes one event per product, deleteAllProducts a single CLEAR.
+//writes that bypass the decorator aren't published.
+public class ChangeDataCaptureRepository implements ProductRepository {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final ProductRepository delegate;
+    private final ChangeEventRingBuffer ringBuffer;
+    private final Object writeLock = new Object();
+
+    public ChangeDataCaptureRepository(ProductRepository delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity events the slowest subscriber may fall behind before writes wait for it, a power of two
+     * @throws org.example.exceptions.BadArgumentsException
+     */
+    public ChangeDataCaptureRepository(ProductRepository delegate, int capacity) {
+        this.delegate = delegate;
+        this.ringBuffer = new ChangeEventRingBuffer(capacity);
+    }
+
+    /**
+     * @see ChangeEventRingBuffer#subscribe()
+     */
+    public ChangeSubscription subscribe() {
+        return ringBuffer.subscribe();
+    }
+
+    //sequence of the last published event, 0 before the first write
+    public long publishedSequence() {
+        return ringBuffer.publishedSequence();
+    }
+
+    @Override
+    public Product addProduct(Product product) {
+        synchronized (writeLock) {
+            Product added = delegate.addProduct(product);
+            ringBuffer.publish(ChangeType.ADD, added.getProductId(), added);
+            return added;
+        }
+    }
+
+    @Override
+    public Product updateProduct(Product product, Integer productId) {
+        synchronized (writeLock) {
+            Product updated = delegate.updateProduct(product, productId);
+            ringBuffer.publish(ChangeType.UPDATE, updated.getProductId(), updated);
+            return updated;
+        }
+    }
+
+    @Override
+    public List<Product> deleteProductById(Integer productId) {
+        synchronized (writeLock) {
+            List<Product> remaining = delegate.deleteProductById(productId);
+            ringBuffer.publish(ChangeType.DELETE, productId, null);
+            return remaining;
+        }
+    }
+
+    @Override
+    public Product removeProductById(Integer productId) {
+        synchronized (writeLock) {
+            Product removed = delegate.removeProductById(productId);
+            ringBuffer.publish(ChangeType.DELETE, productId, null);
+            return removed;
+        }
+    }
+
+    @Override
+    public void deleteAllProducts() {
+        synchronized (writeLock) {
+            delegate.deleteAllProducts();
+            ringBuffer.publish(ChangeType.CLEAR, null, null);
+        }
+    }
+
+    @Override
+    public List<Product> addAllProducts(List<Product> products) {
+        synchronized (writeLock) {
+            List<Product> added = delegate.addAllProducts(products);
+            added.forEach(product -> ringBuffer.publish(ChangeType.ADD, product.getProductId(), product));
+            return added;
+        }
+    }
+
+    @Override
+    public List<Product> updateAllProducts(List<Product> products) {
+        synchronized (writeLock) {
+            List<Product> updated = delegate.updateAllProducts(products);
+            updated.forEach(product -> ringBuffer.publish(ChangeType.UPDATE, product.getProductId(), product));
+            return updated;
+        }
+    }
+
+    @Override
+    public void deleteProductsByIds(List<Integer> productIds) {
+        synchronized (writeLock) {
+            delegate.deleteProductsByIds(productIds);
+            productIds.forEach(productId -> ringBuffer.publish(ChangeType.DELETE, productId, null));
+        }
+    }
+
+    @Override
+    public Optional<Product> findProductById(Integer productId) {
+        return delegate.findProductById(productId);
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        return delegate.findDiscountedProducts(discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Category category, Optional<Double> discountMin,
+                                                Optional<Double> discountMax) {
+        return delegate.findDiscountedProducts(category, discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        return delegate.findByCategory(category);
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Product> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Product> streamDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        return delegate.streamDiscountedProducts(discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findAll(int offset, int limit) {
+        return delegate.findAll(offset, limit);
+    }
+
+    @Override
+    public List<Product> findAllAfter(Optional<Integer> afterId, int limit) {
+        return delegate.findAllAfter(afterId, limit);
+    }
+
+    @Override
+    public List<Product> findByPriceRange(Optional<Double> priceMin, Optional<Double> priceMax) {
+        return delegate.findByPriceRange(priceMin, priceMax);
+    }
+
+    @Override
+    public List<Product> findByPriceRange(Category category, Optional<Double> priceMin, Optional<Double> priceMax) {
+        return delegate.findByPriceRange(category, priceMin, priceMax);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(int limit) {
+        return delegate.findCheapestProducts(limit);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Category category, int limit) {
+        return delegate.findCheapestProducts(category, limit);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Optional<Double> effectivePriceMin, Optional<Double> effectivePriceMax,
+                                              int limit) {
+        return delegate.findCheapestProducts(effectivePriceMin, effectivePriceMax, limit);
+    }
+
+    @Override
+    public ProductSnapshot snapshot() {
+        return delegate.snapshot();
+    }
+}
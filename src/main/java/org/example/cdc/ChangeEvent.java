@@ -0,0 +1,38 @@
+package org.example.cdc;
+
+import org.example.entity.Product;
+import org.example.enums.ChangeType;
+
+import java.util.Optional;
+
+//one successful mutation. ADD and UPDATE carry the product as it is now, DELETE only the id, CLEAR neither.
+//sequences start at 1 and have no gaps, in the order the repository applied the mutations
+public class ChangeEvent {
+    private final long sequence;
+    private final ChangeType type;
+    private final Integer productId;
+    private final Product product;
+
+    public ChangeEvent(long sequence, ChangeType type, Integer productId, Product product) {
+        this.sequence = sequence;
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public Optional<Integer> getProductId() {
+        return Optional.ofNullable(productId);
+    }
+
+    public Optional<Product> getProduct() {
+        return Optional.ofNullable(product);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.cdc;
+
+import org.example.entity.Product;
+import org.example.enums.ChangeType;
+import org.example.exceptions.BadArgumentsException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+//bounded ring of change events in the style of the LMAX disruptor: one producer, any number of subscribers, each
+//with its own cursor, and no locks. the producer writes the event into its slot and then moves the published
+//cursor (a volatile write), a subscriber reads the published cursor and then every slot up to it.
+//backpressure: a slot is only overwritten once every subscriber has consumed it, so when the slowest subscriber is
+//a whole ring behind the producer waits for it. until then publishing is a slot write and a volatile write, the
+//subscriber cursors are only scanned again when the producer gets close to the cached minimum.
+//publish must not be called concurrently, the caller serializes the producers (ChangeDataCaptureRepository does).
+public class ChangeEventRingBuffer {
+    private static final long PRODUCER_PARK_NANOS = 1_000;
+
+    private final ChangeEvent[] events;
+    private final int mask;
+    private final List<ChangeSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    //sequence of the last published event, 0 before the first one
+    private volatile long published;
+    //the slowest subscriber's cursor as of the last scan, only used by the producer
+    private long cachedMinimumCursor;
+
+    /**
+     * @param capacity number of events the slowest subscriber can fall behind, a power of two
+     * @throws BadArgumentsException
+     */
+    public ChangeEventRingBuffer(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new BadArgumentsException("Capacity must be a power of two");
+        }
+        this.events = new ChangeEvent[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public int capacity() {
+        return events.length;
+    }
+
+    public long publishedSequence() {
+        return published;
+    }
+
+    //publishes the event with the next sequence and returns that sequence, waits while the ring is full
+    public long publish(ChangeType type, Integer productId, Product product) {
+        long next = published + 1;
+        long wrapPoint = next - events.length;
+        while (wrapPoint > cachedMinimumCursor) {
+            cachedMinimumCursor = minimumCursor(published);
+            if (wrapPoint > cachedMinimumCursor) LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+        }
+        events[(int) (next & mask)] = new ChangeEvent(next, type, productId, product);
+        published = next;
+        return next;
+    }
+
+    /**
+     * subscribes from the next published event on, events published before aren't delivered
+     */
+    public ChangeSubscription subscribe() {
+        ChangeSubscription subscription = new ChangeSubscription(this, published);
+        subscriptions.add(subscription);
+        //the producer may have moved on while the subscription was added, start after whatever it published since
+        subscription.moveCursorTo(published);
+        return subscription;
+    }
+
+    void unsubscribe(ChangeSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    ChangeEvent eventAt(long sequence) {
+        return events[(int) (sequence & mask)];
+    }
+
+    private long minimumCursor(long minimum) {
+        for (ChangeSubscription subscription : subscriptions) {
+            minimum = Math.min(minimum, subscription.cursor());
+        }
+        return minimum;
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.cdc;
+
+import org.example.exceptions.BadArgumentsException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+//one subscriber's position in a ChangeEventRingBuffer. events are consumed in batches from the subscriber's own
+//thread, a subscription must not be polled by two threads at once. an open subscription that isn't polled holds
+//the producer back once it's a whole ring behind, close it when it's not needed any more.
+public class ChangeSubscription implements AutoCloseable {
+    private static final long CONSUMER_PARK_NANOS = 50_000;
+
+    private final ChangeEventRingBuffer ringBuffer;
+    //sequence of the last consumed event
+    private final AtomicLong cursor;
+
+    ChangeSubscription(ChangeEventRingBuffer ringBuffer, long cursor) {
+        this.ringBuffer = ringBuffer;
+        this.cursor = new AtomicLong(cursor);
+    }
+
+    /**
+     * the events published since the last poll, up to maxEvents, without waiting
+     * @throws BadArgumentsException
+     */
+    public List<ChangeEvent> poll(int maxEvents) {
+        if (maxEvents < 1) throw new BadArgumentsException("Max events must be positive");
+        long consumed = cursor.get();
+        long available = Math.min(ringBuffer.publishedSequence(), consumed + maxEvents);
+        List<ChangeEvent> batch = new ArrayList<>((int) (available - consumed));
+        for (long sequence = consumed + 1; sequence <= available; sequence++) {
+            batch.add(ringBuffer.eventAt(sequence));
+        }
+        //the slots are only released to the producer after they were read
+        cursor.lazySet(available);
+        return batch;
+    }
+
+    /**
+     * like {@link #poll(int)}, but waits up to the timeout for the first event
+     * @return an empty batch when nothing was published in time
+     */
+    public List<ChangeEvent> poll(int maxEvents, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (ringBuffer.publishedSequence() == cursor.get() && System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(CONSUMER_PARK_NANOS);
+            if (Thread.interrupted()) throw new InterruptedException();
+        }
+        return poll(maxEvents);
+    }
+
+    //published events this subscriber hasn't consumed yet
+    public long lag() {
+        return ringBuffer.publishedSequence() - cursor.get();
+    }
+
+    @Override
+    public void close() {
+        ringBuffer.unsubscribe(this);
+    }
+
+    long cursor() {
+        return cursor.get();
+    }
+
+    void moveCursorTo(long sequence) {
+        cursor.set(sequence);
+    }
+}
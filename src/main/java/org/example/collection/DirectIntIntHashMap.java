@@ -0,0 +1,137 @@
+package org.example.collection;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+//same open addressing int -> int map as IntIntHashMap, but the buckets live in a direct (off-heap) buffer,
+//so a big index adds nothing for the garbage collector to trace. every bucket is 8 bytes: key, value.
+//values have to be non negative, a negative value marks a free bucket. not thread safe, callers guard it.
+public final class DirectIntIntHashMap {
+    public static final int NO_VALUE = -1;
+    private static final int BUCKET_BYTES = 8;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private ByteBuffer buckets;
+    private int capacity;
+    private int mask;
+    private int size;
+
+    public DirectIntIntHashMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int key) {
+        int bucket = bucketOf(key);
+        while (valueAt(bucket) >= 0) {
+            if (keyAt(bucket) == key) return valueAt(bucket);
+            bucket = (bucket + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != NO_VALUE;
+    }
+
+    //returns the previous value or NO_VALUE
+    public int put(int key, int value) {
+        if (value < 0) throw new IllegalArgumentException("value must not be negative");
+        int bucket = bucketOf(key);
+        while (valueAt(bucket) >= 0) {
+            if (keyAt(bucket) == key) {
+                int previous = valueAt(bucket);
+                set(bucket, key, value);
+                return previous;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+        set(bucket, key, value);
+        if (++size > capacity * LOAD_FACTOR) resize(capacity << 1);
+        return NO_VALUE;
+    }
+
+    //returns the removed value or NO_VALUE
+    public int remove(int key) {
+        int bucket = bucketOf(key);
+        while (valueAt(bucket) >= 0) {
+            if (keyAt(bucket) == key) {
+                int removed = valueAt(bucket);
+                shiftBack(bucket);
+                size--;
+                return removed;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+
+    public void clear() {
+        for (int bucket = 0; bucket < capacity; bucket++) {
+            set(bucket, 0, NO_VALUE);
+        }
+        size = 0;
+    }
+
+    private void shiftBack(int freed) {
+        int bucket = freed;
+        while (true) {
+            bucket = (bucket + 1) & mask;
+            if (valueAt(bucket) < 0) break;
+            int home = bucketOf(keyAt(bucket));
+            //the entry may move into the freed bucket only if that doesn't put it before its home bucket
+            if (((bucket - home) & mask) >= ((bucket - freed) & mask)) {
+                set(freed, keyAt(bucket), valueAt(bucket));
+                freed = bucket;
+            }
+        }
+        set(freed, 0, NO_VALUE);
+    }
+
+    private void resize(int newCapacity) {
+        ByteBuffer oldBuckets = buckets;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            int value = oldBuckets.getInt(i * BUCKET_BYTES + 4);
+            if (value < 0) continue;
+            int key = oldBuckets.getInt(i * BUCKET_BYTES);
+            int bucket = bucketOf(key);
+            while (valueAt(bucket) >= 0) {
+                bucket = (bucket + 1) & mask;
+            }
+            set(bucket, key, value);
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        if (newCapacity > Integer.MAX_VALUE / BUCKET_BYTES) throw new IllegalStateException("index is full");
+        buckets = ByteBuffer.allocateDirect(newCapacity * BUCKET_BYTES).order(ByteOrder.nativeOrder());
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        for (int bucket = 0; bucket < capacity; bucket++) {
+            set(bucket, 0, NO_VALUE);
+        }
+    }
+
+    private int keyAt(int bucket) {
+        return buckets.getInt(bucket * BUCKET_BYTES);
+    }
+
+    private int valueAt(int bucket) {
+        return buckets.getInt(bucket * BUCKET_BYTES + 4);
+    }
+
+    private void set(int bucket, int key, int value) {
+        buckets.putInt(bucket * BUCKET_BYTES, key);
+        buckets.putInt(bucket * BUCKET_BYTES + 4, value);
+    }
+
+    private int bucketOf(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
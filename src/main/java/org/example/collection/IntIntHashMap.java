@@ -0,0 +1,120 @@
+package org.example.collection;
+
+import java.util.Arrays;
+
+//open addressing int -> int hash map with linear probing, no boxing and no per entry objects.
+//values have to be non negative, a negative value marks a free bucket so every int can be a key.
+//removal shifts the following entries back instead of leaving tombstones, so lookups never slow down over time.
+//not thread safe, callers guard it.
+public final class IntIntHashMap {
+    public static final int NO_VALUE = -1;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int key) {
+        int bucket = bucketOf(key);
+        while (values[bucket] >= 0) {
+            if (keys[bucket] == key) return values[bucket];
+            bucket = (bucket + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != NO_VALUE;
+    }
+
+    //returns the previous value or NO_VALUE
+    public int put(int key, int value) {
+        if (value < 0) throw new IllegalArgumentException("value must not be negative");
+        int bucket = bucketOf(key);
+        while (values[bucket] >= 0) {
+            if (keys[bucket] == key) {
+                int previous = values[bucket];
+                values[bucket] = value;
+                return previous;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+        keys[bucket] = key;
+        values[bucket] = value;
+        if (++size > keys.length * LOAD_FACTOR) resize(keys.length << 1);
+        return NO_VALUE;
+    }
+
+    //returns the removed value or NO_VALUE
+    public int remove(int key) {
+        int bucket = bucketOf(key);
+        while (values[bucket] >= 0) {
+            if (keys[bucket] == key) {
+                int removed = values[bucket];
+                shiftBack(bucket);
+                size--;
+                return removed;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+
+    public void clear() {
+        Arrays.fill(values, NO_VALUE);
+        size = 0;
+    }
+
+    private void shiftBack(int freed) {
+        int bucket = freed;
+        while (true) {
+            bucket = (bucket + 1) & mask;
+            if (values[bucket] < 0) break;
+            int home = bucketOf(keys[bucket]);
+            //the entry may move into the freed bucket only if that doesn't put it before its home bucket
+            if (((bucket - home) & mask) >= ((bucket - freed) & mask)) {
+                keys[freed] = keys[bucket];
+                values[freed] = values[bucket];
+                freed = bucket;
+            }
+        }
+        values[freed] = NO_VALUE;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] < 0) continue;
+            int bucket = bucketOf(oldKeys[i]);
+            while (values[bucket] >= 0) {
+                bucket = (bucket + 1) & mask;
+            }
+            keys[bucket] = oldKeys[i];
+            values[bucket] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, NO_VALUE);
+        mask = capacity - 1;
+    }
+
+    private int bucketOf(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
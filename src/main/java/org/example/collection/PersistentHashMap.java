@@ -0,0 +1,351 @@
+package org.example.collection;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+//immutable hash array mapped trie (HAMT). every put/remove returns a new map that shares all the untouched
+//branches with the previous one, so a write only copies the O(log32 n) nodes on the path to the key.
+//old instances are never modified, that's why a map can be handed out as a consistent snapshot.
+//null keys and null values are not supported.
+public final class PersistentHashMap<K, V> implements Iterable<V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        Objects.requireNonNull(key);
+        if (root == null) return null;
+        Leaf leaf = root.find(key, key.hashCode(), 0);
+        return leaf == null ? null : (V) leaf.value;
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    public PersistentHashMap<K, V> put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        Leaf leaf = new Leaf(key, key.hashCode(), value);
+        if (root == null) return new PersistentHashMap<>(BitmapNode.EMPTY.put(leaf, 0, new boolean[1]), 1);
+        boolean[] added = new boolean[1];
+        Node newRoot = root.put(leaf, 0, added);
+        if (newRoot == root) return this;
+        return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    public PersistentHashMap<K, V> remove(K key) {
+        Objects.requireNonNull(key);
+        if (root == null) return this;
+        Object newRoot = root.remove(key, key.hashCode(), 0);
+        if (newRoot == root) return this;
+        if (size == 1) return empty();
+        //a root never collapses to a single leaf, it stays a node so the trie keeps one shape
+        return new PersistentHashMap<>(newRoot instanceof Leaf ? BitmapNode.EMPTY.put((Leaf) newRoot, 0,
+                new boolean[1]) : (Node) newRoot, size - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        if (root != null) root.forEach(leaf -> action.accept((V) leaf.value));
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new ValueIterator<>(root);
+    }
+
+    @Override
+    public Spliterator<V> spliterator() {
+        return Spliterators.spliterator(iterator(), size, Spliterator.SIZED | Spliterator.NONNULL
+                | Spliterator.IMMUTABLE);
+    }
+
+    public Stream<V> values() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    private static int index(int hash, int shift) {
+        return (hash >>> shift) & MASK;
+    }
+
+    private static final class Leaf {
+        final Object key;
+        final int hash;
+        final Object value;
+
+        Leaf(Object key, int hash, Object value) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+
+    private abstract static class Node {
+        abstract Leaf find(Object key, int hash, int shift);
+
+        abstract Node put(Leaf leaf, int shift, boolean[] added);
+
+        //returns this when the key is missing, null when the node became empty,
+        //a Leaf when only one entry is left so the parent can inline it, otherwise the new node
+        abstract Object remove(Object key, int hash, int shift);
+
+        abstract void forEach(Consumer<Leaf> action);
+    }
+
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        final int bitmap;
+        //every slot is either a Leaf or a child Node
+        final Object[] slots;
+
+        BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        @Override
+        Leaf find(Object key, int hash, int shift) {
+            int bit = 1 << index(hash, shift);
+            if ((bitmap & bit) == 0) return null;
+            Object slot = slots[Integer.bitCount(bitmap & (bit - 1))];
+            if (slot instanceof Leaf) {
+                Leaf leaf = (Leaf) slot;
+                return leaf.hash == hash && leaf.key.equals(key) ? leaf : null;
+            }
+            return ((Node) slot).find(key, hash, shift + BITS);
+        }
+
+        @Override
+        Node put(Leaf leaf, int shift, boolean[] added) {
+            int bit = 1 << index(leaf.hash, shift);
+            int position = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] newSlots = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, newSlots, 0, position);
+                newSlots[position] = leaf;
+                System.arraycopy(slots, position, newSlots, position + 1, slots.length - position);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, newSlots);
+            }
+            Object slot = slots[position];
+            Object newSlot;
+            if (slot instanceof Leaf) {
+                Leaf existing = (Leaf) slot;
+                if (existing.hash == leaf.hash && existing.key.equals(leaf.key)) {
+                    if (existing.value == leaf.value) return this;
+                    newSlot = leaf;
+                } else {
+                    added[0] = true;
+                    newSlot = merge(existing, leaf, shift + BITS);
+                }
+            } else {
+                Node child = (Node) slot;
+                newSlot = child.put(leaf, shift + BITS, added);
+                if (newSlot == child) return this;
+            }
+            return withSlot(position, newSlot);
+        }
+
+        @Override
+        Object remove(Object key, int hash, int shift) {
+            int bit = 1 << index(hash, shift);
+            if ((bitmap & bit) == 0) return this;
+            int position = Integer.bitCount(bitmap & (bit - 1));
+            Object slot = slots[position];
+            Object newSlot;
+            if (slot instanceof Leaf) {
+                Leaf leaf = (Leaf) slot;
+                if (leaf.hash != hash || !leaf.key.equals(key)) return this;
+                newSlot = null;
+            } else {
+                newSlot = ((Node) slot).remove(key, hash, shift + BITS);
+                if (newSlot == slot) return this;
+            }
+            if (newSlot != null) {
+                //a lone leaf is pulled up into the parent to keep the trie shallow
+                if (slots.length == 1 && newSlot instanceof Leaf) return newSlot;
+                return withSlot(position, newSlot);
+            }
+            if (slots.length == 1) return null;
+            if (slots.length == 2 && slots[1 - position] instanceof Leaf) return slots[1 - position];
+            Object[] newSlots = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, newSlots, 0, position);
+            System.arraycopy(slots, position + 1, newSlots, position, slots.length - position - 1);
+            return new BitmapNode(bitmap & ~bit, newSlots);
+        }
+
+        @Override
+        void forEach(Consumer<Leaf> action) {
+            for (Object slot : slots) {
+                if (slot instanceof Leaf) {
+                    action.accept((Leaf) slot);
+                } else {
+                    ((Node) slot).forEach(action);
+                }
+            }
+        }
+
+        private BitmapNode withSlot(int position, Object slot) {
+            Object[] newSlots = slots.clone();
+            newSlots[position] = slot;
+            return new BitmapNode(bitmap, newSlots);
+        }
+
+        private static Node merge(Leaf first, Leaf second, int shift) {
+            if (first.hash == second.hash) return new CollisionNode(first.hash, new Leaf[]{first, second});
+            int firstIndex = index(first.hash, shift);
+            int secondIndex = index(second.hash, shift);
+            if (firstIndex == secondIndex) {
+                return new BitmapNode(1 << firstIndex, new Object[]{merge(first, second, shift + BITS)});
+            }
+            Object[] newSlots = firstIndex < secondIndex ? new Object[]{first, second} : new Object[]{second, first};
+            return new BitmapNode((1 << firstIndex) | (1 << secondIndex), newSlots);
+        }
+    }
+
+    //keys with the same full hash code can't be told apart by the bitmap, they're kept in a flat array
+    private static final class CollisionNode extends Node {
+        final int hash;
+        final Leaf[] leaves;
+
+        CollisionNode(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        @Override
+        Leaf find(Object key, int hash, int shift) {
+            if (hash != this.hash) return null;
+            for (Leaf leaf : leaves) {
+                if (leaf.key.equals(key)) return leaf;
+            }
+            return null;
+        }
+
+        @Override
+        Node put(Leaf leaf, int shift, boolean[] added) {
+            if (leaf.hash != hash) {
+                //the new hash only shares the prefix consumed so far, wrap this node so a bitmap node splits them
+                BitmapNode wrapper = new BitmapNode(1 << index(hash, shift), new Object[]{this});
+                return wrapper.put(leaf, shift, added);
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(leaf.key)) {
+                    if (leaves[i].value == leaf.value) return this;
+                    Leaf[] newLeaves = leaves.clone();
+                    newLeaves[i] = leaf;
+                    return new CollisionNode(hash, newLeaves);
+                }
+            }
+            Leaf[] newLeaves = new Leaf[leaves.length + 1];
+            System.arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+            newLeaves[leaves.length] = leaf;
+            added[0] = true;
+            return new CollisionNode(hash, newLeaves);
+        }
+
+        @Override
+        Object remove(Object key, int hash, int shift) {
+            if (hash != this.hash) return this;
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(key)) {
+                    if (leaves.length == 2) return leaves[1 - i];
+                    Leaf[] newLeaves = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, newLeaves, 0, i);
+                    System.arraycopy(leaves, i + 1, newLeaves, i, leaves.length - i - 1);
+                    return new CollisionNode(hash, newLeaves);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        void forEach(Consumer<Leaf> action) {
+            for (Leaf leaf : leaves) {
+                action.accept(leaf);
+            }
+        }
+    }
+
+    //depth first walk with an explicit stack, so iterating doesn't copy the map
+    private static final class ValueIterator<V> implements Iterator<V> {
+        private final Deque<Object[]> slotStack = new ArrayDeque<>();
+        private final Deque<Integer> positionStack = new ArrayDeque<>();
+        private Leaf next;
+
+        ValueIterator(Node root) {
+            if (root != null) push(root);
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (next == null) throw new NoSuchElementException();
+            Leaf current = next;
+            advance();
+            return (V) current.value;
+        }
+
+        private void push(Node node) {
+            slotStack.push(node instanceof BitmapNode ? ((BitmapNode) node).slots : ((CollisionNode) node).leaves);
+            positionStack.push(0);
+        }
+
+        private void advance() {
+            next = null;
+            while (!slotStack.isEmpty()) {
+                Object[] slots = slotStack.peek();
+                int position = positionStack.pop();
+                if (position == slots.length) {
+                    slotStack.pop();
+                    continue;
+                }
+                positionStack.push(position + 1);
+                Object slot = slots[position];
+                if (slot instanceof Leaf) {
+                    next = (Leaf) slot;
+                    return;
+                }
+                push((Node) slot);
+            }
+        }
+    }
+}
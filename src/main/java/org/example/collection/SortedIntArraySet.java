@@ -0,0 +1,78 @@
+package org.example.collection;
+
+import java.util.Arrays;
+
+//set of ints kept as one sorted array, 4 bytes per element and cache friendly ascending iteration.
+//adding a value above the current maximum is an append, anything else shifts the tail of the array, so it's meant
+//for sets that mostly grow in order (ids handed out in increasing order). addAll sorts once for a whole batch.
+//not thread safe, callers guard it.
+public final class SortedIntArraySet {
+    private int[] values;
+    private int size;
+
+    public SortedIntArraySet() {
+        this(1);
+    }
+
+    public SortedIntArraySet(int expectedSize) {
+        values = new int[Math.max(1, expectedSize)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    //the index-th smallest value
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return values[index];
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    public boolean add(int value) {
+        if (size > 0 && value > values[size - 1]) {
+            ensureCapacity(size + 1);
+            values[size++] = value;
+            return true;
+        }
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index >= 0) return false;
+        int insertAt = -index - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+        values[insertAt] = value;
+        size++;
+        return true;
+    }
+
+    public void addAll(int[] batch, int count) {
+        ensureCapacity(size + count);
+        System.arraycopy(batch, 0, values, size, count);
+        int total = size + count;
+        Arrays.sort(values, 0, total);
+        int distinct = 0;
+        for (int i = 0; i < total; i++) {
+            if (distinct == 0 || values[i] != values[distinct - 1]) values[distinct++] = values[i];
+        }
+        size = distinct;
+    }
+
+    public boolean remove(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) return false;
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > values.length) values = Arrays.copyOf(values, Math.max(capacity, values.length * 2));
+    }
+}
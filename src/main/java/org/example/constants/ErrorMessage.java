@@ -3,4 +3,5 @@ package org.example.constants;
 public interface ErrorMessage {
     String DUPLICATE_ID = "This id %d already exists";
     String NO_RECORD_FOUND_EXCEPTION = "No Record Found with the Id %d";
+    String DUPLICATE_ID_IN_BATCH = "The id %d is repeated in the batch";
 }
@@ -3,6 +3,7 @@ package org.example.entity;
 import org.example.enums.Category;
 import org.example.exceptions.BadArgumentsException;
 
+import java.util.Objects;
 import java.util.Optional;
 
 //it should be an immutable object since all the fields are final and there are no setters
@@ -53,6 +54,27 @@ public class Product {
         return discount;
     }
 
+    //what the customer pays, the discount is an amount taken off the price
+    public double getEffectivePrice() {
+        return price - discount.orElse(0.0);
+    }
+
+    //value equality, repositories that don't keep the Product objects (e.g. columnar storage)
+    //hand out a new but equal instance on every read
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof Product)) return false;
+        Product product = (Product) other;
+        return productId.equals(product.productId) && name.equals(product.name) && category == product.category
+                && price.equals(product.price) && discount.equals(product.discount);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(productId, name, category, price, discount);
+    }
+
     private void isOneOfMandatoryArgsNull(Integer productId, String name, Double price) {
         if(productId == null || name == null || price == null) {
             throw new BadArgumentsException("Mandatory args are null");
@@ -0,0 +1,10 @@
+package org.example.enums;
+
+public enum FsyncPolicy {
+    //every mutation is forced to disk before it returns
+    PER_OPERATION,
+    //a mutation waits until it's on disk, but concurrent mutations share one force
+    GROUP_COMMIT,
+    //mutations return right away, a background thread forces the log at a fixed interval
+    PERIODIC
+}
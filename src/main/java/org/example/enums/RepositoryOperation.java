@@ -0,0 +1,7 @@
+package org.example.enums;
+
+public enum RepositoryOperation {
+    ADD, UPDATE, DELETE, DELETE_ALL, FIND_BY_ID, FIND_DISCOUNTED, FIND_BY_CATEGORY, FIND_ALL,
+    ADD_ALL, UPDATE_ALL, DELETE_BY_IDS, REMOVE, STREAM_ALL, STREAM_DISCOUNTED, FIND_PAGE,
+    FIND_BY_PRICE, FIND_CHEAPEST, SNAPSHOT
+}
@@ -0,0 +1,5 @@
+package org.example.enums;
+
+public enum RepositoryType {
+    LIST, INDEXED, SNAPSHOT, PARTITIONED, COLUMNAR, OFF_HEAP
+}
@@ -0,0 +1,11 @@
+package org.example.exceptions;
+
+public class PersistenceException extends InventoryException {
+    public PersistenceException(String message) {
+        super(message);
+    }
+
+    public PersistenceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,387 @@
+package org.example.metrics;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.enums.RepositoryOperation;
+import org.example.exceptions.BadArgumentsException;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductSnapshot;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+//decorator that counts and times the calls of the delegate and publishes the numbers through a MetricsSink.
+//every call and every failure is counted (striped counters, no allocation, no locking), failures also per exception
+//class and rethrown unchanged. reading the clock is the expensive part (~25ns per System.nanoTime() on a vm), so
+//only one in latencySampling calls is timed, that keeps the overhead low and the percentiles are still representative.
+//a decorator can't see inside the delegate, so time spent waiting for the delegate's locks is part of the latency,
+//comparing the latency of reads and writes under load is the way to spot lock contention.
+public class InstrumentedProductRepository implements ProductRepository, AutoCloseable {
+    public static final int DEFAULT_LATENCY_SAMPLING = 8;
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private final ProductRepository delegate;
+    private final String name;
+    private final MetricsSink metricsSink;
+    private final int samplingMask;
+    private final RepositoryMetrics metrics = new RepositoryMetrics();
+
+    public InstrumentedProductRepository(ProductRepository delegate, String name) {
+        this(delegate, name, new JmxMetricsSink());
+    }
+
+    public InstrumentedProductRepository(ProductRepository delegate, String name, MetricsSink metricsSink) {
+        this(delegate, name, metricsSink, DEFAULT_LATENCY_SAMPLING);
+    }
+
+    /**
+     * @param latencySampling time one in latencySampling calls, a power of two, 1 times every call
+     * @throws BadArgumentsException
+     */
+    public InstrumentedProductRepository(ProductRepository delegate, String name, MetricsSink metricsSink,
+                                         int latencySampling) {
+        if (latencySampling < 1 || Integer.bitCount(latencySampling) != 1) {
+            throw new BadArgumentsException("Latency sampling must be a power of two");
+        }
+        this.delegate = delegate;
+        this.name = name;
+        this.metricsSink = metricsSink;
+        this.samplingMask = latencySampling - 1;
+        //counted through the lazy stream, findAll would copy the whole catalog just for its size
+        metrics.setCatalogSize(delegate.streamAll().count());
+        metricsSink.register(name, metrics);
+    }
+
+    public RepositoryMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Product addProduct(Product product) {
+        long start = startTimer();
+        try {
+            Product added = delegate.addProduct(product);
+            metrics.adjustCatalogSize(1);
+            return added;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.ADD, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.ADD, start);
+        }
+    }
+
+    @Override
+    public Product updateProduct(Product product, Integer productId) {
+        long start = startTimer();
+        try {
+            return delegate.updateProduct(product, productId);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.UPDATE, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.UPDATE, start);
+        }
+    }
+
+    @Override
+    public List<Product> deleteProductById(Integer productId) {
+        long start = startTimer();
+        try {
+            List<Product> remaining = delegate.deleteProductById(productId);
+            metrics.adjustCatalogSize(-1);
+            return remaining;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.DELETE, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.DELETE, start);
+        }
+    }
+
+    @Override
+    public Optional<Product> findProductById(Integer productId) {
+        long start = startTimer();
+        try {
+            return delegate.findProductById(productId);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.FIND_BY_ID, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.FIND_BY_ID, start);
+        }
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        long start = startTimer();
+        try {
+            return delegate.findDiscountedProducts(discountMin, discountMax);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.FIND_DISCOUNTED, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.FIND_DISCOUNTED, start);
+        }
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Category category, Optional<Double> discountMin,
+                                                Optional<Double> discountMax) {
+        long start = startTimer();
+        try {
+            return delegate.findDiscountedProducts(category, discountMin, discountMax);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.FIND_DISCOUNTED, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.FIND_DISCOUNTED, start);
+        }
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        long start = startTimer();
+        try {
+            return delegate.findByCategory(category);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.FIND_BY_CATEGORY, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.FIND_BY_CATEGORY, start);
+        }
+    }
+
+    @Override
+    public List<Product> findAll() {
+        long start = startTimer();
+        try {
+            return delegate.findAll();
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.FIND_ALL, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.FIND_ALL, start);
+        }
+    }
+
+    @Override
+    public void deleteAllProducts() {
+        long start = startTimer();
+        try {
+            delegate.deleteAllProducts();
+            metrics.setCatalogSize(0);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.DELETE_ALL, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.DELETE_ALL, start);
+        }
+    }
+
+    @Override
+    public List<Product> addAllProducts(List<Product> products) {
+        long start = startTimer();
+        try {
+            List<Product> added = delegate.addAllProducts(products);
+            metrics.adjustCatalogSize(added.size());
+            return added;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.ADD_ALL, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.ADD_ALL, start);
+        }
+    }
+
+    @Override
+    public List<Product> updateAllProducts(List<Product> products) {
+        long start = startTimer();
+        try {
+            return delegate.updateAllProducts(products);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.UPDATE_ALL, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.UPDATE_ALL, start);
+        }
+    }
+
+    @Override
+    public void deleteProductsByIds(List<Integer> productIds) {
+        long start = startTimer();
+        try {
+            delegate.deleteProductsByIds(productIds);
+            metrics.adjustCatalogSize(-productIds.size());
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.DELETE_BY_IDS, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.DELETE_BY_IDS, start);
+        }
+    }
+
+    @Override
+    public Product removeProductById(Integer productId) {
+        long start = startTimer();
+        try {
+            Product removed = delegate.removeProductById(productId);
+            metrics.adjustCatalogSize(-1);
+            return removed;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.REMOVE, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.REMOVE, start);
+        }
+    }
+
+    //only creating the stream is timed, consuming it happens in the caller
+    @Override
+    public Stream<Product> streamAll() {
+        long start = startTimer();
+        try {
+            return delegate.streamAll();
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.STREAM_ALL, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.STREAM_ALL, start);
+        }
+    }
+
+    @Override
+    public Stream<Product> streamDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        long start = startTimer();
+        try {
+            return delegate.streamDiscountedProducts(discountMin, discountMax);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.STREAM_DISCOUNTED, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.STREAM_DISCOUNTED, start);
+        }
+    }
+
+    @Override
+    public List<Product> findAll(int offset, int limit) {
+        long start = startTimer();
+        try {
+            return delegate.findAll(offset, limit);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.FIND_PAGE, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.FIND_PAGE, start);
+        }
+    }
+
+    @Override
+    public List<Product> findAllAfter(Optional<Integer> afterId, int limit) {
+        long start = startTimer();
+        try {
+            return delegate.findAllAfter(afterId, limit);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.FIND_PAGE, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.FIND_PAGE, start);
+        }
+    }
+
+    @Override
+    public List<Product> findByPriceRange(Optional<Double> priceMin, Optional<Double> priceMax) {
+        long start = startTimer();
+        try {
+            return delegate.findByPriceRange(priceMin, priceMax);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.FIND_BY_PRICE, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.FIND_BY_PRICE, start);
+        }
+    }
+
+    @Override
+    public List<Product> findByPriceRange(Category category, Optional<Double> priceMin, Optional<Double> priceMax) {
+        long start = startTimer();
+        try {
+            return delegate.findByPriceRange(category, priceMin, priceMax);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.FIND_BY_PRICE, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.FIND_BY_PRICE, start);
+        }
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(int limit) {
+        long start = startTimer();
+        try {
+            return delegate.findCheapestProducts(limit);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.FIND_CHEAPEST, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.FIND_CHEAPEST, start);
+        }
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Category category, int limit) {
+        long start = startTimer();
+        try {
+            return delegate.findCheapestProducts(category, limit);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.FIND_CHEAPEST, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.FIND_CHEAPEST, start);
+        }
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Optional<Double> effectivePriceMin, Optional<Double> effectivePriceMax,
+                                              int limit) {
+        long start = startTimer();
+        try {
+            return delegate.findCheapestProducts(effectivePriceMin, effectivePriceMax, limit);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.FIND_CHEAPEST, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.FIND_CHEAPEST, start);
+        }
+    }
+
+    @Override
+    public ProductSnapshot snapshot() {
+        long start = startTimer();
+        try {
+            return delegate.snapshot();
+        } catch (RuntimeException e) {
+            metrics.recordFailure(RepositoryOperation.SNAPSHOT, e);
+            throw e;
+        } finally {
+            stopTimer(RepositoryOperation.SNAPSHOT, start);
+        }
+    }
+
+    private long startTimer() {
+        if (samplingMask != 0 && (ThreadLocalRandom.current().nextInt() & samplingMask) != 0) return NOT_TIMED;
+        return System.nanoTime();
+    }
+
+    private void stopTimer(RepositoryOperation operation, long start) {
+        metrics.recordCall(operation);
+        if (start != NOT_TIMED) metrics.recordLatency(operation, System.nanoTime() - start);
+    }
+
+    @Override
+    public void close() {
+        metricsSink.unregister(name);
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.metrics;
+
+import org.example.enums.RepositoryOperation;
+import org.example.exceptions.InventoryException;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//publishes every repository as an MXBean named org.example.inventory:type=ProductRepository,name=<repositoryName>
+public class JmxMetricsSink implements MetricsSink {
+    public static final String DOMAIN = "org.example.inventory";
+
+    private final MBeanServer mBeanServer;
+
+    public JmxMetricsSink() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public JmxMetricsSink(MBeanServer mBeanServer) {
+        this.mBeanServer = mBeanServer;
+    }
+
+    public static ObjectName objectName(String repositoryName) {
+        try {
+            return new ObjectName(DOMAIN + ":type=ProductRepository,name=" + ObjectName.quote(repositoryName));
+        } catch (JMException e) {
+            throw new InventoryException("Invalid repository name " + repositoryName, e);
+        }
+    }
+
+    @Override
+    public void register(String repositoryName, RepositoryMetrics metrics) {
+        try {
+            mBeanServer.registerMBean(new RepositoryMetricsBean(metrics), objectName(repositoryName));
+        } catch (JMException e) {
+            throw new InventoryException("Can't register the metrics of " + repositoryName, e);
+        }
+    }
+
+    @Override
+    public void unregister(String repositoryName) {
+        try {
+            if (mBeanServer.isRegistered(objectName(repositoryName))) {
+                mBeanServer.unregisterMBean(objectName(repositoryName));
+            }
+        } catch (JMException e) {
+            throw new InventoryException("Can't unregister the metrics of " + repositoryName, e);
+        }
+    }
+
+    private static final class RepositoryMetricsBean implements RepositoryMetricsMXBean {
+        private final RepositoryMetrics metrics;
+
+        RepositoryMetricsBean(RepositoryMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public long getCatalogSize() {
+            return metrics.getCatalogSize();
+        }
+
+        @Override
+        public Map<String, Long> getOperationCounts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            metrics.getCalls().forEach((operation, count) -> counts.put(operation.name(), count));
+            return counts;
+        }
+
+        @Override
+        public Map<String, Long> getFailureCounts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            metrics.getFailures().forEach((operation, count) -> counts.put(operation.name(), count));
+            return counts;
+        }
+
+        @Override
+        public Map<String, Long> getExceptionCounts() {
+            return metrics.getExceptions();
+        }
+
+        @Override
+        public Map<String, Long> getLatencyNanos() {
+            Map<String, Long> latencies = new LinkedHashMap<>();
+            for (RepositoryOperation operation : RepositoryOperation.values()) {
+                LatencyHistogram histogram = metrics.getLatency(operation);
+                latencies.put(operation.name() + ".p50", histogram.getValueAtQuantile(0.5));
+                latencies.put(operation.name() + ".p90", histogram.getValueAtQuantile(0.9));
+                latencies.put(operation.name() + ".p99", histogram.getValueAtQuantile(0.99));
+                latencies.put(operation.name() + ".p999", histogram.getValueAtQuantile(0.999));
+                latencies.put(operation.name() + ".max", histogram.getValueAtQuantile(1.0));
+            }
+            return latencies;
+        }
+
+        @Override
+        public void resetLatencies() {
+            for (RepositoryOperation operation : RepositoryOperation.values()) {
+                metrics.getLatency(operation).reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.metrics;
+
+//where the metrics of a repository are published, e.g. JMX (the default) or a push based monitoring system.
+//a sink reads RepositoryMetrics when it's asked for the numbers, it's never called on the repository hot path
+public interface MetricsSink {
+    void register(String repositoryName, RepositoryMetrics metrics);
+
+    void unregister(String repositoryName);
+}
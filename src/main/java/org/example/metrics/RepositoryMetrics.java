@@ -0,0 +1,91 @@
+package org.example.metrics;
+
+import org.example.enums.RepositoryOperation;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+//the numbers collected by InstrumentedProductRepository. the recording side only touches striped counters and the
+//histogram buckets, so it stays cheap under contention, the reading side (sinks) pays for summing them up
+public class RepositoryMetrics {
+    private static final RepositoryOperation[] OPERATIONS = RepositoryOperation.values();
+
+    private final LongAdder[] calls = new LongAdder[OPERATIONS.length];
+    private final LongAdder[] failures = new LongAdder[OPERATIONS.length];
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final ConcurrentMap<String, LongAdder> exceptions = new ConcurrentHashMap<>();
+    private final AtomicLong catalogSize = new AtomicLong();
+
+    public RepositoryMetrics() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            calls[i] = new LongAdder();
+            failures[i] = new LongAdder();
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    public void recordCall(RepositoryOperation operation) {
+        calls[operation.ordinal()].increment();
+    }
+
+    public void recordLatency(RepositoryOperation operation, long latencyNanos) {
+        latencies[operation.ordinal()].record(latencyNanos);
+    }
+
+    public void recordFailure(RepositoryOperation operation, Throwable failure) {
+        failures[operation.ordinal()].increment();
+        exceptions.computeIfAbsent(failure.getClass().getSimpleName(), name -> new LongAdder()).increment();
+    }
+
+    public void adjustCatalogSize(long delta) {
+        catalogSize.addAndGet(delta);
+    }
+
+    public void setCatalogSize(long size) {
+        catalogSize.set(size);
+    }
+
+    public long getCatalogSize() {
+        return catalogSize.get();
+    }
+
+    public long getCalls(RepositoryOperation operation) {
+        return calls[operation.ordinal()].sum();
+    }
+
+    public long getFailures(RepositoryOperation operation) {
+        return failures[operation.ordinal()].sum();
+    }
+
+    public LatencyHistogram getLatency(RepositoryOperation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    public Map<RepositoryOperation, Long> getCalls() {
+        Map<RepositoryOperation, Long> counts = new EnumMap<>(RepositoryOperation.class);
+        for (RepositoryOperation operation : OPERATIONS) {
+            counts.put(operation, getCalls(operation));
+        }
+        return counts;
+    }
+
+    public Map<RepositoryOperation, Long> getFailures() {
+        Map<RepositoryOperation, Long> counts = new EnumMap<>(RepositoryOperation.class);
+        for (RepositoryOperation operation : OPERATIONS) {
+            counts.put(operation, getFailures(operation));
+        }
+        return counts;
+    }
+
+    //failures by exception class, e.g. DuplicateIdException -> 3
+    public Map<String, Long> getExceptions() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        exceptions.forEach((name, count) -> counts.put(name, count.sum()));
+        return counts;
+    }
+}
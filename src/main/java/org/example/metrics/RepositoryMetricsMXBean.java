@@ -0,0 +1,19 @@
+package org.example.metrics;
+
+import java.util.Map;
+
+public interface RepositoryMetricsMXBean {
+    long getCatalogSize();
+
+    //calls per operation, failed calls included
+    Map<String, Long> getOperationCounts();
+
+    Map<String, Long> getFailureCounts();
+
+    Map<String, Long> getExceptionCounts();
+
+    //latency percentiles in nanoseconds, keyed <operation>.p50, .p90, .p99, .p999 and .max
+    Map<String, Long> getLatencyNanos();
+
+    void resetLatencies();
+}
@@ -0,0 +1,182 @@
+package org.example.persistence;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.enums.FsyncPolicy;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductSnapshot;
+import org.example.utils.ValidationUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+//decorator that makes any repository durable with a write ahead log.
+//a mutation's records are encoded into the log first and the delegate is only changed after that, so a record
+//that's too large for the log or a failed write throws while the delegate is still unchanged. when the delegate
+//rejects the mutation (duplicate id, missing record, ids that don't match) its records are taken back, only
+//mutations that succeeded end up in the log and replaying it into the same kind of empty delegate applies them all.
+//encoding, applying and keeping the records happen under the log's lock, that keeps the log in the same order as
+//the delegate saw the mutations. waiting for the disk happens after the lock is released.
+//reads go straight to the delegate.
+public class DurableProductRepository implements ProductRepository, AutoCloseable {
+    private final ProductRepository delegate;
+    private final WriteAheadLog writeAheadLog;
+
+    public DurableProductRepository(ProductRepository delegate, WriteAheadLog writeAheadLog) {
+        this.delegate = delegate;
+        this.writeAheadLog = writeAheadLog;
+    }
+
+    //rebuilds the (empty) delegate from the log at the given path and keeps appending to it
+    public static DurableProductRepository open(ProductRepository delegate, Path path, FsyncPolicy fsyncPolicy) {
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(path, fsyncPolicy);
+        writeAheadLog.replay(delegate);
+        return new DurableProductRepository(delegate, writeAheadLog);
+    }
+
+    //the arguments are checked before they're encoded, like the delegate would check them
+    @Override
+    public Product addProduct(Product product) {
+        ValidationUtils.checkValidProduct(product);
+        return awaitDurable(writeAheadLog.logAdd(product, () -> delegate.addProduct(product)));
+    }
+
+    @Override
+    public Product updateProduct(Product product, Integer productId) {
+        ValidationUtils.checkValidProduct(product);
+        ValidationUtils.checkValidProductId(productId);
+        return awaitDurable(writeAheadLog.logUpdate(product, () -> delegate.updateProduct(product, productId)));
+    }
+
+    @Override
+    public List<Product> deleteProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        return awaitDurable(writeAheadLog.logDelete(productId, () -> delegate.deleteProductById(productId)));
+    }
+
+    //logged as a normal delete, only the return value differs
+    @Override
+    public Product removeProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        return awaitDurable(writeAheadLog.logDelete(productId, () -> delegate.removeProductById(productId)));
+    }
+
+    //a batch is logged between batch markers, replay applies it completely or not at all
+    @Override
+    public List<Product> addAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        return awaitDurable(writeAheadLog.logAddAll(products, () -> delegate.addAllProducts(products)));
+    }
+
+    @Override
+    public List<Product> updateAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        return awaitDurable(writeAheadLog.logUpdateAll(products, () -> delegate.updateAllProducts(products)));
+    }
+
+    @Override
+    public void deleteProductsByIds(List<Integer> productIds) {
+        ValidationUtils.checkValidProductIds(productIds);
+        awaitDurable(writeAheadLog.logDeleteAll(productIds, () -> {
+            delegate.deleteProductsByIds(productIds);
+            return null;
+        }));
+    }
+
+    @Override
+    public void deleteAllProducts() {
+        awaitDurable(writeAheadLog.logClear(() -> {
+            delegate.deleteAllProducts();
+            return null;
+        }));
+    }
+
+    @Override
+    public Optional<Product> findProductById(Integer productId) {
+        return delegate.findProductById(productId);
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        return delegate.findDiscountedProducts(discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Category category, Optional<Double> discountMin,
+                                                Optional<Double> discountMax) {
+        return delegate.findDiscountedProducts(category, discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        return delegate.findByCategory(category);
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Product> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Product> streamDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        return delegate.streamDiscountedProducts(discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findAll(int offset, int limit) {
+        return delegate.findAll(offset, limit);
+    }
+
+    @Override
+    public List<Product> findAllAfter(Optional<Integer> afterId, int limit) {
+        return delegate.findAllAfter(afterId, limit);
+    }
+
+    @Override
+    public List<Product> findByPriceRange(Optional<Double> priceMin, Optional<Double> priceMax) {
+        return delegate.findByPriceRange(priceMin, priceMax);
+    }
+
+    @Override
+    public List<Product> findByPriceRange(Category category, Optional<Double> priceMin, Optional<Double> priceMax) {
+        return delegate.findByPriceRange(category, priceMin, priceMax);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(int limit) {
+        return delegate.findCheapestProducts(limit);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Category category, int limit) {
+        return delegate.findCheapestProducts(category, limit);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Optional<Double> effectivePriceMin, Optional<Double> effectivePriceMax,
+                                              int limit) {
+        return delegate.findCheapestProducts(effectivePriceMin, effectivePriceMax, limit);
+    }
+
+    @Override
+    public ProductSnapshot snapshot() {
+        return delegate.snapshot();
+    }
+
+    @Override
+    public void close() {
+        writeAheadLog.close();
+    }
+
+    private <T> T awaitDurable(WriteAheadLog.Logged<T> logged) {
+        writeAheadLog.awaitDurable(logged.sequence);
+        return logged.result;
+    }
+}
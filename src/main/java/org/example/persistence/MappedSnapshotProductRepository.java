@@ -0,0 +1,367 @@
+package org.example.persistence;
+
+import org.example.constants.ErrorMessage;
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.exceptions.PersistenceException;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductSnapshot;
+import org.example.utils.ValidationUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+//repository that starts from a memory mapped ProductSnapshotFile, opening it is just mapping the file,
+//nothing is read or parsed up front, so startup doesn't depend on the catalog size.
+//lookups binary search the sorted records in the mapped file, a record that was read once is promoted to the heap.
+//mutations don't touch the file, they go to an on-heap overlay (changed products and deleted ids) that wins over
+//the mapped records. write a new snapshot with ProductSnapshotFile.write to fold the overlay back in.
+//the records are only checked when they're read, a corrupt name offset or category throws a PersistenceException then.
+//writes are synchronized, reads don't lock: the mapped records never change and the overlay is concurrent.
+//streamAll materializes one mapped record at a time, findAllAfter starts at its id with a binary search.
+public class MappedSnapshotProductRepository implements ProductRepository {
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final ByteBuffer snapshot;
+    private final int recordCount;
+    private final int namesStart;
+    //added and updated products, they hide the mapped record with the same id
+    private final Map<Integer, Product> changes = new ConcurrentHashMap<>();
+    //ids deleted from the mapped records
+    private final Set<Integer> deleted = ConcurrentHashMap.newKeySet();
+    //mapped records that were already read once, the mapped data never changes so they never get stale
+    private final Map<Integer, Product> promoted = new ConcurrentHashMap<>();
+    //set by deleteAllProducts, from then on the mapped records are ignored
+    private volatile boolean snapshotDropped;
+    //number of writes so far, the version of a snapshot
+    private long version;
+
+    private MappedSnapshotProductRepository(ByteBuffer snapshot) {
+        this.snapshot = snapshot;
+        this.recordCount = snapshot.getInt(8);
+        this.namesStart = ProductSnapshotFile.HEADER_BYTES + recordCount * ProductSnapshotFile.RECORD_BYTES;
+    }
+
+    public static MappedSnapshotProductRepository open(Path path) {
+        if (path == null) {
+            throw new BadArgumentsException("Snapshot path is null");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new PersistenceException("Snapshot " + path + " is too large");
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.capacity() < ProductSnapshotFile.HEADER_BYTES || mapped.getInt(0) != ProductSnapshotFile.MAGIC
+                    || mapped.getInt(4) != ProductSnapshotFile.VERSION || mapped.getInt(8) < 0
+                    || (long) ProductSnapshotFile.HEADER_BYTES + (long) mapped.getInt(8)
+                    * ProductSnapshotFile.RECORD_BYTES > mapped.capacity()) {
+                throw new PersistenceException("Snapshot " + path + " is not a valid snapshot file");
+            }
+            return new MappedSnapshotProductRepository(mapped);
+        } catch (IOException e) {
+            throw new PersistenceException("Can't open the snapshot " + path, e);
+        }
+    }
+
+    @Override
+    public synchronized Product addProduct(Product product) {
+        ValidationUtils.checkValidProduct(product);
+        if (exists(product.getProductId())) throw new DuplicateIdException(String.format
+                (ErrorMessage.DUPLICATE_ID, product.getProductId()));
+        changes.put(product.getProductId(), product);
+        version++;
+        return product;
+    }
+
+    @Override
+    public synchronized Product updateProduct(Product product, Integer productId) {
+        ValidationUtils.checkValidProduct(product);
+        ValidationUtils.checkValidProductId(productId);
+        if (!exists(productId)) throw new NoRecordFoundException(String.format
+                (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+        ValidationUtils.checkMatchingProductId(product, productId);
+        changes.put(productId, product);
+        version++;
+        return product;
+    }
+
+    @Override
+    public synchronized List<Product> deleteProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        if (!exists(productId)) throw new NoRecordFoundException(String.format
+                (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+        deleted.add(productId);
+        changes.remove(productId);
+        promoted.remove(productId);
+        version++;
+        return findAll();
+    }
+
+    @Override
+    public synchronized Product removeProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        Product removed = findProductById(productId).orElseThrow(() -> new NoRecordFoundException(String.format
+                (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId)));
+        deleted.add(productId);
+        changes.remove(productId);
+        promoted.remove(productId);
+        version++;
+        return removed;
+    }
+
+    //batches are checked completely before the first change, under the same lock, so they're all or nothing
+    @Override
+    public synchronized List<Product> addAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        for (Product product : products) {
+            if (exists(product.getProductId())) throw new DuplicateIdException(String.format
+                    (ErrorMessage.DUPLICATE_ID, product.getProductId()));
+        }
+        products.forEach(product -> changes.put(product.getProductId(), product));
+        version++;
+        return List.copyOf(products);
+    }
+
+    @Override
+    public synchronized List<Product> updateAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        for (Product product : products) {
+            if (!exists(product.getProductId())) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, product.getProductId()));
+        }
+        products.forEach(product -> changes.put(product.getProductId(), product));
+        version++;
+        return List.copyOf(products);
+    }
+
+    @Override
+    public synchronized void deleteProductsByIds(List<Integer> productIds) {
+        ValidationUtils.checkValidProductIds(productIds);
+        for (Integer productId : productIds) {
+            if (!exists(productId)) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+        }
+        for (Integer productId : productIds) {
+            deleted.add(productId);
+            changes.remove(productId);
+            promoted.remove(productId);
+        }
+        version++;
+    }
+
+    @Override
+    public synchronized void deleteAllProducts() {
+        snapshotDropped = true;
+        changes.clear();
+        deleted.clear();
+        promoted.clear();
+        version++;
+    }
+
+    //writes are locked out while the catalog is copied, O(n)
+    @Override
+    public synchronized ProductSnapshot snapshot() {
+        return ProductSnapshot.copyOf(findAll(), version);
+    }
+
+    @Override
+    public Optional<Product> findProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        Product changed = changes.get(productId);
+        if (changed != null) return Optional.of(changed);
+        if (snapshotDropped || deleted.contains(productId)) return Optional.empty();
+        Product product = promoted.get(productId);
+        if (product != null) return Optional.of(product);
+        int record = findRecord(productId);
+        if (record < 0) return Optional.empty();
+        return Optional.of(promoted.computeIfAbsent(productId, id -> materialize(record)));
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        return findDiscounted(null, discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Category category, Optional<Double> discountMin,
+                                                Optional<Double> discountMax) {
+        ValidationUtils.checkValidCategory(category);
+        return findDiscounted(category, discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        ValidationUtils.checkValidCategory(category);
+        List<Product> productList = new ArrayList<>();
+        if (!snapshotDropped) {
+            for (int record = 0; record < recordCount; record++) {
+                if (snapshot.get(offset(record) + ProductSnapshotFile.CATEGORY) == category.ordinal()
+                        && isMappedRecordVisible(record)) {
+                    productList.add(materialize(record));
+                }
+            }
+        }
+        changes.values().stream().filter(product -> category == product.getCategory()).forEach(productList::add);
+        return productList;
+    }
+
+    //mapped records in id order, followed by the added and updated products
+    @Override
+    public List<Product> findAll() {
+        List<Product> productList = new ArrayList<>();
+        if (!snapshotDropped) {
+            for (int record = 0; record < recordCount; record++) {
+                if (isMappedRecordVisible(record)) productList.add(materialize(record));
+            }
+        }
+        productList.addAll(changes.values());
+        return productList;
+    }
+
+    //same order as findAll, lazily. like findAll it doesn't lock, a write while it's consumed may or may not be seen
+    @Override
+    public Stream<Product> streamAll() {
+        Stream<Product> mapped = snapshotDropped ? Stream.empty() : IntStream.range(0, recordCount)
+                .filter(this::isMappedRecordVisible).mapToObj(this::materialize);
+        return Stream.concat(mapped, changes.values().stream());
+    }
+
+    //the mapped records are sorted by id, so they're read from the first id after afterId on and merged with the
+    //overlay, which isn't sorted and is scanned as a whole. O(log n + limit + overlay)
+    @Override
+    public List<Product> findAllAfter(Optional<Integer> afterId, int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        long after = afterId.isEmpty() ? Long.MIN_VALUE : afterId.get();
+        List<Product> changed = changes.values().stream().filter(product -> product.getProductId() > after)
+                .sorted(Comparator.comparing(Product::getProductId)).limit(limit).collect(Collectors.toList());
+        List<Product> page = new ArrayList<>(Math.min(limit, recordCount + changed.size()));
+        int record = snapshotDropped ? recordCount : firstRecordAfter(after);
+        int change = 0;
+        while (page.size() < limit) {
+            while (record < recordCount && !isMappedRecordVisible(record)) {
+                record++;
+            }
+            boolean hasRecord = record < recordCount;
+            boolean hasChange = change < changed.size();
+            if (!hasRecord && !hasChange) break;
+            if (hasRecord && (!hasChange || snapshot.getInt(offset(record) + ProductSnapshotFile.ID)
+                    < changed.get(change).getProductId())) {
+                page.add(materialize(record++));
+            } else {
+                page.add(changed.get(change++));
+            }
+        }
+        return page;
+    }
+
+    private List<Product> findDiscounted(Category category, Optional<Double> discountMin,
+                                         Optional<Double> discountMax) {
+        //lower bound is exclusive and upper bound is inclusive, like the list based repository
+        double min = discountMin.orElse(Double.MIN_VALUE);
+        double max = discountMax.orElse(Double.MAX_VALUE);
+        List<Product> discountedProducts = new ArrayList<>();
+        if (!snapshotDropped) {
+            for (int record = 0; record < recordCount; record++) {
+                int offset = offset(record);
+                if ((snapshot.get(offset + ProductSnapshotFile.FLAGS) & ProductSnapshotFile.HAS_DISCOUNT) == 0) continue;
+                if (category != null && snapshot.get(offset + ProductSnapshotFile.CATEGORY) != category.ordinal()) {
+                    continue;
+                }
+                double discount = snapshot.getDouble(offset + ProductSnapshotFile.DISCOUNT);
+                if (Double.compare(discount, min) > 0 && discount <= max && isMappedRecordVisible(record)) {
+                    discountedProducts.add(materialize(record));
+                }
+            }
+        }
+        for (Product product : changes.values()) {
+            if (product.getDiscount().isEmpty() || (category != null && category != product.getCategory())) continue;
+            double discount = product.getDiscount().get();
+            if (Double.compare(discount, min) > 0 && discount <= max) discountedProducts.add(product);
+        }
+        return discountedProducts;
+    }
+
+    private boolean exists(Integer productId) {
+        if (changes.containsKey(productId)) return true;
+        return !snapshotDropped && !deleted.contains(productId) && findRecord(productId) >= 0;
+    }
+
+    //a mapped record counts unless it was deleted or replaced by a change
+    private boolean isMappedRecordVisible(int record) {
+        int productId = snapshot.getInt(offset(record) + ProductSnapshotFile.ID);
+        return !deleted.contains(productId) && !changes.containsKey(productId);
+    }
+
+    //binary search over the id sorted records, returns the record number or -1
+    private int findRecord(int productId) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int id = snapshot.getInt(offset(middle) + ProductSnapshotFile.ID);
+            if (id < productId) {
+                low = middle + 1;
+            } else if (id > productId) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    //the first record with an id greater than productId, or recordCount
+    private int firstRecordAfter(long productId) {
+        int low = 0;
+        int high = recordCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (snapshot.getInt(offset(middle) + ProductSnapshotFile.ID) <= productId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private Product materialize(int record) {
+        int offset = offset(record);
+        int nameOffset = snapshot.getInt(offset + ProductSnapshotFile.NAME_OFFSET);
+        int nameLength = snapshot.getInt(offset + ProductSnapshotFile.NAME_LENGTH);
+        byte category = snapshot.get(offset + ProductSnapshotFile.CATEGORY);
+        if (nameOffset < 0 || nameLength < 0 || (long) namesStart + nameOffset + nameLength > snapshot.capacity()
+                || category != ProductSnapshotFile.NO_CATEGORY && (category < 0 || category >= CATEGORIES.length)) {
+            throw new PersistenceException("Snapshot record " + record + " is corrupt");
+        }
+        byte[] name = new byte[nameLength];
+        snapshot.get(namesStart + nameOffset, name);
+        Double discount = (snapshot.get(offset + ProductSnapshotFile.FLAGS) & ProductSnapshotFile.HAS_DISCOUNT) != 0
+                ? snapshot.getDouble(offset + ProductSnapshotFile.DISCOUNT) : null;
+        return new Product(snapshot.getInt(offset + ProductSnapshotFile.ID), new String(name, StandardCharsets.UTF_8),
+                category == ProductSnapshotFile.NO_CATEGORY ? null : CATEGORIES[category],
+                snapshot.getDouble(offset + ProductSnapshotFile.PRICE), discount);
+    }
+
+    private static int offset(int record) {
+        return ProductSnapshotFile.HEADER_BYTES + record * ProductSnapshotFile.RECORD_BYTES;
+    }
+}
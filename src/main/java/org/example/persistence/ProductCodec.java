@@ -0,0 +1,157 @@
+package org.example.persistence;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.PersistenceException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+//compact binary form of one product:
+//  id varint | price double | flags byte | [discount double] | [category ordinal byte] | name length varint | UTF-8 name
+//the discount and category are only there when their flag is set. varints take 7 bits per byte, low bits first,
+//so ids below 128 take one byte. the name is encoded straight into the buffer, there's no intermediate byte array.
+//a codec keeps a scratch array for decoding names, it's meant to be reused for a whole stream by one thread.
+//the UTF-8 length of the name is needed for the size and the length prefix, a caller writing both passes it to
+//the overloads that take it, so the name is scanned once for its length and once to write it.
+public final class ProductCodec {
+    public static final byte HAS_DISCOUNT = 1;
+    public static final byte HAS_CATEGORY = 2;
+    public static final int MAX_VARINT_BYTES = 5;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private byte[] nameBytes = new byte[64];
+
+    //bytes encode writes for the product
+    public static int encodedSize(Product product) {
+        return encodedSize(product, utf8Length(product.getName()));
+    }
+
+    static int encodedSize(Product product, int nameLength) {
+        return varintSize(product.getProductId()) + Double.BYTES + 1
+                + (product.getDiscount().isPresent() ? Double.BYTES : 0) + (product.getCategory() != null ? 1 : 0)
+                + varintSize(nameLength) + nameLength;
+    }
+
+    /**
+     * writes the product at the buffer's position, the buffer must have {@link #encodedSize(Product)} bytes left
+     * @throws java.nio.BufferOverflowException
+     */
+    public void encode(Product product, ByteBuffer buffer) {
+        encode(product, utf8Length(product.getName()), buffer);
+    }
+
+    //nameLength is utf8Length of the product's name
+    void encode(Product product, int nameLength, ByteBuffer buffer) {
+        writeVarint(buffer, product.getProductId());
+        buffer.putDouble(product.getPrice());
+        byte flags = 0;
+        if (product.getDiscount().isPresent()) flags |= HAS_DISCOUNT;
+        if (product.getCategory() != null) flags |= HAS_CATEGORY;
+        buffer.put(flags);
+        if (product.getDiscount().isPresent()) buffer.putDouble(product.getDiscount().get());
+        if (product.getCategory() != null) buffer.put((byte) product.getCategory().ordinal());
+        writeVarint(buffer, nameLength);
+        writeUtf8(buffer, product.getName());
+    }
+
+    /**
+     * reads a product from the buffer's position
+     * @throws PersistenceException when the bytes aren't a product
+     * @throws java.nio.BufferUnderflowException when the product is cut off
+     */
+    public Product decode(ByteBuffer buffer) {
+        int productId = readVarint(buffer);
+        double price = buffer.getDouble();
+        byte flags = buffer.get();
+        Double discount = (flags & HAS_DISCOUNT) != 0 ? buffer.getDouble() : null;
+        Category category = null;
+        if ((flags & HAS_CATEGORY) != 0) {
+            int ordinal = buffer.get();
+            if (ordinal < 0 || ordinal >= CATEGORIES.length) {
+                throw new PersistenceException("Unknown category " + ordinal);
+            }
+            category = CATEGORIES[ordinal];
+        }
+        int nameLength = readVarint(buffer);
+        if (nameLength < 0) throw new PersistenceException("Negative name length " + nameLength);
+        //checked before the scratch array grows, a corrupt length mustn't allocate up to 2 GB
+        if (nameLength > buffer.remaining()) {
+            throw new PersistenceException("Name length " + nameLength + " is past the end of the buffer");
+        }
+        if (nameLength > nameBytes.length) nameBytes = new byte[Math.max(nameLength, nameBytes.length * 2)];
+        buffer.get(nameBytes, 0, nameLength);
+        return new Product(productId, new String(nameBytes, 0, nameLength, StandardCharsets.UTF_8), category, price,
+                discount);
+    }
+
+    //the int as unsigned, negative values take all 5 bytes
+    static void writeVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new PersistenceException("Malformed varint");
+    }
+
+    static int varintSize(int value) {
+        //1 byte per started 7 bits, 0 still takes a byte
+        return (38 - Integer.numberOfLeadingZeros(value | 1)) / 7;
+    }
+
+    //same bytes as String.getBytes(UTF_8), an unpaired surrogate becomes '?'
+    static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    length += 4;
+                    i++;
+                } else {
+                    length++;
+                }
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static void writeUtf8(ByteBuffer buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer.put((byte) (0xF0 | codePoint >> 18)).put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                            .put((byte) (0x80 | codePoint >> 6 & 0x3F)).put((byte) (0x80 | codePoint & 0x3F));
+                } else {
+                    buffer.put((byte) '?');
+                }
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+}
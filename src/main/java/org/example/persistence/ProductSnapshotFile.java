@@ -0,0 +1,105 @@
+package org.example.persistence;
+
+import org.example.entity.Product;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.PersistenceException;
+import org.example.repository.ProductRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+//compact binary image of a whole repository, made to be memory mapped and searched in place:
+//  header: magic int | version int | record count int | reserved int
+//  records sorted by id, 32 bytes each:
+//    id int | price double | discount double | flags byte | category ordinal byte | (2 bytes padding) | name offset int | name length int
+//  names: UTF-8 bytes, offsets are relative to the start of this area
+//the snapshot is written to a temporary file and moved in place, so a crash never leaves a half written snapshot.
+//a mapped buffer can't go beyond 2GB, that's the size limit of a snapshot (~50M products with short names).
+public interface ProductSnapshotFile {
+    int MAGIC = 0x494E5653;
+    int VERSION = 1;
+    int HEADER_BYTES = 16;
+    int RECORD_BYTES = 32;
+    int ID = 0;
+    int PRICE = 4;
+    int DISCOUNT = 12;
+    int FLAGS = 20;
+    int CATEGORY = 21;
+    int NAME_OFFSET = 24;
+    int NAME_LENGTH = 28;
+    byte HAS_DISCOUNT = 1;
+    byte NO_CATEGORY = -1;
+
+    static void write(ProductRepository productRepository, Path path) {
+        if (productRepository == null || path == null) {
+            throw new BadArgumentsException("Repository or snapshot path is null");
+        }
+        List<Product> products = new ArrayList<>(productRepository.findAll());
+        products.sort(Comparator.comparing(Product::getProductId));
+        byte[][] names = new byte[products.size()][];
+        long namesBytes = 0;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = products.get(i).getName().getBytes(StandardCharsets.UTF_8);
+            namesBytes += names[i].length;
+        }
+        if (HEADER_BYTES + (long) products.size() * RECORD_BYTES + namesBytes > Integer.MAX_VALUE) {
+            throw new PersistenceException("Repository is too large for a snapshot file");
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(products.size()).putInt(0);
+            int nameOffset = 0;
+            for (int i = 0; i < names.length; i++) {
+                if (buffer.remaining() < RECORD_BYTES) drain(buffer, channel);
+                Product product = products.get(i);
+                buffer.putInt(product.getProductId()).putDouble(product.getPrice())
+                        .putDouble(product.getDiscount().orElse(0.0))
+                        .put(product.getDiscount().isPresent() ? HAS_DISCOUNT : 0)
+                        .put(product.getCategory() == null ? NO_CATEGORY : (byte) product.getCategory().ordinal())
+                        .putShort((short) 0).putInt(nameOffset).putInt(names[i].length);
+                nameOffset += names[i].length;
+            }
+            for (byte[] name : names) {
+                if (buffer.remaining() < name.length) drain(buffer, channel);
+                if (name.length > buffer.remaining()) {
+                    //write can take only part of it, like drain it goes on until everything is written
+                    ByteBuffer wrapped = ByteBuffer.wrap(name);
+                    while (wrapped.hasRemaining()) {
+                        channel.write(wrapped);
+                    }
+                } else {
+                    buffer.put(name);
+                }
+            }
+            drain(buffer, channel);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new PersistenceException("Can't write the snapshot " + path, e);
+        }
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new PersistenceException("Can't move the snapshot to " + path, e);
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
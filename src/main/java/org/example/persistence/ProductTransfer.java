@@ -0,0 +1,161 @@
+package org.example.persistence;
+
+import org.example.entity.Product;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.PersistenceException;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductSnapshot;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+//streaming export and import of a whole repository, for moving a catalog between nodes:
+//  header: magic int | version int
+//  records until the end of the stream: record length varint | product as ProductCodec encodes it
+//both directions go through one direct buffer that's reused for the whole stream, a record is encoded into and
+//decoded from it in place. the export streams the repository with streamAll, so it holds one buffer and never a
+//copy of the catalog, and it's only as consistent as that stream: a point in time on LIST and SNAPSHOT, id ordered
+//chunks on INDEXED and PARTITIONED (a write while it runs may or may not be exported), and on COLUMNAR and OFF_HEAP a
+//write while it runs fails it with a ConcurrentModificationException. exporting a snapshot() is consistent on
+//every repository, at the cost of the O(n) copy some of them make for it.
+//the import adds the products in batches with addAllProducts, when a batch fails (e.g. a duplicate id) the batches
+//before it stay in the repository.
+public interface ProductTransfer {
+    int MAGIC = 0x494E5650;
+    int VERSION = 1;
+    int HEADER_BYTES = 8;
+    int BUFFER_BYTES = 1 << 20;
+    int DEFAULT_IMPORT_BATCH_SIZE = 4096;
+
+    /**
+     * @return the number of exported products
+     * @throws BadArgumentsException
+     * @throws PersistenceException
+     */
+    static long exportTo(ProductRepository productRepository, WritableByteChannel channel) {
+        if (productRepository == null || channel == null) {
+            throw new BadArgumentsException("Repository or channel is null");
+        }
+        return exportTo(productRepository.streamAll().iterator(), channel);
+    }
+
+    /**
+     * @return the number of exported products
+     * @throws BadArgumentsException
+     * @throws PersistenceException
+     */
+    static long exportTo(ProductSnapshot snapshot, WritableByteChannel channel) {
+        if (snapshot == null || channel == null) {
+            throw new BadArgumentsException("Snapshot or channel is null");
+        }
+        return exportTo(snapshot.streamAll().iterator(), channel);
+    }
+
+    static long importFrom(ReadableByteChannel channel, ProductRepository productRepository) {
+        return importFrom(channel, productRepository, DEFAULT_IMPORT_BATCH_SIZE);
+    }
+
+    /**
+     * reads an export up to the end of the channel
+     * @return the number of imported products
+     * @throws BadArgumentsException
+     * @throws PersistenceException when the stream isn't a complete export
+     */
+    static long importFrom(ReadableByteChannel channel, ProductRepository productRepository, int batchSize) {
+        if (productRepository == null || channel == null) {
+            throw new BadArgumentsException("Repository or channel is null");
+        }
+        if (batchSize < 1) throw new BadArgumentsException("Batch size must be positive");
+        ProductCodec codec = new ProductCodec();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        buffer.flip();
+        long count = 0;
+        try {
+            if (!fill(buffer, channel, HEADER_BYTES) || buffer.getInt() != MAGIC) {
+                throw new PersistenceException("Not a product export");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) throw new PersistenceException("Unsupported export version " + version);
+            List<Product> batch = new ArrayList<>(batchSize);
+            while (true) {
+                //a length varint may still be cut at the end of the buffer
+                if (buffer.remaining() < ProductCodec.MAX_VARINT_BYTES) fill(buffer, channel, ProductCodec.MAX_VARINT_BYTES);
+                if (!buffer.hasRemaining()) break;
+                int length = ProductCodec.readVarint(buffer);
+                if (length < 0 || length > buffer.capacity()) {
+                    throw new PersistenceException("Corrupt record length " + length);
+                }
+                if (buffer.remaining() < length && !fill(buffer, channel, length)) {
+                    throw new PersistenceException("The export is truncated");
+                }
+                int end = buffer.position() + length;
+                //a record is decoded within its own bounds, garbage in it can't run into the next one
+                int limit = buffer.limit();
+                buffer.limit(end);
+                batch.add(codec.decode(buffer));
+                if (buffer.position() != end) throw new PersistenceException("Corrupt record of " + length + " bytes");
+                buffer.limit(limit);
+                if (batch.size() == batchSize) {
+                    count += productRepository.addAllProducts(batch).size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) count += productRepository.addAllProducts(batch).size();
+        } catch (BufferUnderflowException e) {
+            throw new PersistenceException("The export is truncated or corrupt", e);
+        } catch (IOException e) {
+            throw new PersistenceException("Can't read the export", e);
+        }
+        return count;
+    }
+
+    private static long exportTo(Iterator<Product> products, WritableByteChannel channel) {
+        ProductCodec codec = new ProductCodec();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        long count = 0;
+        try {
+            while (products.hasNext()) {
+                Product product = products.next();
+                int nameLength = ProductCodec.utf8Length(product.getName());
+                int length = ProductCodec.encodedSize(product, nameLength);
+                int recordBytes = ProductCodec.varintSize(length) + length;
+                if (recordBytes > buffer.capacity()) {
+                    throw new BadArgumentsException("Product " + product.getProductId() + " is too large to export");
+                }
+                if (buffer.remaining() < recordBytes) drain(buffer, channel);
+                ProductCodec.writeVarint(buffer, length);
+                codec.encode(product, nameLength, buffer);
+                count++;
+            }
+            drain(buffer, channel);
+        } catch (IOException e) {
+            throw new PersistenceException("Can't write the export", e);
+        }
+        return count;
+    }
+
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    //reads more until at least the needed bytes are in the buffer, false when the channel ends before
+    private static boolean fill(ByteBuffer buffer, ReadableByteChannel channel, int needed) throws IOException {
+        buffer.compact();
+        while (buffer.position() < needed) {
+            if (channel.read(buffer) < 0) break;
+        }
+        buffer.flip();
+        return buffer.remaining() >= needed;
+    }
+}
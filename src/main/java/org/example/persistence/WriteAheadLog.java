@@ -0,0 +1,486 @@
+package org.example.persistence;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.enums.FsyncPolicy;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.PersistenceException;
+import org.example.repository.ProductRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+//append only binary log of repository mutations.
+//every record is: length int | crc32c int | op byte | body, where the body of an add/update is the product
+//(id int, price double, flags byte, [discount double], [category byte], name length int, UTF-8 name),
+//a delete has the id and a clear has no body. the checksum covers op and body.
+//the records of a batch sit between a batch begin and a batch end record, they're only replayed when the end is there.
+//a batch abort record drops the open batch, it's written when a batch that didn't fit in the buffer is rolled back.
+//a crash can leave a half written record or batch at the end, replay stops there and cuts the log.
+//records are encoded into a buffer and written to the channel when the fsync policy asks for it,
+//see FsyncPolicy for when a mutation is on disk.
+public class WriteAheadLog implements AutoCloseable {
+    public static final long DEFAULT_PERIODIC_INTERVAL_MILLIS = 100;
+    private static final byte ADD = 1;
+    private static final byte UPDATE = 2;
+    private static final byte DELETE = 3;
+    private static final byte CLEAR = 4;
+    private static final byte BATCH_BEGIN = 5;
+    private static final byte BATCH_END = 6;
+    private static final byte BATCH_ABORT = 7;
+    private static final byte HAS_DISCOUNT = 1;
+    private static final byte HAS_CATEGORY = 2;
+    private static final int HEADER_BYTES = 8;
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final Path path;
+    private final FileChannel channel;
+    private final FsyncPolicy fsyncPolicy;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final CRC32C checksum = new CRC32C();
+    private final Object syncLock = new Object();
+    private final ScheduledExecutorService periodicSync;
+    //sequence of the last appended record and of the last record forced to disk
+    private long appendedSequence;
+    //number of times the buffer was written to the channel, tells whether records are still only in the buffer
+    private long flushes;
+    //where the last record in the buffer starts
+    private int lastRecordStart;
+    private volatile long durableSequence;
+    private boolean closed;
+
+    private WriteAheadLog(Path path, FileChannel channel, FsyncPolicy fsyncPolicy, long periodicIntervalMillis) {
+        this.path = path;
+        this.channel = channel;
+        this.fsyncPolicy = fsyncPolicy;
+        if (fsyncPolicy == FsyncPolicy.PERIODIC) {
+            periodicSync = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-sync-" + path.getFileName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            periodicSync.scheduleWithFixedDelay(this::syncQuietly, periodicIntervalMillis, periodicIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            periodicSync = null;
+        }
+    }
+
+    public static WriteAheadLog open(Path path, FsyncPolicy fsyncPolicy) {
+        return open(path, fsyncPolicy, DEFAULT_PERIODIC_INTERVAL_MILLIS);
+    }
+
+    public static WriteAheadLog open(Path path, FsyncPolicy fsyncPolicy, long periodicIntervalMillis) {
+        if (path == null || fsyncPolicy == null) {
+            throw new BadArgumentsException("Log path or fsync policy is null");
+        }
+        if (periodicIntervalMillis <= 0) {
+            throw new BadArgumentsException("Periodic interval must be positive");
+        }
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            return new WriteAheadLog(path, channel, fsyncPolicy, periodicIntervalMillis);
+        } catch (IOException e) {
+            throw new PersistenceException("Can't open the log " + path, e);
+        }
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    //the append methods return the sequence of the record, pass it to awaitDurable
+    public synchronized long appendAdd(Product product) {
+        return commit(appendProduct(ADD, product));
+    }
+
+    public synchronized long appendUpdate(Product product) {
+        return commit(appendProduct(UPDATE, product));
+    }
+
+    public synchronized long appendDelete(Integer productId) {
+        return commit(appendDeleteRecord(productId));
+    }
+
+    public synchronized long appendClear() {
+        int start = beginRecord(1);
+        writeBuffer.put(CLEAR);
+        return commit(endRecord(start));
+    }
+
+    public synchronized long appendAddAll(List<Product> products) {
+        appendBatchBegin(products.size());
+        products.forEach(product -> appendProduct(ADD, product));
+        return commit(appendBatchEnd());
+    }
+
+    public synchronized long appendUpdateAll(List<Product> products) {
+        appendBatchBegin(products.size());
+        products.forEach(product -> appendProduct(UPDATE, product));
+        return commit(appendBatchEnd());
+    }
+
+    public synchronized long appendDeleteAll(List<Integer> productIds) {
+        appendBatchBegin(productIds.size());
+        productIds.forEach(this::appendDeleteRecord);
+        return commit(appendBatchEnd());
+    }
+
+    //the log*() methods log a mutation of a repository: its records are encoded first, so a record that's too large
+    //or a failed write of the buffer throws while the repository is still unchanged, then the mutation runs and its
+    //records are only kept when it succeeds. all of it happens under the log's lock, so no sync writes the records
+    //of a mutation that's still running and the log has the mutations in the order they were applied.
+    //when forcing the records fails (PER_OPERATION) the mutation stays applied and logged, like a failing
+    //awaitDurable the exception only says it isn't on disk yet
+    synchronized <T> Logged<T> logAdd(Product product, Supplier<T> mutation) {
+        return log(() -> appendProduct(ADD, product), mutation);
+    }
+
+    synchronized <T> Logged<T> logUpdate(Product product, Supplier<T> mutation) {
+        return log(() -> appendProduct(UPDATE, product), mutation);
+    }
+
+    synchronized <T> Logged<T> logDelete(Integer productId, Supplier<T> mutation) {
+        return log(() -> appendDeleteRecord(productId), mutation);
+    }
+
+    synchronized <T> Logged<T> logClear(Supplier<T> mutation) {
+        return log(() -> {
+            int start = beginRecord(1);
+            writeBuffer.put(CLEAR);
+            return endRecord(start);
+        }, mutation);
+    }
+
+    synchronized <T> Logged<T> logAddAll(List<Product> products, Supplier<T> mutation) {
+        return log(() -> {
+            appendBatchBegin(products.size());
+            products.forEach(product -> appendProduct(ADD, product));
+            return appendBatchEnd();
+        }, mutation);
+    }
+
+    synchronized <T> Logged<T> logUpdateAll(List<Product> products, Supplier<T> mutation) {
+        return log(() -> {
+            appendBatchBegin(products.size());
+            products.forEach(product -> appendProduct(UPDATE, product));
+            return appendBatchEnd();
+        }, mutation);
+    }
+
+    synchronized <T> Logged<T> logDeleteAll(List<Integer> productIds, Supplier<T> mutation) {
+        return log(() -> {
+            appendBatchBegin(productIds.size());
+            productIds.forEach(this::appendDeleteRecord);
+            return appendBatchEnd();
+        }, mutation);
+    }
+
+    //blocks until the record with the given sequence is on disk, according to the policy:
+    //PER_OPERATION already forced it in append, PERIODIC doesn't wait,
+    //GROUP_COMMIT lets the first waiting thread force everything appended so far for all the others
+    public void awaitDurable(long sequence) {
+        if (fsyncPolicy != FsyncPolicy.GROUP_COMMIT || durableSequence >= sequence) return;
+        synchronized (syncLock) {
+            if (durableSequence >= sequence) return;
+            sync();
+        }
+    }
+
+    //writes the buffered records and forces them to disk
+    public void sync() {
+        synchronized (syncLock) {
+            long target;
+            try {
+                synchronized (this) {
+                    if (closed) return;
+                    flushBuffer();
+                    target = appendedSequence;
+                }
+                //forcing outside the append lock, so writers keep appending while the disk works
+                channel.force(false);
+            } catch (IOException e) {
+                throw new PersistenceException("Can't sync the log " + path, e);
+            }
+            durableSequence = target;
+        }
+    }
+
+    //applies every complete record of the log to the repository, in order, and returns how many were applied.
+    //a torn or corrupt tail is cut off so new records are appended right after the last good one
+    public synchronized long replay(ProductRepository productRepository) {
+        ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        byte[] body = new byte[256];
+        //records of an open batch, applied when its end record shows up
+        List<ByteBuffer> batch = null;
+        long position = 0;
+        long committedPosition = 0;
+        long applied = 0;
+        try {
+            flushBuffer();
+            long size = channel.size();
+            channel.position(0);
+            readBuffer.limit(0);
+            while (true) {
+                if (readBuffer.remaining() < HEADER_BYTES && !fill(readBuffer, HEADER_BYTES)) break;
+                int length = readBuffer.getInt(readBuffer.position());
+                int crc = readBuffer.getInt(readBuffer.position() + Integer.BYTES);
+                if (length <= 0 || length > size - position - HEADER_BYTES) break;
+                if (readBuffer.remaining() < HEADER_BYTES + length && !fill(readBuffer, HEADER_BYTES + length)) {
+                    break;
+                }
+                readBuffer.position(readBuffer.position() + HEADER_BYTES);
+                if (body.length < length) body = new byte[Math.max(length, body.length * 2)];
+                readBuffer.get(body, 0, length);
+                checksum.reset();
+                checksum.update(body, 0, length);
+                if ((int) checksum.getValue() != crc) break;
+                position += HEADER_BYTES + length;
+                if (body[0] == BATCH_BEGIN) {
+                    batch = new ArrayList<>();
+                } else if (body[0] == BATCH_END) {
+                    //an end without an open batch has nothing to apply
+                    if (batch != null) {
+                        for (ByteBuffer record : batch) {
+                            apply(record, productRepository);
+                        }
+                        applied += batch.size();
+                    }
+                    batch = null;
+                    committedPosition = position;
+                } else if (body[0] == BATCH_ABORT) {
+                    batch = null;
+                    committedPosition = position;
+                } else if (batch != null) {
+                    batch.add(ByteBuffer.wrap(Arrays.copyOf(body, length)));
+                } else {
+                    apply(ByteBuffer.wrap(body, 0, length), productRepository);
+                    applied++;
+                    committedPosition = position;
+                }
+            }
+            if (committedPosition < size) channel.truncate(committedPosition);
+            channel.position(committedPosition);
+            return applied;
+        } catch (IOException e) {
+            throw new PersistenceException("Can't replay the log " + path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (periodicSync != null) periodicSync.shutdownNow();
+        sync();
+        synchronized (this) {
+            closed = true;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new PersistenceException("Can't close the log " + path, e);
+            }
+        }
+    }
+
+    private <T> Logged<T> log(LongSupplier records, Supplier<T> mutation) {
+        int start = writeBuffer.position();
+        long sequence = appendedSequence;
+        long flushed = flushes;
+        long last;
+        try {
+            last = records.getAsLong();
+        } catch (BadArgumentsException e) {
+            //a record that's too large for the log, nothing of it is in the buffer yet
+            drop(start, sequence, flushed);
+            throw e;
+        }
+        T result;
+        try {
+            result = mutation.get();
+        } catch (RuntimeException e) {
+            drop(start, sequence, flushed);
+            throw e;
+        }
+        return new Logged<>(result, commit(last));
+    }
+
+    //takes back the records of a mutation that didn't happen. they're normally all still in the buffer, only a
+    //batch that didn't fit may have been partly written. its last record (the batch end once it's complete) is
+    //always still in the buffer, that one is taken back and an abort record makes replay drop the rest
+    private void drop(int start, long sequence, long flushed) {
+        if (flushes == flushed) {
+            writeBuffer.position(start);
+            appendedSequence = sequence;
+        } else {
+            writeBuffer.position(lastRecordStart);
+            appendedSequence--;
+            int abortStart = beginRecord(1);
+            writeBuffer.put(BATCH_ABORT);
+            endRecord(abortStart);
+        }
+    }
+
+    private long appendProduct(byte op, Product product) {
+        byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+        int start = beginRecord(1 + Integer.BYTES + Double.BYTES + 1 + Double.BYTES + 1 + Integer.BYTES
+                + name.length);
+        byte flags = 0;
+        if (product.getDiscount().isPresent()) flags |= HAS_DISCOUNT;
+        if (product.getCategory() != null) flags |= HAS_CATEGORY;
+        writeBuffer.put(op).putInt(product.getProductId()).putDouble(product.getPrice()).put(flags);
+        if (product.getDiscount().isPresent()) writeBuffer.putDouble(product.getDiscount().get());
+        if (product.getCategory() != null) writeBuffer.put((byte) product.getCategory().ordinal());
+        writeBuffer.putInt(name.length).put(name);
+        return endRecord(start);
+    }
+
+    private long appendDeleteRecord(Integer productId) {
+        int start = beginRecord(1 + Integer.BYTES);
+        writeBuffer.put(DELETE).putInt(productId);
+        return endRecord(start);
+    }
+
+    private void appendBatchBegin(int count) {
+        int start = beginRecord(1 + Integer.BYTES);
+        writeBuffer.put(BATCH_BEGIN).putInt(count);
+        endRecord(start);
+    }
+
+    private long appendBatchEnd() {
+        int start = beginRecord(1);
+        writeBuffer.put(BATCH_END);
+        return endRecord(start);
+    }
+
+    //makes room for a record of at most maxBodyBytes and reserves its header, returns where the record starts
+    private int beginRecord(int maxBodyBytes) {
+        if (closed) throw new PersistenceException("The log " + path + " is closed");
+        if (HEADER_BYTES + maxBodyBytes > writeBuffer.capacity()) {
+            throw new BadArgumentsException("Record is too large for the log");
+        }
+        try {
+            if (writeBuffer.remaining() < HEADER_BYTES + maxBodyBytes) flushBuffer();
+        } catch (IOException e) {
+            throw new PersistenceException("Can't write the log " + path, e);
+        }
+        int start = writeBuffer.position();
+        writeBuffer.position(start + HEADER_BYTES);
+        lastRecordStart = start;
+        return start;
+    }
+
+    private long endRecord(int start) {
+        int end = writeBuffer.position();
+        int length = end - start - HEADER_BYTES;
+        ByteBuffer body = writeBuffer.duplicate();
+        body.position(start + HEADER_BYTES).limit(end);
+        checksum.reset();
+        checksum.update(body);
+        writeBuffer.putInt(start, length).putInt(start + Integer.BYTES, (int) checksum.getValue());
+        return ++appendedSequence;
+    }
+
+    //the end of a mutation, PER_OPERATION forces it right here
+    private long commit(long sequence) {
+        try {
+            if (fsyncPolicy == FsyncPolicy.PER_OPERATION) {
+                flushBuffer();
+                channel.force(false);
+                durableSequence = sequence;
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Can't write the log " + path, e);
+        }
+        return sequence;
+    }
+
+    private void flushBuffer() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+        flushes++;
+    }
+
+    //reads more of the log until at least the needed bytes are in the buffer, false at the end of the file
+    private boolean fill(ByteBuffer readBuffer, int needed) throws IOException {
+        if (needed > readBuffer.capacity()) return false;
+        readBuffer.compact();
+        while (readBuffer.position() < needed) {
+            if (channel.read(readBuffer) < 0) {
+                readBuffer.flip();
+                return false;
+            }
+        }
+        readBuffer.flip();
+        return true;
+    }
+
+    private static void apply(ByteBuffer body, ProductRepository productRepository) {
+        byte op = body.get();
+        switch (op) {
+            case ADD:
+                productRepository.addProduct(readProduct(body));
+                break;
+            case UPDATE:
+                Product product = readProduct(body);
+                productRepository.updateProduct(product, product.getProductId());
+                break;
+            case DELETE:
+                //removeProductById doesn't build the remaining catalog, a delete heavy log replays in O(n)
+                productRepository.removeProductById(body.getInt());
+                break;
+            case CLEAR:
+                productRepository.deleteAllProducts();
+                break;
+            default:
+                throw new PersistenceException("Unknown log record " + op);
+        }
+    }
+
+    private static Product readProduct(ByteBuffer body) {
+        int productId = body.getInt();
+        double price = body.getDouble();
+        byte flags = body.get();
+        Double discount = (flags & HAS_DISCOUNT) != 0 ? body.getDouble() : null;
+        Category category = (flags & HAS_CATEGORY) != 0 ? CATEGORIES[body.get()] : null;
+        byte[] name = new byte[body.getInt()];
+        body.get(name);
+        return new Product(productId, new String(name, StandardCharsets.UTF_8), category, price, discount);
+    }
+
+    //what a logged mutation returned and the sequence of its last record, for awaitDurable
+    static final class Logged<T> {
+        final T result;
+        final long sequence;
+
+        private Logged(T result, long sequence) {
+            this.result = result;
+            this.sequence = sequence;
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (PersistenceException e) {
+            //the next round tries again, close() reports a failure that's still there
+        }
+    }
+}
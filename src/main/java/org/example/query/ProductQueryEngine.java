@@ -0,0 +1,147 @@
+package org.example.query;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.BadArgumentsException;
+import org.example.repository.ProductRepository;
+import org.example.utils.ValidationUtils;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+//parallel scans and aggregations over a repository.
+//every query takes one copy of the catalog (findAll into an array) and splits it in halves on a fork join
+//pool until a chunk is below the sequential threshold, chunks are scanned without any shared state and the
+//partial results are merged on the way back up. catalogs below the threshold are scanned in the calling thread,
+//for them the fork join overhead is bigger than the gain.
+//results keep the order of findAll, like the repository's own queries.
+public class ProductQueryEngine {
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 16_384;
+
+    private final ProductRepository repository;
+    private final ForkJoinPool pool;
+    private final int sequentialThreshold;
+
+    public ProductQueryEngine(ProductRepository repository) {
+        this(repository, ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    /**
+     * @param sequentialThreshold chunk size below which a scan isn't split any more
+     * @throws BadArgumentsException
+     */
+    public ProductQueryEngine(ProductRepository repository, ForkJoinPool pool, int sequentialThreshold) {
+        if (sequentialThreshold < 1) throw new BadArgumentsException("Sequential threshold must be positive");
+        this.repository = repository;
+        this.pool = pool;
+        this.sequentialThreshold = sequentialThreshold;
+    }
+
+    public List<Product> filter(Predicate<Product> predicate) {
+        return scan(ArrayList::new, (matches, product) -> {
+            if (predicate.test(product)) matches.add(product);
+        }, (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+    }
+
+    public long count(Predicate<Product> predicate) {
+        return scan(() -> new long[1], (count, product) -> {
+            if (predicate.test(product)) count[0]++;
+        }, (left, right) -> {
+            left[0] += right[0];
+            return left;
+        })[0];
+    }
+
+    //same bounds as ProductRepository.findDiscountedProducts
+    public List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        double min = discountMin.orElse(Double.MIN_VALUE);
+        double max = discountMax.orElse(Double.MAX_VALUE);
+        return filter(product -> product.getDiscount().isPresent()
+                && product.getDiscount().get() > min && product.getDiscount().get() <= max);
+    }
+
+    public ProductStatistics statistics(Predicate<Product> predicate) {
+        return scan(ProductStatistics::new, (statistics, product) -> {
+            if (predicate.test(product)) statistics.add(product);
+        }, ProductStatistics::merge);
+    }
+
+    public ProductStatistics statistics(Category category) {
+        ValidationUtils.checkValidCategory(category);
+        return statistics(product -> category == product.getCategory());
+    }
+
+    //one entry per category, including the empty ones. products without a category aren't part of it
+    public Map<Category, ProductStatistics> statisticsByCategory() {
+        return scan(ProductQueryEngine::emptyStatisticsByCategory, (statistics, product) -> {
+            if (product.getCategory() != null) statistics.get(product.getCategory()).add(product);
+        }, (left, right) -> {
+            right.forEach((category, statistics) -> left.get(category).merge(statistics));
+            return left;
+        });
+    }
+
+    private <A> A scan(Supplier<A> identity, BiConsumer<A, Product> accumulator, BinaryOperator<A> combiner) {
+        //findAll copies the catalog in one go everywhere, streamAll may read it in chunks that can fail on a write
+        Product[] snapshot = repository.findAll().toArray(new Product[0]);
+        ScanTask<A> task = new ScanTask<>(snapshot, 0, snapshot.length, identity, accumulator, combiner);
+        return snapshot.length <= sequentialThreshold ? task.compute() : pool.invoke(task);
+    }
+
+    private static Map<Category, ProductStatistics> emptyStatisticsByCategory() {
+        Map<Category, ProductStatistics> statistics = new EnumMap<>(Category.class);
+        for (Category category : Category.values()) {
+            statistics.put(category, new ProductStatistics());
+        }
+        return statistics;
+    }
+
+    private final class ScanTask<A> extends RecursiveTask<A> {
+        private static final long serialVersionUID = 1L;
+        private final Product[] snapshot;
+        private final int from;
+        private final int to;
+        private final Supplier<A> identity;
+        private final BiConsumer<A, Product> accumulator;
+        private final BinaryOperator<A> combiner;
+
+        ScanTask(Product[] snapshot, int from, int to, Supplier<A> identity, BiConsumer<A, Product> accumulator,
+                 BinaryOperator<A> combiner) {
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+            this.identity = identity;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= sequentialThreshold) {
+                A result = identity.get();
+                for (int i = from; i < to; i++) {
+                    accumulator.accept(result, snapshot[i]);
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask<A> left = new ScanTask<>(snapshot, from, middle, identity, accumulator, combiner);
+            ScanTask<A> right = new ScanTask<>(snapshot, middle, to, identity, accumulator, combiner);
+            left.fork();
+            A rightResult = right.compute();
+            return combiner.apply(left.join(), rightResult);
+        }
+    }
+}
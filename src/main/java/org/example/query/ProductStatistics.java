@@ -0,0 +1,59 @@
+package org.example.query;
+
+import org.example.entity.Product;
+
+import java.util.Optional;
+
+//aggregate over a set of products: count, price sum / average and the discount range.
+//products without a discount count for the price but not for the discount range
+public class ProductStatistics {
+    private long count;
+    private double priceSum;
+    private long discountedCount;
+    private double minDiscount = Double.POSITIVE_INFINITY;
+    private double maxDiscount = Double.NEGATIVE_INFINITY;
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getPriceSum() {
+        return priceSum;
+    }
+
+    public Optional<Double> getAveragePrice() {
+        return count == 0 ? Optional.empty() : Optional.of(priceSum / count);
+    }
+
+    public long getDiscountedCount() {
+        return discountedCount;
+    }
+
+    public Optional<Double> getMinDiscount() {
+        return discountedCount == 0 ? Optional.empty() : Optional.of(minDiscount);
+    }
+
+    public Optional<Double> getMaxDiscount() {
+        return discountedCount == 0 ? Optional.empty() : Optional.of(maxDiscount);
+    }
+
+    void add(Product product) {
+        count++;
+        priceSum += product.getPrice();
+        if (product.getDiscount().isPresent()) {
+            double discount = product.getDiscount().get();
+            discountedCount++;
+            minDiscount = Math.min(minDiscount, discount);
+            maxDiscount = Math.max(maxDiscount, discount);
+        }
+    }
+
+    ProductStatistics merge(ProductStatistics other) {
+        count += other.count;
+        priceSum += other.priceSum;
+        discountedCount += other.discountedCount;
+        minDiscount = Math.min(minDiscount, other.minDiscount);
+        maxDiscount = Math.max(maxDiscount, other.maxDiscount);
+        return this;
+    }
+}
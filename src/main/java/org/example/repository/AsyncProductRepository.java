@@ -0,0 +1,211 @@
+package org.example.repository;
+
+import org.example.collection.PersistentHashMap;
+import org.example.constants.ErrorMessage;
+import org.example.entity.Product;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.InventoryException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.utils.ValidationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//asynchronous write path (group commit) for a SnapshotProductRepositoryImpl.
+//callers queue their writes and get a future back, one writer thread takes whatever is queued, up to maxBatchSize,
+//applies it on top of one version of the catalog and publishes that with a single CAS. under load the writers
+//don't retry each other's CASes and the trie path copies of a batch are shared, with a single writer no CAS fails.
+//writes are applied in the order they were queued, a future is completed once its batch is published, so reads on
+//the repository see the write when the future completes. a write that fails (duplicate or missing id) completes
+//its own future exceptionally and doesn't affect the rest of the batch.
+//reads go to the repository directly, synchronous writes on it still work and just compete for the CAS.
+public class AsyncProductRepository implements AutoCloseable {
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    //wakes the writer up when it's closed
+    private static final PendingWrite CLOSE = products -> products;
+
+    private final SnapshotProductRepositoryImpl repository;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    //submitting holds the read lock, so nothing is queued behind CLOSE
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private final Thread writer;
+    private boolean closed;
+
+    public AsyncProductRepository(SnapshotProductRepositoryImpl repository) {
+        this(repository, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * @throws BadArgumentsException
+     */
+    public AsyncProductRepository(SnapshotProductRepositoryImpl repository, int maxBatchSize) {
+        if (repository == null) throw new BadArgumentsException("Repository is null");
+        if (maxBatchSize < 1) throw new BadArgumentsException("Max batch size must be positive");
+        this.repository = repository;
+        this.maxBatchSize = maxBatchSize;
+        this.writer = new Thread(this::drain, "product-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public CompletableFuture<Product> addProduct(Product product) {
+        try {
+            ValidationUtils.checkValidProduct(product);
+        } catch (InventoryException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return submit(new Write<>() {
+            @Override
+            PersistentHashMap<Integer, Product> applyTo(PersistentHashMap<Integer, Product> products) {
+                if (products.containsKey(product.getProductId())) throw new DuplicateIdException(String.format
+                        (ErrorMessage.DUPLICATE_ID, product.getProductId()));
+                result = product;
+                return products.put(product.getProductId(), product);
+            }
+        });
+    }
+
+    public CompletableFuture<Product> updateProduct(Product product, Integer productId) {
+        try {
+            ValidationUtils.checkValidProduct(product);
+            ValidationUtils.checkValidProductId(productId);
+        } catch (InventoryException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return submit(new Write<>() {
+            @Override
+            PersistentHashMap<Integer, Product> applyTo(PersistentHashMap<Integer, Product> products) {
+                if (!products.containsKey(productId)) throw new NoRecordFoundException(String.format
+                        (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+                ValidationUtils.checkMatchingProductId(product, productId);
+                result = product;
+                return products.put(productId, product);
+            }
+        });
+    }
+
+    /**
+     * @return a future of the removed product
+     */
+    public CompletableFuture<Product> removeProductById(Integer productId) {
+        try {
+            ValidationUtils.checkValidProductId(productId);
+        } catch (InventoryException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return submit(new Write<>() {
+            @Override
+            PersistentHashMap<Integer, Product> applyTo(PersistentHashMap<Integer, Product> products) {
+                Product removed = products.get(productId);
+                if (removed == null) throw new NoRecordFoundException(String.format
+                        (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+                result = removed;
+                return products.remove(productId);
+            }
+        });
+    }
+
+    //writes queued but not published yet
+    public int pendingWrites() {
+        return queue.size();
+    }
+
+    //stops taking writes, the ones already queued are still applied before close returns.
+    //an interrupt doesn't cut that short, close keeps waiting for the writer and sets the interrupt flag again after
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) return;
+            closed = true;
+            queue.add(CLOSE);
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                writer.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private <T> CompletableFuture<T> submit(Write<T> write) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) return CompletableFuture.failedFuture(new InventoryException("The writer is closed"));
+            queue.add(write);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return write.future;
+    }
+
+    private void drain() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        boolean closing = false;
+        while (!closing) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                //only close stops the writer, it must not leave futures behind
+                continue;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            closing = batch.remove(CLOSE);
+            try {
+                repository.applyAll(batch);
+            } catch (RuntimeException | Error e) {
+                //nothing was published, every write of the batch failed with it
+                batch.forEach(write -> ((Write<?>) write).failure = e);
+            }
+            batch.forEach(write -> ((Write<?>) write).complete());
+            batch.clear();
+        }
+    }
+
+    //a queued write and its future, result and failure are only touched by the writer thread
+    private abstract static class Write<T> implements PendingWrite {
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        T result;
+        private Throwable failure;
+
+        abstract PersistentHashMap<Integer, Product> applyTo(PersistentHashMap<Integer, Product> products);
+
+        @Override
+        public PersistentHashMap<Integer, Product> apply(PersistentHashMap<Integer, Product> products) {
+            try {
+                PersistentHashMap<Integer, Product> next = applyTo(products);
+                failure = null;
+                return next;
+            } catch (InventoryException e) {
+                failure = e;
+                return products;
+            }
+        }
+
+        @Override
+        public boolean failed() {
+            return failure != null;
+        }
+
+        private void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
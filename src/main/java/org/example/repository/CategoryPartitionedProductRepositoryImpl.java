@@ -0,0 +1,395 @@
+package org.example.repository;
+
+import org.example.constants.ErrorMessage;
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.utils.ValidationUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+//repository that stores every category in its own partition (an IndexedProductRepositoryImpl with its own lock),
+//so category scoped queries only touch one partition and writes to different categories don't block each other.
+//products without a category live in a separate partition that is only reachable by id or through findAll.
+//ids stay unique across partitions through a shared id -> partition index, writes for the same id are
+//serialized by a lock stripe so the duplicate check and moving a product between partitions are atomic.
+//queries that span partitions (findAll, findDiscountedProducts without a category) read one partition after the
+//other, so they aren't a single point in time snapshot of the whole catalog.
+//findAllAfter merges the id ordered pages of the partitions while holding every stripe, streamAll pages through it,
+//so a stream is in id order and holds one chunk of products at a time.
+public class CategoryPartitionedProductRepositoryImpl implements ProductRepository {
+    private static final int STRIPES = 64;
+
+    private final Map<Category, IndexedProductRepositoryImpl> partitions = new EnumMap<>(Category.class);
+    private final IndexedProductRepositoryImpl uncategorized = new IndexedProductRepositoryImpl();
+    private final ConcurrentMap<Integer, IndexedProductRepositoryImpl> partitionIndex = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public CategoryPartitionedProductRepositoryImpl() {
+        for (Category category : Category.values()) {
+            partitions.put(category, new IndexedProductRepositoryImpl());
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Product addProduct(Product product) {
+        ValidationUtils.checkValidProduct(product);
+        Integer productId = product.getProductId();
+        ReentrantLock lock = stripeFor(productId);
+        lock.lock();
+        try {
+            if (partitionIndex.containsKey(productId)) throw new DuplicateIdException(String.format
+                    (ErrorMessage.DUPLICATE_ID, productId));
+            IndexedProductRepositoryImpl partition = partitionFor(product.getCategory());
+            partition.addProduct(product);
+            partitionIndex.put(productId, partition);
+            return product;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Product updateProduct(Product product, Integer productId) {
+        ValidationUtils.checkValidProduct(product);
+        ValidationUtils.checkValidProductId(productId);
+        ReentrantLock lock = stripeFor(productId);
+        lock.lock();
+        try {
+            IndexedProductRepositoryImpl current = partitionIndex.get(productId);
+            if (current == null) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+            ValidationUtils.checkMatchingProductId(product, productId);
+            IndexedProductRepositoryImpl target = partitionFor(product.getCategory());
+            if (target == current) return current.updateProduct(product, productId);
+            //category changed, add to the new partition before removing from the old one so a reader
+            //always finds the product in one of them
+            target.addProduct(product);
+            partitionIndex.put(productId, target);
+            //removeProductById doesn't copy the rest of the partition like deleteProductById does
+            current.removeProductById(productId);
+            return product;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Product> deleteProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        ReentrantLock lock = stripeFor(productId);
+        lock.lock();
+        try {
+            IndexedProductRepositoryImpl current = partitionIndex.remove(productId);
+            if (current == null) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+            current.removeProductById(productId);
+        } finally {
+            lock.unlock();
+        }
+        return findAll();
+    }
+
+    @Override
+    public Product removeProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        ReentrantLock lock = stripeFor(productId);
+        lock.lock();
+        try {
+            IndexedProductRepositoryImpl current = partitionIndex.remove(productId);
+            if (current == null) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+            return current.removeProductById(productId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //batches hold every stripe, so they're atomic for other writers and checked completely before the first change.
+    //readers of other partitions can see a batch that spans partitions half applied
+    @Override
+    public List<Product> addAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        lockAllStripes();
+        try {
+            for (Product product : products) {
+                if (partitionIndex.containsKey(product.getProductId())) throw new DuplicateIdException(String.format
+                        (ErrorMessage.DUPLICATE_ID, product.getProductId()));
+            }
+            for (Map.Entry<IndexedProductRepositoryImpl, List<Product>> partitionBatch : byPartition(products).entrySet()) {
+                partitionBatch.getKey().addAllProducts(partitionBatch.getValue());
+                partitionBatch.getValue().forEach(product -> partitionIndex.put(product.getProductId(),
+                        partitionBatch.getKey()));
+            }
+            return List.copyOf(products);
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    @Override
+    public List<Product> updateAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        lockAllStripes();
+        try {
+            for (Product product : products) {
+                if (!partitionIndex.containsKey(product.getProductId())) throw new NoRecordFoundException(
+                        String.format(ErrorMessage.NO_RECORD_FOUND_EXCEPTION, product.getProductId()));
+            }
+            for (Product product : products) {
+                updateProduct(product, product.getProductId());
+            }
+            return List.copyOf(products);
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    @Override
+    public void deleteProductsByIds(List<Integer> productIds) {
+        ValidationUtils.checkValidProductIds(productIds);
+        lockAllStripes();
+        try {
+            for (Integer productId : productIds) {
+                if (!partitionIndex.containsKey(productId)) throw new NoRecordFoundException(String.format
+                        (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+            }
+            Map<IndexedProductRepositoryImpl, List<Integer>> idsByPartition = new HashMap<>();
+            for (Integer productId : productIds) {
+                idsByPartition.computeIfAbsent(partitionIndex.remove(productId), partition -> new ArrayList<>())
+                        .add(productId);
+            }
+            idsByPartition.forEach(IndexedProductRepositoryImpl::deleteProductsByIds);
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    @Override
+    public Optional<Product> findProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        while (true) {
+            IndexedProductRepositoryImpl partition = partitionIndex.get(productId);
+            if (partition == null) return Optional.empty();
+            Optional<Product> product = partition.findProductById(productId);
+            if (product.isPresent() || partitionIndex.get(productId) == partition) return product;
+            //the product moved to another partition in between, look again
+        }
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        List<Product> discountedProducts = new ArrayList<>();
+        for (IndexedProductRepositoryImpl partition : partitions.values()) {
+            discountedProducts.addAll(partition.findDiscountedProducts(discountMin, discountMax));
+        }
+        discountedProducts.addAll(uncategorized.findDiscountedProducts(discountMin, discountMax));
+        return discountedProducts;
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Category category, Optional<Double> discountMin,
+                                                Optional<Double> discountMax) {
+        ValidationUtils.checkValidCategory(category);
+        return partitions.get(category).findDiscountedProducts(discountMin, discountMax);
+    }
+
+    //every partition answers from its own price index, the sorted partial results are merged
+    @Override
+    public List<Product> findByPriceRange(Optional<Double> priceMin, Optional<Double> priceMax) {
+        List<Product> products = new ArrayList<>();
+        for (IndexedProductRepositoryImpl partition : partitions.values()) {
+            products.addAll(partition.findByPriceRange(priceMin, priceMax));
+        }
+        products.addAll(uncategorized.findByPriceRange(priceMin, priceMax));
+        products.sort(Comparator.comparing(Product::getPrice));
+        return products;
+    }
+
+    @Override
+    public List<Product> findByPriceRange(Category category, Optional<Double> priceMin, Optional<Double> priceMax) {
+        ValidationUtils.checkValidCategory(category);
+        return partitions.get(category).findByPriceRange(priceMin, priceMax);
+    }
+
+    //the cheapest products overall are among the cheapest of every partition
+    @Override
+    public List<Product> findCheapestProducts(int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        List<Product> products = new ArrayList<>();
+        for (IndexedProductRepositoryImpl partition : partitions.values()) {
+            products.addAll(partition.findCheapestProducts(limit));
+        }
+        products.addAll(uncategorized.findCheapestProducts(limit));
+        products.sort(Comparator.comparingDouble(Product::getEffectivePrice));
+        return new ArrayList<>(products.subList(0, Math.min(limit, products.size())));
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Optional<Double> effectivePriceMin, Optional<Double> effectivePriceMax,
+                                              int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        List<Product> products = new ArrayList<>();
+        for (IndexedProductRepositoryImpl partition : allPartitions()) {
+            products.addAll(partition.findCheapestProducts(effectivePriceMin, effectivePriceMax, limit));
+        }
+        products.sort(Comparator.comparingDouble(Product::getEffectivePrice));
+        return new ArrayList<>(products.subList(0, Math.min(limit, products.size())));
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Category category, int limit) {
+        ValidationUtils.checkValidCategory(category);
+        return partitions.get(category).findCheapestProducts(limit);
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        ValidationUtils.checkValidCategory(category);
+        return partitions.get(category).findAll();
+    }
+
+    @Override
+    public List<Product> findAll() {
+        List<Product> productList = new ArrayList<>();
+        for (IndexedProductRepositoryImpl partition : partitions.values()) {
+            productList.addAll(partition.findAll());
+        }
+        productList.addAll(uncategorized.findAll());
+        return productList;
+    }
+
+    //a page in the same order as findAll, only the partitions the page overlaps are read
+    //a page in id order like streamAll. the first offset + limit ids of every partition hold the first
+    //offset + limit ids overall, so that many are merged, O(partitions * (offset + limit)). every stripe is held
+    //like in findAllAfter, so no product moves between partitions while they're read
+    @Override
+    public List<Product> findAll(int offset, int limit) {
+        ValidationUtils.checkValidPage(offset, limit);
+        int end = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        List<Product> products = new ArrayList<>();
+        lockAllStripes();
+        try {
+            for (IndexedProductRepositoryImpl partition : allPartitions()) {
+                products.addAll(partition.findAll(0, end));
+            }
+        } finally {
+            unlockAllStripes();
+        }
+        if (offset >= products.size()) return new ArrayList<>();
+        products.sort(Comparator.comparing(Product::getProductId));
+        return new ArrayList<>(products.subList(offset, Math.min(end, products.size())));
+    }
+
+    //the first limit ids of every partition hold the first limit ids overall. with every stripe held no product
+    //moves between partitions while they're read, so the page is one point in time
+    @Override
+    public List<Product> findAllAfter(Optional<Integer> afterId, int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        List<Product> page = new ArrayList<>();
+        lockAllStripes();
+        try {
+            for (IndexedProductRepositoryImpl partition : allPartitions()) {
+                page.addAll(partition.findAllAfter(afterId, limit));
+            }
+        } finally {
+            unlockAllStripes();
+        }
+        page.sort(Comparator.comparing(Product::getProductId));
+        return new ArrayList<>(page.subList(0, Math.min(limit, page.size())));
+    }
+
+    //in id order, see findAllAfter
+    @Override
+    public Stream<Product> streamAll() {
+        return ChunkedStreams.byId(this);
+    }
+
+    //holds every stripe while the partitions are copied, so the snapshot is one point in time of the whole catalog.
+    //each partition is copied once, straight into the snapshot's own id index.
+    //the version is the sum of the partition versions, moving a product to another partition counts twice
+    @Override
+    public ProductSnapshot snapshot() {
+        lockAllStripes();
+        try {
+            List<IndexedProductRepositoryImpl> allPartitions = allPartitions();
+            int size = 0;
+            for (IndexedProductRepositoryImpl partition : allPartitions) {
+                size += partition.size();
+            }
+            LinkedHashMap<Integer, Product> products = new LinkedHashMap<>((int) (size / 0.75f) + 1);
+            long version = 0;
+            for (IndexedProductRepositoryImpl partition : allPartitions) {
+                version += partition.copyInto(products);
+            }
+            return new CopiedProductSnapshot(products, version);
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    @Override
+    public void deleteAllProducts() {
+        //no write can land between the partitions being cleared
+        lockAllStripes();
+        try {
+            partitions.values().forEach(IndexedProductRepositoryImpl::deleteAllProducts);
+            uncategorized.deleteAllProducts();
+            partitionIndex.clear();
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    private Map<IndexedProductRepositoryImpl, List<Product>> byPartition(List<Product> products) {
+        Map<IndexedProductRepositoryImpl, List<Product>> productsByPartition = new HashMap<>();
+        for (Product product : products) {
+            productsByPartition.computeIfAbsent(partitionFor(product.getCategory()), partition -> new ArrayList<>())
+                    .add(product);
+        }
+        return productsByPartition;
+    }
+
+    //stripes are always taken in the same order, so two threads taking all of them can't deadlock
+    private void lockAllStripes() {
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAllStripes() {
+        for (ReentrantLock lock : stripes) {
+            lock.unlock();
+        }
+    }
+
+    //the category partitions in category order, then the uncategorized one, the order findAll reads them in
+    private List<IndexedProductRepositoryImpl> allPartitions() {
+        List<IndexedProductRepositoryImpl> allPartitions = new ArrayList<>(partitions.values());
+        allPartitions.add(uncategorized);
+        return allPartitions;
+    }
+
+    private IndexedProductRepositoryImpl partitionFor(Category category) {
+        return category == null ? uncategorized : partitions.get(category);
+    }
+
+    private ReentrantLock stripeFor(Integer productId) {
+        return stripes[Math.floorMod(productId, STRIPES)];
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.repository;
+
+import org.example.entity.Product;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+//lazy streams over repositories that are written in place. the catalog is read a chunk at a time, every chunk
+//under the repository's own lock, so while the stream is consumed neither the lock nor more than one chunk of
+//products is held. what a write between two chunks does to the stream is up to the repository.
+interface ChunkedStreams {
+    int CHUNK_SIZE = 256;
+
+    /**
+     * @param chunks the next chunk of products on every call, CHUNK_SIZE of them as long as there are more,
+     *               so a shorter chunk ends the stream
+     */
+    static Stream<Product> of(Supplier<List<Product>> chunks) {
+        Iterator<Product> products = new Iterator<>() {
+            private Iterator<Product> chunk = Collections.emptyIterator();
+            private boolean lastChunk;
+
+            @Override
+            public boolean hasNext() {
+                while (!chunk.hasNext()) {
+                    if (lastChunk) return false;
+                    List<Product> next = chunks.get();
+                    lastChunk = next.size() < CHUNK_SIZE;
+                    chunk = next.iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public Product next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return chunk.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(products,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    //streams in id order, page by page with findAllAfter. the pages are keyset pages, so a write in between never
+    //fails the stream, and a product that exists the whole time is streamed exactly once
+    static Stream<Product> byId(ProductRepository productRepository) {
+        return of(new Supplier<>() {
+            private Optional<Integer> lastId = Optional.empty();
+
+            @Override
+            public List<Product> get() {
+                List<Product> page = productRepository.findAllAfter(lastId, CHUNK_SIZE);
+                if (!page.isEmpty()) lastId = Optional.of(page.get(page.size() - 1).getProductId());
+                return page;
+            }
+        });
+    }
+}
@@ -0,0 +1,503 @@
+package org.example.repository;
+
+import org.example.collection.IntIntHashMap;
+import org.example.constants.ErrorMessage;
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.utils.ValidationUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+//repository that stores the catalog column by column (struct of arrays) in primitive arrays,
+//instead of one Product with a boxed Integer, a boxed Double and an Optional<Double> per record.
+//a record costs ~25 bytes plus the name and the id index, against ~100 bytes for a Product object graph.
+//scans (discount range, category) compare primitives and don't allocate, a Product is only created for a match.
+//a deleted record is filled with the last one, so the order of findAll isn't the insertion order.
+//writers take the write lock, readers share the read lock since the columns are updated in place.
+//streamAll materializes a chunk of slots at a time under the read lock. a delete moves a record to another slot,
+//so a write between two chunks fails the stream with a ConcurrentModificationException rather than skipping or
+//repeating a product. the queries that return a list read under the read lock in one go and never fail that way.
+public class ColumnarProductRepositoryImpl implements ProductRepository {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final byte NO_CATEGORY = -1;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntIntHashMap slotIndex = new IntIntHashMap(INITIAL_CAPACITY);
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private double[] discounts = new double[INITIAL_CAPACITY];
+    //one bit per slot, set when the product has a discount
+    private long[] discountPresent = new long[1];
+    private byte[] categories = new byte[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int size;
+    //number of writes so far, the version of a snapshot
+    private long version;
+
+    @Override
+    public Product addProduct(Product product) {
+        ValidationUtils.checkValidProduct(product);
+        lock.writeLock().lock();
+        try {
+            if (slotIndex.containsKey(product.getProductId())) throw new DuplicateIdException(String.format
+                    (ErrorMessage.DUPLICATE_ID, product.getProductId()));
+            if (size == ids.length) grow();
+            write(size, product);
+            slotIndex.put(product.getProductId(), size++);
+            version++;
+            return product;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Product updateProduct(Product product, Integer productId) {
+        ValidationUtils.checkValidProduct(product);
+        ValidationUtils.checkValidProductId(productId);
+        lock.writeLock().lock();
+        try {
+            int slot = slotIndex.get(productId);
+            if (slot == IntIntHashMap.NO_VALUE) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+            ValidationUtils.checkMatchingProductId(product, productId);
+            write(slot, product);
+            version++;
+            return product;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> deleteProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        lock.writeLock().lock();
+        try {
+            int slot = slotIndex.remove(productId);
+            if (slot == IntIntHashMap.NO_VALUE) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+            removeSlot(slot);
+            version++;
+            return materializeAll();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Product removeProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        lock.writeLock().lock();
+        try {
+            int slot = slotIndex.remove(productId);
+            if (slot == IntIntHashMap.NO_VALUE) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+            Product removed = materialize(slot);
+            removeSlot(slot);
+            version++;
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //batches are checked completely before the first change, under the same write lock, so they're all or nothing
+    @Override
+    public List<Product> addAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        lock.writeLock().lock();
+        try {
+            for (Product product : products) {
+                if (slotIndex.containsKey(product.getProductId())) throw new DuplicateIdException(String.format
+                        (ErrorMessage.DUPLICATE_ID, product.getProductId()));
+            }
+            for (Product product : products) {
+                if (size == ids.length) grow();
+                write(size, product);
+                slotIndex.put(product.getProductId(), size++);
+            }
+            version++;
+            return List.copyOf(products);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> updateAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        lock.writeLock().lock();
+        try {
+            for (Product product : products) {
+                if (!slotIndex.containsKey(product.getProductId())) throw new NoRecordFoundException(String.format
+                        (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, product.getProductId()));
+            }
+            for (Product product : products) {
+                write(slotIndex.get(product.getProductId()), product);
+            }
+            version++;
+            return List.copyOf(products);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteProductsByIds(List<Integer> productIds) {
+        ValidationUtils.checkValidProductIds(productIds);
+        lock.writeLock().lock();
+        try {
+            for (Integer productId : productIds) {
+                if (!slotIndex.containsKey(productId)) throw new NoRecordFoundException(String.format
+                        (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+            }
+            for (Integer productId : productIds) {
+                removeSlot(slotIndex.remove(productId));
+            }
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Product> findProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        lock.readLock().lock();
+        try {
+            int slot = slotIndex.get(productId);
+            return slot == IntIntHashMap.NO_VALUE ? Optional.empty() : Optional.of(materialize(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        return findDiscounted(null, discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Category category, Optional<Double> discountMin,
+                                                Optional<Double> discountMax) {
+        ValidationUtils.checkValidCategory(category);
+        return findDiscounted(category, discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        ValidationUtils.checkValidCategory(category);
+        byte ordinal = (byte) category.ordinal();
+        List<Product> productList = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < size; slot++) {
+                if (categories[slot] == ordinal) productList.add(materialize(slot));
+            }
+            return productList;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> findAll() {
+        lock.readLock().lock();
+        try {
+            return materializeAll();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //materializes the whole catalog under the read lock, O(n)
+    @Override
+    public ProductSnapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            return ProductSnapshot.copyOf(materializeAll(), version);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //a page only materializes its own slots, in the same (slot) order as findAll
+    @Override
+    public List<Product> findAll(int offset, int limit) {
+        ValidationUtils.checkValidPage(offset, limit);
+        lock.readLock().lock();
+        try {
+            int to = (int) Math.min((long) offset + limit, size);
+            List<Product> page = new ArrayList<>(Math.max(0, to - offset));
+            for (int slot = offset; slot < to; slot++) {
+                page.add(materialize(slot));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<Product> streamAll() {
+        return ChunkedStreams.of(new Supplier<>() {
+            private int slot;
+            //the version the stream started at, it starts with its first chunk
+            private long streamedVersion = -1;
+
+            @Override
+            public List<Product> get() {
+                lock.readLock().lock();
+                try {
+                    if (streamedVersion == -1) {
+                        streamedVersion = version;
+                    } else if (streamedVersion != version) {
+                        throw new ConcurrentModificationException("The repository was written while it was streamed");
+                    }
+                    int to = Math.min(slot + ChunkedStreams.CHUNK_SIZE, size);
+                    List<Product> chunk = new ArrayList<>(Math.max(0, to - slot));
+                    for (; slot < to; slot++) {
+                        chunk.add(materialize(slot));
+                    }
+                    return chunk;
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    //there's no id order to start from, so this scans the id column, but only the page is materialized
+    @Override
+    public List<Product> findAllAfter(Optional<Integer> afterId, int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        long after = afterId.isEmpty() ? Long.MIN_VALUE : afterId.get();
+        lock.readLock().lock();
+        try {
+            //max heap of the slots with the smallest ids seen so far
+            PriorityQueue<Integer> page = new PriorityQueue<>(Math.min(limit, size) + 1,
+                    (left, right) -> Integer.compare(ids[right], ids[left]));
+            for (int slot = 0; slot < size && limit > 0; slot++) {
+                if (ids[slot] <= after) continue;
+                if (page.size() < limit) {
+                    page.offer(slot);
+                } else if (ids[slot] < ids[page.peek()]) {
+                    page.poll();
+                    page.offer(slot);
+                }
+            }
+            return materializeDescending(page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //ordered by price, scans the price column and only materializes the matches
+    @Override
+    public List<Product> findByPriceRange(Optional<Double> priceMin, Optional<Double> priceMax) {
+        return findByPrice(null, priceMin, priceMax);
+    }
+
+    @Override
+    public List<Product> findByPriceRange(Category category, Optional<Double> priceMin, Optional<Double> priceMax) {
+        ValidationUtils.checkValidCategory(category);
+        return findByPrice(category, priceMin, priceMax);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        return findCheapest(null, -Double.MAX_VALUE, Double.MAX_VALUE, limit);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Optional<Double> effectivePriceMin, Optional<Double> effectivePriceMax,
+                                              int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        return findCheapest(null, effectivePriceMin.orElse(-Double.MAX_VALUE),
+                effectivePriceMax.orElse(Double.MAX_VALUE), limit);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Category category, int limit) {
+        ValidationUtils.checkValidCategory(category);
+        ValidationUtils.checkValidLimit(limit);
+        return findCheapest(category, -Double.MAX_VALUE, Double.MAX_VALUE, limit);
+    }
+
+    @Override
+    public void deleteAllProducts() {
+        lock.writeLock().lock();
+        try {
+            slotIndex.clear();
+            Arrays.fill(names, 0, size, null);
+            Arrays.fill(discountPresent, 0L);
+            size = 0;
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //a null category means every category
+    private List<Product> findDiscounted(Category category, Optional<Double> discountMin,
+                                         Optional<Double> discountMax) {
+        //lower bound is exclusive and upper bound is inclusive, like the list based repository
+        double min = discountMin.orElse(Double.MIN_VALUE);
+        double max = discountMax.orElse(Double.MAX_VALUE);
+        int ordinal = category == null ? Integer.MIN_VALUE : category.ordinal();
+        List<Product> discountedProducts = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < size; slot++) {
+                if (!hasDiscount(slot)) continue;
+                if (category != null && categories[slot] != ordinal) continue;
+                double discount = discounts[slot];
+                if (Double.compare(discount, min) > 0 && discount <= max) discountedProducts.add(materialize(slot));
+            }
+            return discountedProducts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //a null category means every category
+    private List<Product> findByPrice(Category category, Optional<Double> priceMin, Optional<Double> priceMax) {
+        double min = priceMin.orElse(-Double.MAX_VALUE);
+        double max = priceMax.orElse(Double.MAX_VALUE);
+        int ordinal = category == null ? Integer.MIN_VALUE : category.ordinal();
+        List<Product> products = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < size; slot++) {
+                if (category != null && categories[slot] != ordinal) continue;
+                if (prices[slot] >= min && prices[slot] <= max) products.add(materialize(slot));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        products.sort(Comparator.comparing(Product::getPrice));
+        return products;
+    }
+
+    //a bounded heap over the price columns, bounds inclusive, ties in slot order. a null category means every category
+    private List<Product> findCheapest(Category category, double min, double max, int limit) {
+        int ordinal = category == null ? Integer.MIN_VALUE : category.ordinal();
+        lock.readLock().lock();
+        try {
+            //max heap of the cheapest slots seen so far
+            Comparator<Integer> cheaper = Comparator.comparingDouble(this::effectivePrice);
+            PriorityQueue<Integer> cheapest = new PriorityQueue<>(Math.min(limit, size) + 1,
+                    cheaper.thenComparing(Comparator.naturalOrder()).reversed());
+            for (int slot = 0; slot < size && limit > 0; slot++) {
+                if (category != null && categories[slot] != ordinal) continue;
+                double effectivePrice = effectivePrice(slot);
+                if (effectivePrice < min || effectivePrice > max) continue;
+                if (cheapest.size() < limit) {
+                    cheapest.offer(slot);
+                } else if (effectivePrice < effectivePrice(cheapest.peek())) {
+                    cheapest.poll();
+                    cheapest.offer(slot);
+                }
+            }
+            return materializeDescending(cheapest);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //no discount is stored as 0, like Product.getEffectivePrice
+    private double effectivePrice(int slot) {
+        return prices[slot] - discounts[slot];
+    }
+
+    //empties a max heap of slots into a list in ascending order
+    private List<Product> materializeDescending(PriorityQueue<Integer> slots) {
+        Product[] products = new Product[slots.size()];
+        for (int i = products.length - 1; i >= 0; i--) {
+            products[i] = materialize(slots.poll());
+        }
+        return new ArrayList<>(Arrays.asList(products));
+    }
+
+    //fills the slot with the last record
+    private void removeSlot(int slot) {
+        int last = --size;
+        if (slot != last) {
+            move(last, slot);
+            slotIndex.put(ids[slot], slot);
+        }
+        names[last] = null;
+    }
+
+    private void write(int slot, Product product) {
+        ids[slot] = product.getProductId();
+        prices[slot] = product.getPrice();
+        Optional<Double> discount = product.getDiscount();
+        discounts[slot] = discount.orElse(0.0);
+        setDiscountPresent(slot, discount.isPresent());
+        categories[slot] = product.getCategory() == null ? NO_CATEGORY : (byte) product.getCategory().ordinal();
+        names[slot] = product.getName();
+    }
+
+    private void move(int from, int to) {
+        ids[to] = ids[from];
+        prices[to] = prices[from];
+        discounts[to] = discounts[from];
+        setDiscountPresent(to, hasDiscount(from));
+        setDiscountPresent(from, false);
+        categories[to] = categories[from];
+        names[to] = names[from];
+    }
+
+    private Product materialize(int slot) {
+        Category category = categories[slot] == NO_CATEGORY ? null : CATEGORIES[categories[slot]];
+        return hasDiscount(slot)
+                ? new Product(ids[slot], names[slot], category, prices[slot], discounts[slot])
+                : new Product(ids[slot], names[slot], category, prices[slot]);
+    }
+
+    private List<Product> materializeAll() {
+        List<Product> productList = new ArrayList<>(size);
+        for (int slot = 0; slot < size; slot++) {
+            productList.add(materialize(slot));
+        }
+        return productList;
+    }
+
+    private boolean hasDiscount(int slot) {
+        return (discountPresent[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private void setDiscountPresent(int slot, boolean present) {
+        if (present) {
+            discountPresent[slot >>> 6] |= 1L << slot;
+        } else {
+            discountPresent[slot >>> 6] &= ~(1L << slot);
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length << 1;
+        ids = Arrays.copyOf(ids, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        discounts = Arrays.copyOf(discounts, capacity);
+        discountPresent = Arrays.copyOf(discountPresent, (capacity + 63) >>> 6);
+        categories = Arrays.copyOf(categories, capacity);
+        names = Arrays.copyOf(names, capacity);
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.repository;
+
+import org.example.entity.Product;
+import org.example.utils.ValidationUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+//snapshot of a repository with mutable storage, the products are copied (O(n)) into an id index of their own,
+//so lookups on the snapshot stay O(1)
+final class CopiedProductSnapshot implements ProductSnapshot {
+    private final Map<Integer, Product> products;
+    private final long version;
+
+    CopiedProductSnapshot(Collection<Product> products, long version) {
+        this(new LinkedHashMap<>(), version);
+        products.forEach(product -> this.products.put(product.getProductId(), product));
+    }
+
+    //takes the map over as it is, whoever filled it must not touch it any more
+    CopiedProductSnapshot(LinkedHashMap<Integer, Product> products, long version) {
+        this.products = products;
+        this.version = version;
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public int size() {
+        return products.size();
+    }
+
+    @Override
+    public Stream<Product> streamAll() {
+        return products.values().stream();
+    }
+
+    @Override
+    public Optional<Product> findProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        return Optional.ofNullable(products.get(productId));
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return new ArrayList<>(products.values());
+    }
+}
@@ -0,0 +1,310 @@
+package org.example.repository;
+
+import org.example.constants.ErrorMessage;
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.utils.ValidationUtils;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+//repository backed by a primary key index (productId -> Product), so lookups, exists checks,
+//updates and deletes are O(1) expected instead of scanning the whole list.
+//LinkedHashMap keeps the same ordering as ProductRepositoryImpl: insertion order, and an updated product moves to the end.
+//a secondary index sorted by discount answers findDiscountedProducts in O(log n + k), so those results come
+//ordered by discount (ties in insertion order). products without a discount are not in that index at all.
+//two more sorted indexes on the price and the effective price answer the price range and cheapest products queries
+//in O(log n + k) as well, the same two indexes per category answer the category scoped ones. products without a
+//category are only in the global ones. an id index answers findAllAfter in O(log n + limit), streamAll pages
+//through it a chunk at a time, so a stream is in id order and holds only one chunk and never the lock.
+public class IndexedProductRepositoryImpl implements ProductRepository {
+    private final Map<Integer, Product> productIndex = new LinkedHashMap<>();
+    private final NavigableMap<Double, Map<Integer, Product>> discountIndex = new TreeMap<>();
+    private final NavigableMap<Double, Map<Integer, Product>> priceIndex = new TreeMap<>();
+    private final NavigableMap<Double, Map<Integer, Product>> effectivePriceIndex = new TreeMap<>();
+    private final Map<Category, NavigableMap<Double, Map<Integer, Product>>> categoryPriceIndex = byCategory();
+    private final Map<Category, NavigableMap<Double, Map<Integer, Product>>> categoryEffectivePriceIndex =
+            byCategory();
+    private final NavigableMap<Integer, Product> idIndex = new TreeMap<>();
+    //number of writes so far, the version of a snapshot
+    private long version;
+
+    @Override
+    public synchronized Product addProduct(Product product) {
+        ValidationUtils.checkValidProduct(product);
+        if (productIndex.containsKey(product.getProductId())) throw new DuplicateIdException(String.format
+                (ErrorMessage.DUPLICATE_ID, product.getProductId()));
+        productIndex.put(product.getProductId(), product);
+        index(product);
+        version++;
+        return product;
+    }
+
+    @Override
+    public synchronized Product updateProduct(Product product, Integer productId) {
+        ValidationUtils.checkValidProduct(product);
+        ValidationUtils.checkValidProductId(productId);
+        if (!productIndex.containsKey(productId)) throw new NoRecordFoundException(String.format
+                (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+        ValidationUtils.checkMatchingProductId(product, productId);
+        //remove first so the updated product is moved to the end like in the list based repository
+        unindex(productIndex.remove(productId));
+        productIndex.put(productId, product);
+        index(product);
+        version++;
+        return product;
+    }
+
+    @Override
+    public synchronized List<Product> deleteProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        Product removed = productIndex.remove(productId);
+        if (removed == null) throw new NoRecordFoundException(String.format
+                (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+        unindex(removed);
+        version++;
+        //the contract returns the remaining products, so this copy is still O(n)
+        return List.copyOf(productIndex.values());
+    }
+
+    @Override
+    public synchronized Product removeProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        Product removed = productIndex.remove(productId);
+        if (removed == null) throw new NoRecordFoundException(String.format
+                (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+        unindex(removed);
+        version++;
+        return removed;
+    }
+
+    //batches are checked completely before the first change, under the same lock, so they're all or nothing
+    @Override
+    public synchronized List<Product> addAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        for (Product product : products) {
+            if (productIndex.containsKey(product.getProductId())) throw new DuplicateIdException(String.format
+                    (ErrorMessage.DUPLICATE_ID, product.getProductId()));
+        }
+        for (Product product : products) {
+            productIndex.put(product.getProductId(), product);
+            index(product);
+        }
+        version++;
+        return List.copyOf(products);
+    }
+
+    @Override
+    public synchronized List<Product> updateAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        for (Product product : products) {
+            if (!productIndex.containsKey(product.getProductId())) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, product.getProductId()));
+        }
+        for (Product product : products) {
+            unindex(productIndex.remove(product.getProductId()));
+            productIndex.put(product.getProductId(), product);
+            index(product);
+        }
+        version++;
+        return List.copyOf(products);
+    }
+
+    @Override
+    public synchronized void deleteProductsByIds(List<Integer> productIds) {
+        ValidationUtils.checkValidProductIds(productIds);
+        for (Integer productId : productIds) {
+            if (!productIndex.containsKey(productId)) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+        }
+        for (Integer productId : productIds) {
+            unindex(productIndex.remove(productId));
+        }
+        version++;
+    }
+
+    @Override
+    public synchronized Optional<Product> findProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        return Optional.ofNullable(productIndex.get(productId));
+    }
+
+    @Override
+    public synchronized List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        //lower bound is exclusive and upper bound is inclusive, like the list based repository
+        double min = discountMin.orElse(Double.MIN_VALUE);
+        double max = discountMax.orElse(Double.MAX_VALUE);
+        List<Product> discountedProducts = new ArrayList<>();
+        if (Double.compare(min, max) >= 0) return discountedProducts;
+        for (Map<Integer, Product> sameDiscount : discountIndex.subMap(min, false, max, true).values()) {
+            discountedProducts.addAll(sameDiscount.values());
+        }
+        return discountedProducts;
+    }
+
+    //both bounds are inclusive, ordered by price (ties in insertion order)
+    @Override
+    public synchronized List<Product> findByPriceRange(Optional<Double> priceMin, Optional<Double> priceMax) {
+        return inRange(priceIndex, priceMin, priceMax, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public synchronized List<Product> findByPriceRange(Category category, Optional<Double> priceMin,
+                                                       Optional<Double> priceMax) {
+        ValidationUtils.checkValidCategory(category);
+        return inRange(categoryPriceIndex.get(category), priceMin, priceMax, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public synchronized List<Product> findCheapestProducts(int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        return inRange(effectivePriceIndex, Optional.empty(), Optional.empty(), limit);
+    }
+
+    @Override
+    public synchronized List<Product> findCheapestProducts(Category category, int limit) {
+        ValidationUtils.checkValidCategory(category);
+        ValidationUtils.checkValidLimit(limit);
+        return inRange(categoryEffectivePriceIndex.get(category), Optional.empty(), Optional.empty(), limit);
+    }
+
+    @Override
+    public synchronized List<Product> findCheapestProducts(Optional<Double> effectivePriceMin,
+                                                           Optional<Double> effectivePriceMax, int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        return inRange(effectivePriceIndex, effectivePriceMin, effectivePriceMax, limit);
+    }
+
+    @Override
+    public synchronized List<Product> findAll() {
+        return new ArrayList<>(productIndex.values());
+    }
+
+    //a page in id order like streamAll, O(offset + limit)
+    @Override
+    public synchronized List<Product> findAll(int offset, int limit) {
+        ValidationUtils.checkValidPage(offset, limit);
+        List<Product> page = new ArrayList<>(Math.max(0, Math.min(limit, idIndex.size() - offset)));
+        Iterator<Product> products = idIndex.values().iterator();
+        for (int skipped = 0; skipped < offset && products.hasNext(); skipped++) {
+            products.next();
+        }
+        while (page.size() < limit && products.hasNext()) {
+            page.add(products.next());
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized List<Product> findAllAfter(Optional<Integer> afterId, int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        List<Product> page = new ArrayList<>(Math.min(limit, idIndex.size()));
+        for (Product product : (afterId.isEmpty() ? idIndex : idIndex.tailMap(afterId.get(), false)).values()) {
+            if (page.size() == limit) break;
+            page.add(product);
+        }
+        return page;
+    }
+
+    //in id order, see findAllAfter
+    @Override
+    public Stream<Product> streamAll() {
+        return ChunkedStreams.byId(this);
+    }
+
+    @Override
+    public synchronized void deleteAllProducts() {
+        productIndex.clear();
+        idIndex.clear();
+        discountIndex.clear();
+        priceIndex.clear();
+        effectivePriceIndex.clear();
+        categoryPriceIndex.values().forEach(Map::clear);
+        categoryEffectivePriceIndex.values().forEach(Map::clear);
+        version++;
+    }
+
+    //copies the catalog under the lock, O(n)
+    @Override
+    public synchronized ProductSnapshot snapshot() {
+        return ProductSnapshot.copyOf(productIndex.values(), version);
+    }
+
+    synchronized int size() {
+        return productIndex.size();
+    }
+
+    //puts the products into the map while writers are locked out and returns the version they're at, so the
+    //partitioned repository copies each partition once, straight into its snapshot
+    synchronized long copyInto(Map<Integer, Product> products) {
+        products.putAll(productIndex);
+        return version;
+    }
+
+    //adds the product to the secondary indexes
+    private void index(Product product) {
+        idIndex.put(product.getProductId(), product);
+        product.getDiscount().ifPresent(discount -> addTo(discountIndex, discount, product));
+        addTo(priceIndex, product.getPrice(), product);
+        addTo(effectivePriceIndex, product.getEffectivePrice(), product);
+        if (product.getCategory() != null) {
+            addTo(categoryPriceIndex.get(product.getCategory()), product.getPrice(), product);
+            addTo(categoryEffectivePriceIndex.get(product.getCategory()), product.getEffectivePrice(), product);
+        }
+    }
+
+    private void unindex(Product product) {
+        idIndex.remove(product.getProductId());
+        product.getDiscount().ifPresent(discount -> removeFrom(discountIndex, discount, product));
+        removeFrom(priceIndex, product.getPrice(), product);
+        removeFrom(effectivePriceIndex, product.getEffectivePrice(), product);
+        if (product.getCategory() != null) {
+            removeFrom(categoryPriceIndex.get(product.getCategory()), product.getPrice(), product);
+            removeFrom(categoryEffectivePriceIndex.get(product.getCategory()), product.getEffectivePrice(), product);
+        }
+    }
+
+    //up to limit products of a price index with a key between the bounds, both inclusive, O(log n + limit)
+    private static List<Product> inRange(NavigableMap<Double, Map<Integer, Product>> index, Optional<Double> keyMin,
+                                         Optional<Double> keyMax, int limit) {
+        double min = keyMin.orElse(-Double.MAX_VALUE);
+        double max = keyMax.orElse(Double.MAX_VALUE);
+        List<Product> products = new ArrayList<>();
+        if (Double.compare(min, max) > 0) return products;
+        for (Map<Integer, Product> sameKey : index.subMap(min, true, max, true).values()) {
+            for (Product product : sameKey.values()) {
+                if (products.size() == limit) return products;
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    private static Map<Category, NavigableMap<Double, Map<Integer, Product>>> byCategory() {
+        Map<Category, NavigableMap<Double, Map<Integer, Product>>> indexes = new EnumMap<>(Category.class);
+        for (Category category : Category.values()) {
+            indexes.put(category, new TreeMap<>());
+        }
+        return indexes;
+    }
+
+    private static void addTo(NavigableMap<Double, Map<Integer, Product>> index, double key, Product product) {
+        index.computeIfAbsent(key, sameKey -> new LinkedHashMap<>()).put(product.getProductId(), product);
+    }
+
+    private static void removeFrom(NavigableMap<Double, Map<Integer, Product>> index, double key, Product product) {
+        Map<Integer, Product> sameKey = index.get(key);
+        sameKey.remove(product.getProductId());
+        if (sameKey.isEmpty()) index.remove(key);
+    }
+}
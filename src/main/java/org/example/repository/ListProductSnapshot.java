@@ -0,0 +1,38 @@
+package org.example.repository;
+
+import org.example.entity.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+//snapshot over an unmodifiable list, either a repository's own immutable list (no copy at all) or a copy
+final class ListProductSnapshot implements ProductSnapshot {
+    private final List<Product> products;
+    private final long version;
+
+    ListProductSnapshot(List<Product> products, long version) {
+        this.products = products;
+        this.version = version;
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public int size() {
+        return products.size();
+    }
+
+    @Override
+    public Stream<Product> streamAll() {
+        return products.stream();
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return new ArrayList<>(products);
+    }
+}
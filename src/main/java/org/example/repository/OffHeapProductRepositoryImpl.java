@@ -0,0 +1,618 @@
+package org.example.repository;
+
+import org.example.collection.DirectIntIntHashMap;
+import org.example.constants.ErrorMessage;
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.utils.ValidationUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+//repository that keeps every record off-heap, in direct buffers, so a catalog of millions of products
+//doesn't turn into millions of objects for the garbage collector. only the Products handed out are on-heap.
+//records are fixed width slots:
+//  id int | price double | discount double | flags byte | category byte | (2 bytes padding) | name offset int | name length int
+//names are stored as UTF-8 in a separate append only area, interned: products with the same name share one entry
+//  refs int | hash int | next int | length int | bytes
+//the entries with the same hash are chained through next, the first one is found through an off-heap hash -> offset
+//table. a name that doesn't change on update is kept in place, an entry nothing refers to any more is garbage and
+//its space is reclaimed by compacting the area when it has to grow anyway.
+//the id -> slot index is an open addressing table, off-heap as well.
+//a deleted record is filled with the last one, so the order of findAll isn't the insertion order.
+//writers take the write lock and readers share the read lock, like the columnar repository.
+//streamAll materializes a chunk of slots at a time under the read lock, a write between two chunks fails the stream
+//with a ConcurrentModificationException, the queries that return a list never fail that way.
+public class OffHeapProductRepositoryImpl implements ProductRepository {
+    private static final int SLOT_BYTES = 32;
+    private static final int ID = 0;
+    private static final int PRICE = 4;
+    private static final int DISCOUNT = 12;
+    private static final int FLAGS = 20;
+    private static final int CATEGORY = 21;
+    private static final int NAME_OFFSET = 24;
+    private static final int NAME_LENGTH = 28;
+    private static final int ENTRY_REFS = 0;
+    private static final int ENTRY_HASH = 4;
+    private static final int ENTRY_NEXT = 8;
+    private static final int ENTRY_LENGTH = 12;
+    private static final int ENTRY_HEADER = 16;
+    private static final byte HAS_DISCOUNT = 1;
+    private static final byte NO_CATEGORY = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final DirectIntIntHashMap slotIndex = new DirectIntIntHashMap(INITIAL_CAPACITY);
+    private ByteBuffer records = allocate(INITIAL_CAPACITY * SLOT_BYTES);
+    private ByteBuffer names = allocate(INITIAL_CAPACITY * 16);
+    //hash of a name -> offset of the first entry with that hash
+    private final DirectIntIntHashMap nameIndex = new DirectIntIntHashMap(INITIAL_CAPACITY);
+    private int namesEnd;
+    //bytes in the name area that belong to entries nothing refers to
+    private int namesGarbage;
+    private int size;
+    //number of writes so far, the version of a snapshot
+    private long version;
+
+    @Override
+    public Product addProduct(Product product) {
+        ValidationUtils.checkValidProduct(product);
+        lock.writeLock().lock();
+        try {
+            if (slotIndex.containsKey(product.getProductId())) throw new DuplicateIdException(String.format
+                    (ErrorMessage.DUPLICATE_ID, product.getProductId()));
+            if ((size + 1) * SLOT_BYTES > records.capacity()) growRecords();
+            write(size, product, false);
+            slotIndex.put(product.getProductId(), size++);
+            version++;
+            return product;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Product updateProduct(Product product, Integer productId) {
+        ValidationUtils.checkValidProduct(product);
+        ValidationUtils.checkValidProductId(productId);
+        lock.writeLock().lock();
+        try {
+            int slot = slotIndex.get(productId);
+            if (slot == DirectIntIntHashMap.NO_VALUE) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+            ValidationUtils.checkMatchingProductId(product, productId);
+            write(slot, product, true);
+            version++;
+            return product;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> deleteProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        lock.writeLock().lock();
+        try {
+            int slot = slotIndex.remove(productId);
+            if (slot == DirectIntIntHashMap.NO_VALUE) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+            removeSlot(slot);
+            version++;
+            return materializeAll();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Product removeProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        lock.writeLock().lock();
+        try {
+            int slot = slotIndex.remove(productId);
+            if (slot == DirectIntIntHashMap.NO_VALUE) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+            Product removed = materialize(slot);
+            removeSlot(slot);
+            version++;
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //batches are checked completely before the first change, under the same write lock, so they're all or nothing
+    @Override
+    public List<Product> addAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        lock.writeLock().lock();
+        try {
+            for (Product product : products) {
+                if (slotIndex.containsKey(product.getProductId())) throw new DuplicateIdException(String.format
+                        (ErrorMessage.DUPLICATE_ID, product.getProductId()));
+            }
+            for (Product product : products) {
+                if ((size + 1) * SLOT_BYTES > records.capacity()) growRecords();
+                write(size, product, false);
+                slotIndex.put(product.getProductId(), size++);
+            }
+            version++;
+            return List.copyOf(products);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> updateAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        lock.writeLock().lock();
+        try {
+            for (Product product : products) {
+                if (!slotIndex.containsKey(product.getProductId())) throw new NoRecordFoundException(String.format
+                        (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, product.getProductId()));
+            }
+            for (Product product : products) {
+                write(slotIndex.get(product.getProductId()), product, true);
+            }
+            version++;
+            return List.copyOf(products);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteProductsByIds(List<Integer> productIds) {
+        ValidationUtils.checkValidProductIds(productIds);
+        lock.writeLock().lock();
+        try {
+            for (Integer productId : productIds) {
+                if (!slotIndex.containsKey(productId)) throw new NoRecordFoundException(String.format
+                        (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+            }
+            for (Integer productId : productIds) {
+                removeSlot(slotIndex.remove(productId));
+            }
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Product> findProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        lock.readLock().lock();
+        try {
+            int slot = slotIndex.get(productId);
+            return slot == DirectIntIntHashMap.NO_VALUE ? Optional.empty() : Optional.of(materialize(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        return findDiscounted(NO_CATEGORY, discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Category category, Optional<Double> discountMin,
+                                                Optional<Double> discountMax) {
+        ValidationUtils.checkValidCategory(category);
+        return findDiscounted((byte) category.ordinal(), discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        ValidationUtils.checkValidCategory(category);
+        byte ordinal = (byte) category.ordinal();
+        List<Product> productList = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < size; slot++) {
+                if (records.get(slot * SLOT_BYTES + CATEGORY) == ordinal) productList.add(materialize(slot));
+            }
+            return productList;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> findAll() {
+        lock.readLock().lock();
+        try {
+            return materializeAll();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //materializes the whole catalog under the read lock, O(n)
+    @Override
+    public ProductSnapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            return ProductSnapshot.copyOf(materializeAll(), version);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //a page only materializes its own slots, in the same (slot) order as findAll
+    @Override
+    public List<Product> findAll(int offset, int limit) {
+        ValidationUtils.checkValidPage(offset, limit);
+        lock.readLock().lock();
+        try {
+            int to = (int) Math.min((long) offset + limit, size);
+            List<Product> page = new ArrayList<>(Math.max(0, to - offset));
+            for (int slot = offset; slot < to; slot++) {
+                page.add(materialize(slot));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<Product> streamAll() {
+        return ChunkedStreams.of(new Supplier<>() {
+            private int slot;
+            //the version the stream started at, it starts with its first chunk
+            private long streamedVersion = -1;
+
+            @Override
+            public List<Product> get() {
+                lock.readLock().lock();
+                try {
+                    if (streamedVersion == -1) {
+                        streamedVersion = version;
+                    } else if (streamedVersion != version) {
+                        throw new ConcurrentModificationException("The repository was written while it was streamed");
+                    }
+                    int to = Math.min(slot + ChunkedStreams.CHUNK_SIZE, size);
+                    List<Product> chunk = new ArrayList<>(Math.max(0, to - slot));
+                    for (; slot < to; slot++) {
+                        chunk.add(materialize(slot));
+                    }
+                    return chunk;
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    //there's no id order to start from, so this scans the ids in the records, but only the page is materialized
+    @Override
+    public List<Product> findAllAfter(Optional<Integer> afterId, int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        long after = afterId.isEmpty() ? Long.MIN_VALUE : afterId.get();
+        lock.readLock().lock();
+        try {
+            //max heap of the slots with the smallest ids seen so far
+            PriorityQueue<Integer> page = new PriorityQueue<>(Math.min(limit, size) + 1,
+                    (left, right) -> Integer.compare(id(right), id(left)));
+            for (int slot = 0; slot < size && limit > 0; slot++) {
+                int id = id(slot);
+                if (id <= after) continue;
+                if (page.size() < limit) {
+                    page.offer(slot);
+                } else if (id < id(page.peek())) {
+                    page.poll();
+                    page.offer(slot);
+                }
+            }
+            return materializeDescending(page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //ordered by price, scans the records and only materializes the matches
+    @Override
+    public List<Product> findByPriceRange(Optional<Double> priceMin, Optional<Double> priceMax) {
+        return findByPrice(NO_CATEGORY, priceMin, priceMax);
+    }
+
+    @Override
+    public List<Product> findByPriceRange(Category category, Optional<Double> priceMin, Optional<Double> priceMax) {
+        ValidationUtils.checkValidCategory(category);
+        return findByPrice((byte) category.ordinal(), priceMin, priceMax);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        return findCheapest(NO_CATEGORY, -Double.MAX_VALUE, Double.MAX_VALUE, limit);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Optional<Double> effectivePriceMin, Optional<Double> effectivePriceMax,
+                                              int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        return findCheapest(NO_CATEGORY, effectivePriceMin.orElse(-Double.MAX_VALUE),
+                effectivePriceMax.orElse(Double.MAX_VALUE), limit);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Category category, int limit) {
+        ValidationUtils.checkValidCategory(category);
+        ValidationUtils.checkValidLimit(limit);
+        return findCheapest((byte) category.ordinal(), -Double.MAX_VALUE, Double.MAX_VALUE, limit);
+    }
+
+    @Override
+    public void deleteAllProducts() {
+        lock.writeLock().lock();
+        try {
+            slotIndex.clear();
+            nameIndex.clear();
+            size = 0;
+            namesEnd = 0;
+            namesGarbage = 0;
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //NO_CATEGORY means every category
+    private List<Product> findDiscounted(byte category, Optional<Double> discountMin, Optional<Double> discountMax) {
+        //lower bound is exclusive and upper bound is inclusive, like the list based repository
+        double min = discountMin.orElse(Double.MIN_VALUE);
+        double max = discountMax.orElse(Double.MAX_VALUE);
+        List<Product> discountedProducts = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < size; slot++) {
+                int base = slot * SLOT_BYTES;
+                if ((records.get(base + FLAGS) & HAS_DISCOUNT) == 0) continue;
+                if (category != NO_CATEGORY && records.get(base + CATEGORY) != category) continue;
+                double discount = records.getDouble(base + DISCOUNT);
+                if (Double.compare(discount, min) > 0 && discount <= max) discountedProducts.add(materialize(slot));
+            }
+            return discountedProducts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //NO_CATEGORY means every category
+    private List<Product> findByPrice(byte category, Optional<Double> priceMin, Optional<Double> priceMax) {
+        double min = priceMin.orElse(-Double.MAX_VALUE);
+        double max = priceMax.orElse(Double.MAX_VALUE);
+        List<Product> products = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < size; slot++) {
+                int base = slot * SLOT_BYTES;
+                if (category != NO_CATEGORY && records.get(base + CATEGORY) != category) continue;
+                double price = records.getDouble(base + PRICE);
+                if (price >= min && price <= max) products.add(materialize(slot));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        products.sort(Comparator.comparing(Product::getPrice));
+        return products;
+    }
+
+    //a bounded heap over the records, bounds inclusive, ties in slot order. NO_CATEGORY means every category
+    private List<Product> findCheapest(byte category, double min, double max, int limit) {
+        lock.readLock().lock();
+        try {
+            //max heap of the cheapest slots seen so far
+            Comparator<Integer> cheaper = Comparator.comparingDouble(this::effectivePrice);
+            PriorityQueue<Integer> cheapest = new PriorityQueue<>(Math.min(limit, size) + 1,
+                    cheaper.thenComparing(Comparator.naturalOrder()).reversed());
+            for (int slot = 0; slot < size && limit > 0; slot++) {
+                if (category != NO_CATEGORY && records.get(slot * SLOT_BYTES + CATEGORY) != category) continue;
+                double effectivePrice = effectivePrice(slot);
+                if (effectivePrice < min || effectivePrice > max) continue;
+                if (cheapest.size() < limit) {
+                    cheapest.offer(slot);
+                } else if (effectivePrice < effectivePrice(cheapest.peek())) {
+                    cheapest.poll();
+                    cheapest.offer(slot);
+                }
+            }
+            return materializeDescending(cheapest);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int id(int slot) {
+        return records.getInt(slot * SLOT_BYTES + ID);
+    }
+
+    //no discount is stored as 0, like Product.getEffectivePrice
+    private double effectivePrice(int slot) {
+        int base = slot * SLOT_BYTES;
+        return records.getDouble(base + PRICE) - records.getDouble(base + DISCOUNT);
+    }
+
+    //empties a max heap of slots into a list in ascending order
+    private List<Product> materializeDescending(PriorityQueue<Integer> slots) {
+        Product[] products = new Product[slots.size()];
+        for (int i = products.length - 1; i >= 0; i--) {
+            products[i] = materialize(slots.poll());
+        }
+        return new ArrayList<>(Arrays.asList(products));
+    }
+
+    //fills the slot with the last record
+    private void removeSlot(int slot) {
+        releaseName(records.getInt(slot * SLOT_BYTES + NAME_OFFSET));
+        int last = --size;
+        if (slot != last) {
+            records.put(slot * SLOT_BYTES, records, last * SLOT_BYTES, SLOT_BYTES);
+            slotIndex.put(records.getInt(slot * SLOT_BYTES + ID), slot);
+        }
+    }
+
+    private void write(int slot, Product product, boolean replacing) {
+        int base = slot * SLOT_BYTES;
+        byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+        if (!replacing || !sameName(records.getInt(base + NAME_OFFSET), name)) {
+            //the new name is interned before the old one is released, a compaction triggered here moves both
+            int offset = internName(name);
+            if (replacing) releaseName(records.getInt(base + NAME_OFFSET));
+            records.putInt(base + NAME_OFFSET, offset);
+            records.putInt(base + NAME_LENGTH, name.length);
+        }
+        records.putInt(base + ID, product.getProductId());
+        records.putDouble(base + PRICE, product.getPrice());
+        Optional<Double> discount = product.getDiscount();
+        records.putDouble(base + DISCOUNT, discount.orElse(0.0));
+        records.put(base + FLAGS, discount.isPresent() ? HAS_DISCOUNT : 0);
+        records.put(base + CATEGORY, product.getCategory() == null ? NO_CATEGORY
+                : (byte) product.getCategory().ordinal());
+    }
+
+    private boolean sameName(int entry, byte[] name) {
+        if (names.getInt(entry + ENTRY_LENGTH) != name.length) return false;
+        for (int i = 0; i < name.length; i++) {
+            if (names.get(entry + ENTRY_HEADER + i) != name[i]) return false;
+        }
+        return true;
+    }
+
+    //returns the entry of the name with one more reference, the name is only appended if no product has it yet
+    private int internName(byte[] name) {
+        int hash = Arrays.hashCode(name);
+        int entry = nameIndex.get(hash);
+        while (entry != DirectIntIntHashMap.NO_VALUE) {
+            if (sameName(entry, name)) {
+                names.putInt(entry + ENTRY_REFS, names.getInt(entry + ENTRY_REFS) + 1);
+                return entry;
+            }
+            entry = names.getInt(entry + ENTRY_NEXT);
+        }
+        entry = appendName(name, hash);
+        names.putInt(entry + ENTRY_NEXT, nameIndex.put(hash, entry));
+        return entry;
+    }
+
+    private void releaseName(int entry) {
+        int refs = names.getInt(entry + ENTRY_REFS) - 1;
+        names.putInt(entry + ENTRY_REFS, refs);
+        if (refs > 0) return;
+        namesGarbage += ENTRY_HEADER + names.getInt(entry + ENTRY_LENGTH);
+        //unlinks the entry from the chain of its hash
+        int hash = names.getInt(entry + ENTRY_HASH);
+        int next = names.getInt(entry + ENTRY_NEXT);
+        int previous = nameIndex.get(hash);
+        if (previous == entry) {
+            if (next == DirectIntIntHashMap.NO_VALUE) nameIndex.remove(hash);
+            else nameIndex.put(hash, next);
+            return;
+        }
+        while (names.getInt(previous + ENTRY_NEXT) != entry) {
+            previous = names.getInt(previous + ENTRY_NEXT);
+        }
+        names.putInt(previous + ENTRY_NEXT, next);
+    }
+
+    private int appendName(byte[] name, int hash) {
+        int length = ENTRY_HEADER + name.length;
+        if (namesEnd + length > names.capacity()) {
+            //compacting is enough when at least half of the area is garbage, otherwise grow it as well
+            int live = namesEnd - namesGarbage;
+            int capacity = names.capacity();
+            while (live + length > capacity / 2) {
+                capacity = Math.multiplyExact(capacity, 2);
+            }
+            compactNames(capacity);
+        }
+        int entry = namesEnd;
+        names.putInt(entry + ENTRY_REFS, 1);
+        names.putInt(entry + ENTRY_HASH, hash);
+        names.putInt(entry + ENTRY_NEXT, DirectIntIntHashMap.NO_VALUE);
+        names.putInt(entry + ENTRY_LENGTH, name.length);
+        names.put(entry + ENTRY_HEADER, name);
+        namesEnd += length;
+        return entry;
+    }
+
+    private void compactNames(int capacity) {
+        ByteBuffer compacted = allocate(capacity);
+        int end = 0;
+        int entry = 0;
+        while (entry < namesEnd) {
+            int length = ENTRY_HEADER + names.getInt(entry + ENTRY_LENGTH);
+            if (names.getInt(entry + ENTRY_REFS) > 0) {
+                compacted.put(end, names, entry, length);
+                //the old area is thrown away, its refs field is free to keep where the entry moved to
+                names.putInt(entry + ENTRY_REFS, end);
+                end += length;
+            }
+            entry += length;
+        }
+        for (int slot = 0; slot < size; slot++) {
+            int base = slot * SLOT_BYTES;
+            records.putInt(base + NAME_OFFSET, names.getInt(records.getInt(base + NAME_OFFSET) + ENTRY_REFS));
+        }
+        //the chains are linked again, with the new offsets
+        nameIndex.clear();
+        for (entry = 0; entry < end; entry += ENTRY_HEADER + compacted.getInt(entry + ENTRY_LENGTH)) {
+            compacted.putInt(entry + ENTRY_NEXT, nameIndex.put(compacted.getInt(entry + ENTRY_HASH), entry));
+        }
+        names = compacted;
+        namesEnd = end;
+        namesGarbage = 0;
+    }
+
+    private Product materialize(int slot) {
+        int base = slot * SLOT_BYTES;
+        byte[] name = new byte[records.getInt(base + NAME_LENGTH)];
+        names.get(records.getInt(base + NAME_OFFSET) + ENTRY_HEADER, name);
+        byte category = records.get(base + CATEGORY);
+        Category productCategory = category == NO_CATEGORY ? null : CATEGORIES[category];
+        String productName = new String(name, StandardCharsets.UTF_8);
+        double price = records.getDouble(base + PRICE);
+        int productId = records.getInt(base + ID);
+        return (records.get(base + FLAGS) & HAS_DISCOUNT) != 0
+                ? new Product(productId, productName, productCategory, price, records.getDouble(base + DISCOUNT))
+                : new Product(productId, productName, productCategory, price);
+    }
+
+    private List<Product> materializeAll() {
+        List<Product> productList = new ArrayList<>(size);
+        for (int slot = 0; slot < size; slot++) {
+            productList.add(materialize(slot));
+        }
+        return productList;
+    }
+
+    private void growRecords() {
+        ByteBuffer grown = allocate(Math.multiplyExact(records.capacity(), 2));
+        grown.put(0, records, 0, size * SLOT_BYTES);
+        records = grown;
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.repository;
+
+import org.example.collection.PersistentHashMap;
+import org.example.entity.Product;
+
+//a write that SnapshotProductRepositoryImpl#applyAll applies as part of a batch
+interface PendingWrite {
+    //the catalog with the write applied, or the catalog as it is when the write fails.
+    //may be called more than once when the batch is retried, only the last call counts
+    PersistentHashMap<Integer, Product> apply(PersistentHashMap<Integer, Product> products);
+
+    //whether the last apply failed, the version only counts the writes that didn't
+    default boolean failed() {
+        return false;
+    }
+}
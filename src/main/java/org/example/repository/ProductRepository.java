@@ -1,12 +1,21 @@
 package org.example.repository;
 
+import org.example.constants.ErrorMessage;
 import org.example.entity.Product;
+import org.example.enums.Category;
 import org.example.exceptions.BadArgumentsException;
 import org.example.exceptions.DuplicateIdException;
 import org.example.exceptions.InventoryException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.utils.ValidationUtils;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public interface ProductRepository {
     /**
@@ -22,4 +31,207 @@ public interface ProductRepository {
     List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax);
     List<Product> findAll();
     void deleteAllProducts ();
+
+    /**
+     * default implementation filters the whole catalog, repositories that can do better override it
+     * @param category
+     * @return products of the given category
+     * @throws BadArgumentsException
+     */
+    default List<Product> findByCategory(Category category) {
+        ValidationUtils.checkValidCategory(category);
+        return findAll().stream().filter(product -> category == product.getCategory()).collect(Collectors.toList());
+    }
+
+    /**
+     * same bounds as {@link #findDiscountedProducts(Optional, Optional)}, limited to one category
+     * @throws BadArgumentsException
+     */
+    default List<Product> findDiscountedProducts(Category category, Optional<Double> discountMin,
+                                                 Optional<Double> discountMax) {
+        ValidationUtils.checkValidCategory(category);
+        return findDiscountedProducts(discountMin, discountMax).stream()
+                .filter(product -> category == product.getCategory()).collect(Collectors.toList());
+    }
+
+    /**
+     * adds every product or none of them, a repeated or existing id rejects the whole batch.
+     * the default implementation checks the batch first and then adds one by one, so it's only atomic
+     * when nothing else writes at the same time, repositories override it to apply the batch in one step
+     * @param products
+     * @return the added products
+     * @throws BadArgumentsException
+     * @throws DuplicateIdException
+     */
+    default List<Product> addAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        for (Product product : products) {
+            if (findProductById(product.getProductId()).isPresent()) throw new DuplicateIdException(String.format
+                    (ErrorMessage.DUPLICATE_ID, product.getProductId()));
+        }
+        products.forEach(this::addProduct);
+        return List.copyOf(products);
+    }
+
+    /**
+     * updates every product (by its own id) or none of them, same atomicity as {@link #addAllProducts(List)}
+     * @throws NoRecordFoundException when one of the ids doesn't exist
+     */
+    default List<Product> updateAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        for (Product product : products) {
+            if (findProductById(product.getProductId()).isEmpty()) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, product.getProductId()));
+        }
+        products.forEach(product -> updateProduct(product, product.getProductId()));
+        return List.copyOf(products);
+    }
+
+    /**
+     * deletes every id or none of them, same atomicity as {@link #addAllProducts(List)}
+     * @throws NoRecordFoundException when one of the ids doesn't exist
+     */
+    default void deleteProductsByIds(List<Integer> productIds) {
+        ValidationUtils.checkValidProductIds(productIds);
+        for (Integer productId : productIds) {
+            if (findProductById(productId).isEmpty()) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+        }
+        productIds.forEach(this::deleteProductById);
+    }
+
+    /**
+     * products with a price between priceMin and priceMax, both inclusive, an empty bound is unbounded.
+     * ordered by price. the default scans the catalog, repositories with a price index override it
+     */
+    default List<Product> findByPriceRange(Optional<Double> priceMin, Optional<Double> priceMax) {
+        double min = priceMin.orElse(-Double.MAX_VALUE);
+        double max = priceMax.orElse(Double.MAX_VALUE);
+        return streamAll().filter(product -> product.getPrice() >= min && product.getPrice() <= max)
+                .sorted(Comparator.comparing(Product::getPrice)).collect(Collectors.toList());
+    }
+
+    /**
+     * same bounds as {@link #findByPriceRange(Optional, Optional)}, limited to one category
+     * @throws BadArgumentsException
+     */
+    default List<Product> findByPriceRange(Category category, Optional<Double> priceMin, Optional<Double> priceMax) {
+        ValidationUtils.checkValidCategory(category);
+        return findByPriceRange(priceMin, priceMax).stream()
+                .filter(product -> category == product.getCategory()).collect(Collectors.toList());
+    }
+
+    /**
+     * the limit products with the lowest effective price (price minus discount), cheapest first
+     * @throws BadArgumentsException
+     */
+    default List<Product> findCheapestProducts(int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        return streamAll().sorted(Comparator.comparingDouble(Product::getEffectivePrice)).limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * same as {@link #findCheapestProducts(int)}, limited to one category
+     * @throws BadArgumentsException
+     */
+    default List<Product> findCheapestProducts(Category category, int limit) {
+        ValidationUtils.checkValidCategory(category);
+        ValidationUtils.checkValidLimit(limit);
+        return streamAll().filter(product -> category == product.getCategory())
+                .sorted(Comparator.comparingDouble(Product::getEffectivePrice)).limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * the limit cheapest products with an effective price between effectivePriceMin and effectivePriceMax, both
+     * inclusive, an empty bound is unbounded. cheapest first
+     * @throws BadArgumentsException
+     */
+    default List<Product> findCheapestProducts(Optional<Double> effectivePriceMin, Optional<Double> effectivePriceMax,
+                                               int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        double min = effectivePriceMin.orElse(-Double.MAX_VALUE);
+        double max = effectivePriceMax.orElse(Double.MAX_VALUE);
+        return streamAll().filter(product -> product.getEffectivePrice() >= min && product.getEffectivePrice() <= max)
+                .sorted(Comparator.comparingDouble(Product::getEffectivePrice)).limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * read only view of the catalog as it is now, queries on it don't see later writes.
+     * the default copies {@link #findAll()}, so it's only consistent when findAll is a point in time view, and
+     * it's {@link ProductSnapshot#UNVERSIONED}. repositories override it with a numbered version
+     */
+    default ProductSnapshot snapshot() {
+        return ProductSnapshot.copyOf(findAll(), ProductSnapshot.UNVERSIONED);
+    }
+
+    /**
+     * deletes one product and returns only that product instead of the remaining catalog.
+     * the default looks the product up and then deletes it, so it's only atomic when nothing else writes at the
+     * same time, repositories override it
+     * @return the removed product
+     * @throws BadArgumentsException
+     * @throws NoRecordFoundException
+     */
+    default Product removeProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        Product removed = findProductById(productId).orElseThrow(() -> new NoRecordFoundException(String.format
+                (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId)));
+        deleteProductById(productId);
+        return removed;
+    }
+
+    /**
+     * the catalog as a lazy stream. repositories that keep an immutable snapshot stream it as it is, the others read
+     * it a chunk at a time under their lock, so a stream holds one chunk of products and not the whole catalog.
+     * the order and what a write while the stream is consumed does depend on the repository. the default copies
+     * {@link #findAll()}
+     */
+    default Stream<Product> streamAll() {
+        return findAll().stream();
+    }
+
+    /**
+     * same bounds as {@link #findDiscountedProducts(Optional, Optional)}, filtered lazily over {@link #streamAll()}
+     */
+    default Stream<Product> streamDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        double min = discountMin.orElse(Double.MIN_VALUE);
+        double max = discountMax.orElse(Double.MAX_VALUE);
+        return streamAll().filter(product -> product.getDiscount().isPresent()
+                && product.getDiscount().get() > min && product.getDiscount().get() <= max);
+    }
+
+    /**
+     * one page of the catalog in the repository's own order ({@link #streamAll()}), pages can shift when the
+     * catalog changes in between, use {@link #findAllAfter(Optional, int)} to page through a changing catalog
+     * @throws BadArgumentsException
+     */
+    default List<Product> findAll(int offset, int limit) {
+        ValidationUtils.checkValidPage(offset, limit);
+        return streamAll().skip(offset).limit(limit).collect(Collectors.toList());
+    }
+
+    /**
+     * keyset page: up to limit products with an id greater than afterId (the first page when it's empty),
+     * ordered by id. pass the id of the last product of a page to get the next one, a page never repeats or skips
+     * a product that exists the whole time. the default scans {@link #streamAll()} with a heap of limit products,
+     * O(n) per page, repositories with an id ordered index answer it in O(log n + limit)
+     * @throws BadArgumentsException
+     */
+    default List<Product> findAllAfter(Optional<Integer> afterId, int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        if (limit == 0) return new ArrayList<>();
+        //max heap of the smallest ids seen so far
+        PriorityQueue<Product> page = new PriorityQueue<>(Comparator.comparing(Product::getProductId).reversed());
+        streamAll().filter(product -> afterId.isEmpty() || product.getProductId() > afterId.get())
+                .forEach(product -> {
+                    page.offer(product);
+                    if (page.size() > limit) page.poll();
+                });
+        List<Product> products = new ArrayList<>(page);
+        products.sort(Comparator.comparing(Product::getProductId));
+        return products;
+    }
 }
@@ -0,0 +1,41 @@
+package org.example.repository;
+
+import org.example.enums.RepositoryType;
+import org.example.exceptions.BadArgumentsException;
+
+//single place to pick the storage behind ProductRepository, callers only depend on the interface.
+//the type can be chosen in code or with -Dinventory.repository=<RepositoryType name>, LIST is the default.
+public interface ProductRepositoryFactory {
+    String REPOSITORY_TYPE_PROPERTY = "inventory.repository";
+
+    static ProductRepository create() {
+        String type = System.getProperty(REPOSITORY_TYPE_PROPERTY, RepositoryType.LIST.name());
+        RepositoryType repositoryType;
+        try {
+            repositoryType = RepositoryType.valueOf(type.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadArgumentsException("Unknown repository type " + type);
+        }
+        return create(repositoryType);
+    }
+
+    static ProductRepository create(RepositoryType type) {
+        if (type == null) {
+            throw new BadArgumentsException("RepositoryType is null");
+        }
+        switch (type) {
+            case INDEXED:
+                return new IndexedProductRepositoryImpl();
+            case SNAPSHOT:
+                return new SnapshotProductRepositoryImpl();
+            case PARTITIONED:
+                return new CategoryPartitionedProductRepositoryImpl();
+            case COLUMNAR:
+                return new ColumnarProductRepositoryImpl();
+            case OFF_HEAP:
+                return new OffHeapProductRepositoryImpl();
+            default:
+                return new ProductRepositoryImpl();
+        }
+    }
+}
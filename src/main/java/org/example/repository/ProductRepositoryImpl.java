@@ -2,51 +2,60 @@ package org.example.repository;
 
 import org.example.constants.ErrorMessage;
 import org.example.entity.Product;
+import org.example.enums.Category;
 import org.example.exceptions.*;
 import org.example.utils.ValidationUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class ProductRepositoryImpl implements ProductRepository {
     //empty unmodifiable list to avoid checking the null everywhere from the start
-    private List<Product> productList = Collections.unmodifiableList(new ArrayList<>());
+    //writers are synchronized so check-then-write is atomic, readers only read the volatile reference to an
+    //unmodifiable list, so they don't need the lock
+    private volatile List<Product> productList = Collections.unmodifiableList(new ArrayList<>());
+    //twice the number of writes, odd while a write is swapping the list. a snapshot reads the list between two
+    //equal, even reads of it, so the list and its version number always belong together
+    private volatile long version;
 
     @Override
-    public Product addProduct(Product product) {
+    public synchronized Product addProduct(Product product) {
         //checking null values
         ValidationUtils.checkValidProduct(product);
         if(isProductIdExisting(product.getProductId())) throw new DuplicateIdException(String.format
                 (ErrorMessage.DUPLICATE_ID, product.getProductId()));
-        productList = Stream.concat(productList.stream(), Stream.of(product)).collect(Collectors.toUnmodifiableList());
+        publish(Stream.concat(productList.stream(), Stream.of(product)).collect(Collectors.toUnmodifiableList()));
         return productList.get(productList.size()-1);
     }
 
     @Override
-    public synchronized Optional<Product> findProductById(Integer productId) {
+    public Optional<Product> findProductById(Integer productId) {
         ValidationUtils.checkValidProductId(productId);
         return productList.stream().filter(existingProduct -> existingProduct.getProductId().equals(productId)).findFirst();
     }
 
     @Override
     public synchronized void deleteAllProducts() {
-        productList = Collections.unmodifiableList(new ArrayList<>());
+        publish(Collections.unmodifiableList(new ArrayList<>()));
     }
 
     @Override
-    public Product updateProduct(Product product, Integer productId) {
+    public synchronized Product updateProduct(Product product, Integer productId) {
         //check null for product and productId
         ValidationUtils.checkValidProduct(product);
         ValidationUtils.checkValidProductId(productId);
         if(!isProductIdExisting(productId)) throw new NoRecordFoundException(String.format
                 (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, product.getProductId()));
-        productList = Stream.concat(productList.stream().filter(existingProduct ->
-                !existingProduct.getProductId().equals(product.getProductId())), Stream.of(product))
-                .collect(Collectors.toUnmodifiableList());
+        ValidationUtils.checkMatchingProductId(product, productId);
+        publish(Stream.concat(productList.stream().filter(existingProduct ->
+                !existingProduct.getProductId().equals(productId)), Stream.of(product))
+                .collect(Collectors.toUnmodifiableList()));
         return productList.get(productList.size()-1);
     }
 
@@ -57,15 +66,67 @@ public class ProductRepositoryImpl implements ProductRepository {
         if (!isProductIdExisting(productId)) { throw new NoRecordFoundException(String.format
                     (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
         }
-        productList = productList.stream().filter(existingProduct -> !existingProduct.getProductId().
-                equals(productId)).collect(Collectors.toUnmodifiableList());
+        publish(productList.stream().filter(existingProduct -> !existingProduct.getProductId().
+                equals(productId)).collect(Collectors.toUnmodifiableList()));
         return productList;
     }
 
+    @Override
+    public synchronized Product removeProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        Product removed = findProductById(productId).orElseThrow(() -> new NoRecordFoundException(String.format
+                (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId)));
+        publish(productList.stream().filter(existingProduct -> !existingProduct.getProductId().
+                equals(productId)).collect(Collectors.toUnmodifiableList()));
+        return removed;
+    }
 
+    //the batch methods check the whole batch against a set of the existing ids and swap the list once,
+    //so loading N products costs O(n + N) instead of N list copies
+    @Override
+    public synchronized List<Product> addAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        Set<Integer> existingIds = existingIds();
+        for (Product product : products) {
+            if (existingIds.contains(product.getProductId())) throw new DuplicateIdException(String.format
+                    (ErrorMessage.DUPLICATE_ID, product.getProductId()));
+        }
+        publish(Stream.concat(productList.stream(), products.stream()).collect(Collectors.toUnmodifiableList()));
+        return List.copyOf(products);
+    }
 
     @Override
-    public synchronized List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+    public synchronized List<Product> updateAllProducts(List<Product> products) {
+        ValidationUtils.checkValidProducts(products);
+        Set<Integer> existingIds = existingIds();
+        Set<Integer> updatedIds = new HashSet<>();
+        for (Product product : products) {
+            if (!existingIds.contains(product.getProductId())) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, product.getProductId()));
+            updatedIds.add(product.getProductId());
+        }
+        //like updateProduct, the updated products move to the end
+        publish(Stream.concat(productList.stream().filter(existingProduct ->
+                !updatedIds.contains(existingProduct.getProductId())), products.stream())
+                .collect(Collectors.toUnmodifiableList()));
+        return List.copyOf(products);
+    }
+
+    @Override
+    public synchronized void deleteProductsByIds(List<Integer> productIds) {
+        ValidationUtils.checkValidProductIds(productIds);
+        Set<Integer> existingIds = existingIds();
+        for (Integer productId : productIds) {
+            if (!existingIds.contains(productId)) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+        }
+        Set<Integer> deletedIds = new HashSet<>(productIds);
+        publish(productList.stream().filter(existingProduct -> !deletedIds.contains(existingProduct.getProductId()))
+                .collect(Collectors.toUnmodifiableList()));
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
         return productList.stream().filter(existingProduct -> existingProduct.getDiscount().isPresent()).
                 filter(existingProduct ->
                 existingProduct.getDiscount().get().compareTo(discountMin.orElse(Double.MIN_VALUE)) > 0
@@ -74,12 +135,55 @@ public class ProductRepositoryImpl implements ProductRepository {
     }
 
     @Override
-    public synchronized List<Product> findAll() {
+    public List<Product> findByCategory(Category category) {
+        ValidationUtils.checkValidCategory(category);
+        return productList.stream().filter(existingProduct -> category == existingProduct.getCategory())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Product> findAll() {
         return new ArrayList<>(productList);
     }
 
+    //the list is never modified, only replaced, so streaming or paging it needs no copy of the whole catalog
+    @Override
+    public Stream<Product> streamAll() {
+        return productList.stream();
+    }
+
+    @Override
+    public List<Product> findAll(int offset, int limit) {
+        ValidationUtils.checkValidPage(offset, limit);
+        List<Product> current = productList;
+        int from = Math.min(offset, current.size());
+        return new ArrayList<>(current.subList(from, (int) Math.min((long) from + limit, current.size())));
+    }
+
+
+    //the list is never modified, so the snapshot is the list itself
+    @Override
+    public ProductSnapshot snapshot() {
+        while (true) {
+            long before = version;
+            List<Product> products = productList;
+            if ((before & 1) == 0 && before == version) return new ListProductSnapshot(products, before / 2);
+            Thread.onSpinWait();
+        }
+    }
+
+    //only called by writers, which hold the lock
+    private void publish(List<Product> products) {
+        version++;
+        productList = products;
+        version++;
+    }
+
+    private Set<Integer> existingIds() {
+        return productList.stream().map(Product::getProductId).collect(Collectors.toSet());
+    }
 
-    private synchronized boolean isProductIdExisting(Integer productId) {
+    private boolean isProductIdExisting(Integer productId) {
         ValidationUtils.checkValidProductId(productId);
         return Optional.ofNullable(productList).orElse(Collections.emptyList()).stream().anyMatch(existingProduct ->
                 existingProduct.getProductId().equals(productId));
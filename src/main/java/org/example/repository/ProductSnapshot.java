@@ -0,0 +1,128 @@
+package org.example.repository;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.BadArgumentsException;
+import org.example.utils.ValidationUtils;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * read only view of a repository pinned to one version, see {@link ProductRepository#snapshot()}.
+ * every query on it sees the same catalog, whatever writers do in the meantime, and it holds no lock, so any number
+ * of threads can query it. a version nobody holds a snapshot of any more is reclaimed by the GC.
+ * queries have the same bounds as the repository's. the price range is ordered by price and the cheapest products
+ * by effective price like on every repository, the other queries come in the snapshot's streamAll order, which can
+ * differ from the repository's own (e.g. an INDEXED repository orders discounted products by discount, a copied
+ * snapshot of it doesn't)
+ */
+public interface ProductSnapshot {
+    //returned by repositories that don't number their versions
+    long UNVERSIONED = -1;
+
+    /**
+     * grows with every write applied to the repository (it's the number of writes for most of them),
+     * two snapshots of the same repository with the same version hold the same catalog
+     */
+    long version();
+
+    //snapshot over a copy of the given products, for repositories whose storage changes in place.
+    //the caller has to keep writers out while it collects the products
+    static ProductSnapshot copyOf(Collection<Product> products, long version) {
+        return new CopiedProductSnapshot(products, version);
+    }
+
+    int size();
+
+    Stream<Product> streamAll();
+
+    /**
+     * @throws BadArgumentsException
+     */
+    default Optional<Product> findProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        return streamAll().filter(product -> product.getProductId().equals(productId)).findFirst();
+    }
+
+    default List<Product> findAll() {
+        return streamAll().collect(Collectors.toList());
+    }
+
+    default List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        double min = discountMin.orElse(Double.MIN_VALUE);
+        double max = discountMax.orElse(Double.MAX_VALUE);
+        return streamAll().filter(product -> product.getDiscount().isPresent()
+                && product.getDiscount().get() > min && product.getDiscount().get() <= max)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @throws BadArgumentsException
+     */
+    default List<Product> findDiscountedProducts(Category category, Optional<Double> discountMin,
+                                                 Optional<Double> discountMax) {
+        ValidationUtils.checkValidCategory(category);
+        return findDiscountedProducts(discountMin, discountMax).stream()
+                .filter(product -> category == product.getCategory()).collect(Collectors.toList());
+    }
+
+    /**
+     * @throws BadArgumentsException
+     */
+    default List<Product> findByCategory(Category category) {
+        ValidationUtils.checkValidCategory(category);
+        return streamAll().filter(product -> category == product.getCategory()).collect(Collectors.toList());
+    }
+
+    default List<Product> findByPriceRange(Optional<Double> priceMin, Optional<Double> priceMax) {
+        double min = priceMin.orElse(-Double.MAX_VALUE);
+        double max = priceMax.orElse(Double.MAX_VALUE);
+        return streamAll().filter(product -> product.getPrice() >= min && product.getPrice() <= max)
+                .sorted(Comparator.comparing(Product::getPrice)).collect(Collectors.toList());
+    }
+
+    /**
+     * @throws BadArgumentsException
+     */
+    default List<Product> findByPriceRange(Category category, Optional<Double> priceMin, Optional<Double> priceMax) {
+        ValidationUtils.checkValidCategory(category);
+        return findByPriceRange(priceMin, priceMax).stream()
+                .filter(product -> category == product.getCategory()).collect(Collectors.toList());
+    }
+
+    /**
+     * @throws BadArgumentsException
+     */
+    default List<Product> findCheapestProducts(int limit) {
+        return findCheapestProducts(Optional.empty(), Optional.empty(), limit);
+    }
+
+    /**
+     * @throws BadArgumentsException
+     */
+    default List<Product> findCheapestProducts(Category category, int limit) {
+        ValidationUtils.checkValidCategory(category);
+        ValidationUtils.checkValidLimit(limit);
+        return streamAll().filter(product -> category == product.getCategory())
+                .sorted(Comparator.comparingDouble(Product::getEffectivePrice)).limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @throws BadArgumentsException
+     */
+    default List<Product> findCheapestProducts(Optional<Double> effectivePriceMin, Optional<Double> effectivePriceMax,
+                                               int limit) {
+        ValidationUtils.checkValidLimit(limit);
+        double min = effectivePriceMin.orElse(-Double.MAX_VALUE);
+        double max = effectivePriceMax.orElse(Double.MAX_VALUE);
+        return streamAll().filter(product -> product.getEffectivePrice() >= min && product.getEffectivePrice() <= max)
+                .sorted(Comparator.comparingDouble(Product::getEffectivePrice)).limit(limit)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,284 @@
+package org.example.repository;
+
+import org.example.collection.PersistentHashMap;
+import org.example.constants.ErrorMessage;
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.utils.ValidationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+//repository that keeps the catalog in a persistent (structurally shared) hash trie.
+//a write creates a new version of the trie by copying only the path to the changed id, O(log n) allocation,
+//and swaps it in. readers just read the current version, it's immutable so they always see a consistent catalog.
+//products are returned in the trie's order (by id hash), not in insertion order.
+//
+//concurrency model: reads are wait-free, a single volatile read of the current version.
+//writes are lock-free, each one checks its precondition (duplicate / missing id) against the version it read and
+//publishes the new version with a CAS on that same version. if another writer got in between, the CAS fails and
+//the write is retried against the newer version, so the check and the insert are atomic and no write gets lost.
+//every published version is numbered, snapshot() hands out a version as it is (MVCC without copying), the trie
+//nodes only that version refers to are garbage collected once no snapshot holds it any more.
+public class SnapshotProductRepositoryImpl implements ProductRepository {
+    private final AtomicReference<Version> versions = new AtomicReference<>(new Version(PersistentHashMap.empty(), 0));
+
+    @Override
+    public Product addProduct(Product product) {
+        ValidationUtils.checkValidProduct(product);
+        Version read;
+        PersistentHashMap<Integer, Product> current;
+        do {
+            read = versions.get();
+            current = read.products;
+            if (current.containsKey(product.getProductId())) throw new DuplicateIdException(String.format
+                    (ErrorMessage.DUPLICATE_ID, product.getProductId()));
+        } while (!publish(read, current.put(product.getProductId(), product)));
+        return product;
+    }
+
+    @Override
+    public Product updateProduct(Product product, Integer productId) {
+        ValidationUtils.checkValidProduct(product);
+        ValidationUtils.checkValidProductId(productId);
+        Version read;
+        PersistentHashMap<Integer, Product> current;
+        do {
+            read = versions.get();
+            current = read.products;
+            if (!current.containsKey(productId)) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+            ValidationUtils.checkMatchingProductId(product, productId);
+        } while (!publish(read, current.put(productId, product)));
+        return product;
+    }
+
+    @Override
+    public List<Product> deleteProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        Version read;
+        PersistentHashMap<Integer, Product> current;
+        PersistentHashMap<Integer, Product> remaining;
+        do {
+            read = versions.get();
+            current = read.products;
+            remaining = current.remove(productId);
+            if (remaining == current) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+        } while (!publish(read, remaining));
+        return toList(remaining);
+    }
+
+    @Override
+    public Product removeProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        Version read;
+        PersistentHashMap<Integer, Product> current;
+        Product removed;
+        do {
+            read = versions.get();
+            current = read.products;
+            removed = current.get(productId);
+            if (removed == null) throw new NoRecordFoundException(String.format
+                    (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+        } while (!publish(read, current.remove(productId)));
+        return removed;
+    }
+
+    //a batch is checked against and applied to the version it read, and published with a single CAS,
+    //so readers see either none or all of it
+    @Override
+    public List<Product> addAllProducts(List<Product> batch) {
+        ValidationUtils.checkValidProducts(batch);
+        Version read;
+        PersistentHashMap<Integer, Product> current;
+        PersistentHashMap<Integer, Product> next;
+        do {
+            read = versions.get();
+            current = read.products;
+            next = current;
+            for (Product product : batch) {
+                if (current.containsKey(product.getProductId())) throw new DuplicateIdException(String.format
+                        (ErrorMessage.DUPLICATE_ID, product.getProductId()));
+                next = next.put(product.getProductId(), product);
+            }
+        } while (!publish(read, next));
+        return List.copyOf(batch);
+    }
+
+    @Override
+    public List<Product> updateAllProducts(List<Product> batch) {
+        ValidationUtils.checkValidProducts(batch);
+        Version read;
+        PersistentHashMap<Integer, Product> current;
+        PersistentHashMap<Integer, Product> next;
+        do {
+            read = versions.get();
+            current = read.products;
+            next = current;
+            for (Product product : batch) {
+                if (!current.containsKey(product.getProductId())) throw new NoRecordFoundException(String.format
+                        (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, product.getProductId()));
+                next = next.put(product.getProductId(), product);
+            }
+        } while (!publish(read, next));
+        return List.copyOf(batch);
+    }
+
+    @Override
+    public void deleteProductsByIds(List<Integer> productIds) {
+        ValidationUtils.checkValidProductIds(productIds);
+        Version read;
+        PersistentHashMap<Integer, Product> current;
+        PersistentHashMap<Integer, Product> next;
+        do {
+            read = versions.get();
+            current = read.products;
+            next = current;
+            for (Integer productId : productIds) {
+                if (!current.containsKey(productId)) throw new NoRecordFoundException(String.format
+                        (ErrorMessage.NO_RECORD_FOUND_EXCEPTION, productId));
+                next = next.remove(productId);
+            }
+        } while (!publish(read, next));
+    }
+
+    @Override
+    public Optional<Product> findProductById(Integer productId) {
+        ValidationUtils.checkValidProductId(productId);
+        return Optional.ofNullable(versions.get().products.get(productId));
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        double min = discountMin.orElse(Double.MIN_VALUE);
+        double max = discountMax.orElse(Double.MAX_VALUE);
+        return versions.get().products.values().filter(existingProduct -> existingProduct.getDiscount().isPresent())
+                .filter(existingProduct -> {
+                    double discount = existingProduct.getDiscount().get();
+                    return Double.compare(discount, min) > 0 && discount <= max;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        ValidationUtils.checkValidCategory(category);
+        return versions.get().products.values().filter(existingProduct -> category == existingProduct.getCategory())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return toList(versions.get().products);
+    }
+
+    //streams the version that was current when it was called, writes that happen while it's consumed aren't seen
+    @Override
+    public Stream<Product> streamAll() {
+        return versions.get().products.values();
+    }
+
+    @Override
+    public void deleteAllProducts() {
+        Version read;
+        do {
+            read = versions.get();
+        } while (!publish(read, PersistentHashMap.empty()));
+    }
+
+    //the current version as it is, nothing is copied and later writes don't touch it
+    @Override
+    public ProductSnapshot snapshot() {
+        Version current = versions.get();
+        return new TrieProductSnapshot(current.products, current.number);
+    }
+
+    //applies the writes in order on top of one version and publishes all of them with a single CAS, a write that
+    //fails leaves the catalog as it is for the writes after it. the version number grows by the writes that
+    //succeeded, like they were published one by one. used by AsyncProductRepository to group commit
+    void applyAll(List<? extends PendingWrite> writes) {
+        Version read;
+        PersistentHashMap<Integer, Product> next;
+        int succeeded;
+        do {
+            read = versions.get();
+            next = read.products;
+            succeeded = 0;
+            for (PendingWrite write : writes) {
+                next = write.apply(next);
+                if (!write.failed()) succeeded++;
+            }
+            //nothing to publish when every write failed
+            if (succeeded == 0) return;
+        } while (!publish(read, next, succeeded));
+    }
+
+    //a new version is only published on top of the version the write was checked against
+    private boolean publish(Version read, PersistentHashMap<Integer, Product> next) {
+        return publish(read, next, 1);
+    }
+
+    private boolean publish(Version read, PersistentHashMap<Integer, Product> next, int writes) {
+        return versions.compareAndSet(read, new Version(next, read.number + writes));
+    }
+
+    private static List<Product> toList(PersistentHashMap<Integer, Product> snapshot) {
+        List<Product> productList = new ArrayList<>(snapshot.size());
+        snapshot.forEachValue(productList::add);
+        return productList;
+    }
+
+    //the trie of one version and its number, the number counts the writes published so far
+    private static final class Version {
+        private final PersistentHashMap<Integer, Product> products;
+        private final long number;
+
+        Version(PersistentHashMap<Integer, Product> products, long number) {
+            this.products = products;
+            this.number = number;
+        }
+    }
+
+    private static final class TrieProductSnapshot implements ProductSnapshot {
+        private final PersistentHashMap<Integer, Product> products;
+        private final long version;
+
+        TrieProductSnapshot(PersistentHashMap<Integer, Product> products, long version) {
+            this.products = products;
+            this.version = version;
+        }
+
+        @Override
+        public long version() {
+            return version;
+        }
+
+        @Override
+        public int size() {
+            return products.size();
+        }
+
+        @Override
+        public Stream<Product> streamAll() {
+            return products.values();
+        }
+
+        @Override
+        public Optional<Product> findProductById(Integer productId) {
+            ValidationUtils.checkValidProductId(productId);
+            return Optional.ofNullable(products.get(productId));
+        }
+
+        @Override
+        public List<Product> findAll() {
+            return toList(products);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org.example.search;
+
+import org.example.collection.SortedIntArraySet;
+import org.example.entity.Product;
+import org.example.exceptions.BadArgumentsException;
+import org.example.utils.ValidationUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+//inverted index over Product.name: lower case tokens (split on everything that isn't a letter or a digit) in a
+//sorted dictionary, every token points to the sorted ids of the products containing it.
+//prefix search walks the dictionary from the prefix on, so it only touches the tokens that match and stops as soon as
+//it has enough ids, it doesn't depend on the catalog size.
+//with several terms the ids come from the shortest posting list of the complete terms, a candidate that has all of
+//them is checked against the prefix through its own name, a short prefix never collects the posting lists of every
+//token it matches. the names are the products' own strings, the index doesn't copy them.
+//removing a product needs the product (its name) as it was indexed.
+public class NameIndex {
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final NavigableMap<String, SortedIntArraySet> dictionary = new TreeMap<>();
+    private final Map<Integer, String> names = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(Product product) {
+        lock.writeLock().lock();
+        try {
+            for (String token : tokenize(product.getName())) {
+                dictionary.computeIfAbsent(token, key -> new SortedIntArraySet()).add(product.getProductId());
+            }
+            names.put(product.getProductId(), product.getName());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //groups the ids per token first, so every posting list is sorted once instead of once per product
+    public void addAll(Collection<Product> products) {
+        Map<String, IdBuffer> batch = new HashMap<>();
+        for (Product product : products) {
+            for (String token : tokenize(product.getName())) {
+                batch.computeIfAbsent(token, key -> new IdBuffer()).add(product.getProductId());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            batch.forEach((token, ids) -> dictionary.computeIfAbsent(token, key -> new SortedIntArraySet())
+                    .addAll(ids.ids, ids.count));
+            products.forEach(product -> names.put(product.getProductId(), product.getName()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Product product) {
+        lock.writeLock().lock();
+        try {
+            for (String token : tokenize(product.getName())) {
+                SortedIntArraySet ids = dictionary.get(token);
+                if (ids == null) continue;
+                ids.remove(product.getProductId());
+                if (ids.isEmpty()) dictionary.remove(token);
+            }
+            names.remove(product.getProductId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            dictionary.clear();
+            names.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int tokenCount() {
+        lock.readLock().lock();
+        try {
+            return dictionary.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * case insensitive search for products whose name contains every term of the query. the last term is a prefix
+     * (autocomplete), unless the query ends with a separator, e.g. "red app" matches "Red Apple Juice".
+     * a single prefix ranks by the matching token, so the exact word comes before longer words, then by id.
+     * several terms rank by id
+     * @return up to limit product ids
+     * @throws BadArgumentsException
+     */
+    public List<Integer> search(String query, int limit) {
+        if (query == null) throw new BadArgumentsException("Query is null");
+        ValidationUtils.checkValidLimit(limit);
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty() || limit == 0) return new ArrayList<>();
+        String prefix = SEPARATOR.matcher(query.substring(query.length() - 1)).matches()
+                ? null : terms.remove(terms.size() - 1);
+        lock.readLock().lock();
+        try {
+            return terms.isEmpty() ? searchPrefix(prefix, limit) : searchTerms(terms, prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Integer> searchPrefix(String prefix, int limit) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (Map.Entry<String, SortedIntArraySet> entry : dictionary.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) break;
+            SortedIntArraySet postings = entry.getValue();
+            for (int i = 0; i < postings.size(); i++) {
+                ids.add(postings.get(i));
+                if (ids.size() == limit) return new ArrayList<>(ids);
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    //walks the shortest posting list and checks every id against the other terms, then against the prefix
+    private List<Integer> searchTerms(List<String> terms, String prefix, int limit) {
+        List<SortedIntArraySet> postings = new ArrayList<>();
+        for (String term : terms) {
+            SortedIntArraySet ids = dictionary.get(term);
+            if (ids == null) return new ArrayList<>();
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(SortedIntArraySet::size));
+        SortedIntArraySet shortest = postings.get(0);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < shortest.size() && ids.size() < limit; i++) {
+            int id = shortest.get(i);
+            if (containedInAll(postings, id) && (prefix == null || hasTokenStartingWith(names.get(id), prefix))) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static boolean hasTokenStartingWith(String name, String prefix) {
+        for (String token : tokenize(name)) {
+            if (token.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    private static boolean containedInAll(List<SortedIntArraySet> postings, int id) {
+        for (int i = 1; i < postings.size(); i++) {
+            if (!postings.get(i).contains(id)) return false;
+        }
+        return true;
+    }
+
+    private static final class IdBuffer {
+        private int[] ids = new int[4];
+        private int count;
+
+        void add(int id) {
+            if (count == ids.length) ids = Arrays.copyOf(ids, count * 2);
+            ids[count++] = id;
+        }
+    }
+
+    //distinct lower case tokens in the order they appear
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+}
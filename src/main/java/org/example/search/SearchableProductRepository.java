@@ -0,0 +1,210 @@
+package org.example.search;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+//decorator that keeps a NameIndex in sync with the delegate and adds name search.
+//writes are applied to the delegate first, the index is only touched when that succeeded. writes are serialized
+//by one lock so the index sees them in the delegate's order, an update or delete looks up the old product (its old
+//name) under the same lock. writes that bypass the decorator aren't indexed.
+//search returns ids from the index, search(query, limit) loads the products from the delegate.
+public class SearchableProductRepository implements ProductRepository {
+    private final ProductRepository delegate;
+    private final NameIndex nameIndex = new NameIndex();
+    private final Object writeLock = new Object();
+
+    //indexes whatever the delegate already holds
+    public SearchableProductRepository(ProductRepository delegate) {
+        this.delegate = delegate;
+        nameIndex.addAll(delegate.findAll());
+    }
+
+    /**
+     * @see NameIndex#search(String, int)
+     */
+    public List<Integer> searchIds(String query, int limit) {
+        return nameIndex.search(query, limit);
+    }
+
+    public List<Product> search(String query, int limit) {
+        List<Product> products = new ArrayList<>();
+        //a product deleted after the index lookup is skipped
+        for (Integer productId : nameIndex.search(query, limit)) {
+            delegate.findProductById(productId).ifPresent(products::add);
+        }
+        return products;
+    }
+
+    @Override
+    public Product addProduct(Product product) {
+        synchronized (writeLock) {
+            Product added = delegate.addProduct(product);
+            nameIndex.add(added);
+            return added;
+        }
+    }
+
+    @Override
+    public Product updateProduct(Product product, Integer productId) {
+        synchronized (writeLock) {
+            //keyed like the delegate stores it, every repository rejects a productId that doesn't match the product
+            Optional<Product> previous = product == null || product.getProductId() == null ? Optional.empty()
+                    : delegate.findProductById(product.getProductId());
+            Product updated = delegate.updateProduct(product, productId);
+            previous.ifPresent(nameIndex::remove);
+            nameIndex.add(updated);
+            return updated;
+        }
+    }
+
+    @Override
+    public List<Product> deleteProductById(Integer productId) {
+        synchronized (writeLock) {
+            Optional<Product> previous = productId == null ? Optional.empty() : delegate.findProductById(productId);
+            List<Product> remaining = delegate.deleteProductById(productId);
+            previous.ifPresent(nameIndex::remove);
+            return remaining;
+        }
+    }
+
+    @Override
+    public Product removeProductById(Integer productId) {
+        synchronized (writeLock) {
+            Product removed = delegate.removeProductById(productId);
+            nameIndex.remove(removed);
+            return removed;
+        }
+    }
+
+    @Override
+    public void deleteAllProducts() {
+        synchronized (writeLock) {
+            delegate.deleteAllProducts();
+            nameIndex.clear();
+        }
+    }
+
+    @Override
+    public List<Product> addAllProducts(List<Product> products) {
+        synchronized (writeLock) {
+            List<Product> added = delegate.addAllProducts(products);
+            nameIndex.addAll(added);
+            return added;
+        }
+    }
+
+    @Override
+    public List<Product> updateAllProducts(List<Product> products) {
+        synchronized (writeLock) {
+            List<Product> previous = previousProducts(products == null ? List.of() : products.stream()
+                    .map(product -> product == null ? null : product.getProductId()).collect(Collectors.toList()));
+            List<Product> updated = delegate.updateAllProducts(products);
+            previous.forEach(nameIndex::remove);
+            nameIndex.addAll(updated);
+            return updated;
+        }
+    }
+
+    @Override
+    public void deleteProductsByIds(List<Integer> productIds) {
+        synchronized (writeLock) {
+            List<Product> previous = previousProducts(productIds == null ? List.of() : productIds);
+            delegate.deleteProductsByIds(productIds);
+            previous.forEach(nameIndex::remove);
+        }
+    }
+
+    @Override
+    public Optional<Product> findProductById(Integer productId) {
+        return delegate.findProductById(productId);
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        return delegate.findDiscountedProducts(discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findDiscountedProducts(Category category, Optional<Double> discountMin,
+                                                Optional<Double> discountMax) {
+        return delegate.findDiscountedProducts(category, discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        return delegate.findByCategory(category);
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Product> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Product> streamDiscountedProducts(Optional<Double> discountMin, Optional<Double> discountMax) {
+        return delegate.streamDiscountedProducts(discountMin, discountMax);
+    }
+
+    @Override
+    public List<Product> findAll(int offset, int limit) {
+        return delegate.findAll(offset, limit);
+    }
+
+    @Override
+    public List<Product> findAllAfter(Optional<Integer> afterId, int limit) {
+        return delegate.findAllAfter(afterId, limit);
+    }
+
+    @Override
+    public List<Product> findByPriceRange(Optional<Double> priceMin, Optional<Double> priceMax) {
+        return delegate.findByPriceRange(priceMin, priceMax);
+    }
+
+    @Override
+    public List<Product> findByPriceRange(Category category, Optional<Double> priceMin, Optional<Double> priceMax) {
+        return delegate.findByPriceRange(category, priceMin, priceMax);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(int limit) {
+        return delegate.findCheapestProducts(limit);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Category category, int limit) {
+        return delegate.findCheapestProducts(category, limit);
+    }
+
+    @Override
+    public List<Product> findCheapestProducts(Optional<Double> effectivePriceMin, Optional<Double> effectivePriceMax,
+                                              int limit) {
+        return delegate.findCheapestProducts(effectivePriceMin, effectivePriceMax, limit);
+    }
+
+    @Override
+    public ProductSnapshot snapshot() {
+        return delegate.snapshot();
+    }
+
+    //the products as they are before a batch touches them, invalid ids are left to the delegate to reject
+    private List<Product> previousProducts(List<Integer> productIds) {
+        List<Product> previous = new ArrayList<>();
+        for (Integer productId : productIds) {
+            if (productId != null) delegate.findProductById(productId).ifPresent(previous::add);
+        }
+        return previous;
+    }
+}
@@ -1,7 +1,14 @@
 package org.example.utils;
 
 import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.constants.ErrorMessage;
 import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.DuplicateIdException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public interface ValidationUtils {
       static void checkValidProduct(Product product) {
@@ -16,4 +23,49 @@ public interface ValidationUtils {
             throw new BadArgumentsException("ProductId is null");
         }
     }
+     static void checkMatchingProductId(Product product, Integer productId) {
+        //an update can't re-key a product, otherwise the index would hold the record under a stale id
+        if (!product.getProductId().equals(productId)) {
+            throw new BadArgumentsException("ProductId doesn't match the product");
+        }
+    }
+     static void checkValidCategory(Category category) {
+        if (category == null) {
+            throw new BadArgumentsException("Category is null");
+        }
+    }
+     static void checkValidProducts(List<Product> products) {
+        //the whole batch is checked up front, a batch is applied all or nothing
+        if (products == null) {
+            throw new BadArgumentsException("Products are null");
+        }
+        Set<Integer> batchIds = new HashSet<>();
+        for (Product product : products) {
+            checkValidProduct(product);
+            if (!batchIds.add(product.getProductId())) throw new DuplicateIdException(String.format
+                    (ErrorMessage.DUPLICATE_ID_IN_BATCH, product.getProductId()));
+        }
+    }
+     static void checkValidProductIds(List<Integer> productIds) {
+        if (productIds == null) {
+            throw new BadArgumentsException("ProductIds are null");
+        }
+        Set<Integer> batchIds = new HashSet<>();
+        for (Integer productId : productIds) {
+            checkValidProductId(productId);
+            if (!batchIds.add(productId)) throw new DuplicateIdException(String.format
+                    (ErrorMessage.DUPLICATE_ID_IN_BATCH, productId));
+        }
+    }
+     static void checkValidPage(int offset, int limit) {
+        if (offset < 0) {
+            throw new BadArgumentsException("Offset is negative");
+        }
+        checkValidLimit(limit);
+    }
+     static void checkValidLimit(int limit) {
+        if (limit < 0) {
+            throw new BadArgumentsException("Limit is negative");
+        }
+    }
 }
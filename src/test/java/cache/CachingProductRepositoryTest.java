@@ -0,0 +1,136 @@
+package cache;
+
+import org.example.cache.CacheStats;
+import org.example.cache.CachingProductRepository;
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.BadArgumentsException;
+import org.example.repository.ProductRepositoryImpl;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingProductRepositoryTest {
+    @Test
+    public void verifyRepeatedLookupShouldBeServedFromTheCache() {
+        CountingProductRepository delegate = new CountingProductRepository();
+        delegate.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+        CachingProductRepository productRepository = new CachingProductRepository(delegate, 100);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(productRepository.findProductById(1).get().getName(), "Product 1");
+        }
+        assertEquals(delegate.lookups, 1);
+        CacheStats stats = productRepository.getStats();
+        assertEquals(stats.getHitCount(), 4);
+        assertEquals(stats.getMissCount(), 1);
+        assertEquals(stats.getHitRate(), 0.8);
+    }
+
+    @Test
+    public void verifyMissingIdShouldBeCachedNegatively() {
+        CountingProductRepository delegate = new CountingProductRepository();
+        CachingProductRepository productRepository = new CachingProductRepository(delegate, 100);
+        assertEquals(productRepository.findProductById(7), Optional.empty());
+        assertEquals(productRepository.findProductById(7), Optional.empty());
+        assertEquals(delegate.lookups, 1);
+        assertEquals(productRepository.getStats().getNegativeHitCount(), 1);
+    }
+
+    @Test
+    public void verifyAddShouldReplaceTheNegativeEntry() {
+        CachingProductRepository productRepository = new CachingProductRepository(new ProductRepositoryImpl(), 100);
+        assertEquals(productRepository.findProductById(1), Optional.empty());
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+        assertTrue(productRepository.findProductById(1).isPresent());
+    }
+
+    @Test
+    public void verifyWritesShouldInvalidateTheCachedProduct() {
+        CachingProductRepository productRepository = new CachingProductRepository(new ProductRepositoryImpl(), 100);
+        productRepository.addAllProducts(List.of(new Product(1, "Product 1", Category.PRODUCT_1, 100.0),
+                new Product(2, "Product 2", Category.PRODUCT_2, 200.0)));
+        productRepository.findProductById(1);
+        productRepository.findProductById(2);
+        productRepository.updateProduct(new Product(1, "Product 1 Updated", Category.PRODUCT_1, 150.0), 1);
+        assertEquals(productRepository.findProductById(1).get().getName(), "Product 1 Updated");
+        productRepository.deleteProductById(2);
+        assertEquals(productRepository.findProductById(2), Optional.empty());
+        productRepository.findProductById(1);
+        productRepository.removeProductById(1);
+        assertEquals(productRepository.findProductById(1), Optional.empty());
+        productRepository.deleteAllProducts();
+        assertEquals(productRepository.findProductById(1), Optional.empty());
+    }
+
+    @Test
+    public void verifyLeastRecentlyUsedShouldBeEvictedAboveTheMaxWeight() {
+        CountingProductRepository delegate = new CountingProductRepository();
+        for (int i = 1; i <= 4; i++) {
+            delegate.addProduct(new Product(i, "Product " + i, Category.PRODUCT_1, 100.0));
+        }
+        CachingProductRepository productRepository = new CachingProductRepository(delegate, 3);
+        productRepository.findProductById(1);
+        productRepository.findProductById(2);
+        productRepository.findProductById(3);
+        productRepository.findProductById(1);
+        productRepository.findProductById(4);
+        assertEquals(productRepository.size(), 3);
+        assertEquals(productRepository.getStats().getEvictionCount(), 1);
+        delegate.lookups = 0;
+        productRepository.findProductById(1);
+        assertEquals(delegate.lookups, 0);
+        productRepository.findProductById(2);
+        assertEquals(delegate.lookups, 1);
+    }
+
+    @Test
+    public void verifyWeigherShouldBoundTheCache() {
+        CountingProductRepository delegate = new CountingProductRepository();
+        delegate.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+        delegate.addProduct(new Product(2, "Product 2", Category.PRODUCT_1, 100.0));
+        CachingProductRepository productRepository = new CachingProductRepository(delegate, 15,
+                product -> 10, Optional.empty(), System::nanoTime);
+        productRepository.findProductById(1);
+        productRepository.findProductById(2);
+        assertEquals(productRepository.size(), 1);
+        assertEquals(productRepository.weight(), 10);
+    }
+
+    @Test
+    public void verifyExpiredEntryShouldBeReloaded() {
+        CountingProductRepository delegate = new CountingProductRepository();
+        delegate.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+        AtomicLong ticker = new AtomicLong();
+        CachingProductRepository productRepository = new CachingProductRepository(delegate, 100,
+                product -> 1, Optional.of(Duration.ofSeconds(10)), ticker::get);
+        productRepository.findProductById(1);
+        ticker.addAndGet(Duration.ofSeconds(9).toNanos());
+        productRepository.findProductById(1);
+        assertEquals(delegate.lookups, 1);
+        ticker.addAndGet(Duration.ofSeconds(1).toNanos());
+        productRepository.findProductById(1);
+        assertEquals(delegate.lookups, 2);
+    }
+
+    @Test
+    public void verifyInvalidConfigurationShouldThrowBadArguments() {
+        assertThrows(BadArgumentsException.class, () -> new CachingProductRepository(new ProductRepositoryImpl(), 0));
+        assertThrows(BadArgumentsException.class, () -> new CachingProductRepository(new ProductRepositoryImpl(),
+                10, product -> 1, Optional.of(Duration.ZERO), System::nanoTime));
+    }
+
+    private static class CountingProductRepository extends ProductRepositoryImpl {
+        private int lookups;
+
+        @Override
+        public Optional<Product> findProductById(Integer productId) {
+            lookups++;
+            return super.findProductById(productId);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package cdc;
+
+import org.example.cdc.ChangeDataCaptureRepository;
+import org.example.cdc.ChangeEvent;
+import org.example.cdc.ChangeSubscription;
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.enums.ChangeType;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.repository.IndexedProductRepositoryImpl;
+import org.example.repository.ProductRepositoryImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeDataCaptureRepositoryTest {
+
+    @Test
+    public void verifyWritesShouldPublishEventsInOrder() {
+        ChangeDataCaptureRepository productRepository =
+                new ChangeDataCaptureRepository(new IndexedProductRepositoryImpl());
+        ChangeSubscription subscription = productRepository.subscribe();
+        Product beans = new Product(1, "Espresso Beans", Category.PRODUCT_1, 12.0);
+        Product machine = new Product(2, "Espresso Machine", Category.PRODUCT_2, 300.0);
+        Product pot = new Product(3, "Tea Pot", Category.PRODUCT_2, 30.0);
+        Product filter = new Product(1, "Filter Coffee", Category.PRODUCT_1, 10.0);
+        productRepository.addProduct(beans);
+        productRepository.addAllProducts(List.of(machine, pot));
+        productRepository.updateProduct(filter, 1);
+        productRepository.deleteProductById(2);
+        productRepository.removeProductById(3);
+        productRepository.deleteProductsByIds(List.of(1));
+        productRepository.deleteAllProducts();
+
+        List<ChangeEvent> events = subscription.poll(100);
+        assertEquals(events.stream().map(ChangeEvent::getSequence).collect(Collectors.toList()),
+                List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L));
+        assertEquals(events.stream().map(ChangeEvent::getType).collect(Collectors.toList()),
+                List.of(ChangeType.ADD, ChangeType.ADD, ChangeType.ADD, ChangeType.UPDATE, ChangeType.DELETE,
+                        ChangeType.DELETE, ChangeType.DELETE, ChangeType.CLEAR));
+        assertEquals(events.stream().map(ChangeEvent::getProductId).collect(Collectors.toList()),
+                List.of(Optional.of(1), Optional.of(2), Optional.of(3), Optional.of(1), Optional.of(2),
+                        Optional.of(3), Optional.of(1), Optional.empty()));
+        assertEquals(events.get(0).getProduct(), Optional.of(beans));
+        assertEquals(events.get(3).getProduct(), Optional.of(filter));
+        assertEquals(events.get(4).getProduct(), Optional.empty());
+        assertEquals(productRepository.publishedSequence(), 8L);
+    }
+
+    @Test
+    public void verifyMismatchingUpdateShouldNotPublishAnEvent() {
+        ChangeDataCaptureRepository productRepository = new ChangeDataCaptureRepository(new ProductRepositoryImpl());
+        productRepository.addProduct(new Product(1, "Espresso Beans", Category.PRODUCT_1, 12.0));
+        ChangeSubscription subscription = productRepository.subscribe();
+        assertThrows(BadArgumentsException.class, () ->
+                productRepository.updateProduct(new Product(5, "Tea", Category.PRODUCT_1, 1.0), 1));
+        assertEquals(subscription.poll(10), List.of());
+        assertEquals(productRepository.publishedSequence(), 1L);
+    }
+
+    @Test
+    public void verifyFailedWriteShouldNotPublishAnEvent() {
+        ChangeDataCaptureRepository productRepository =
+                new ChangeDataCaptureRepository(new IndexedProductRepositoryImpl());
+        ChangeSubscription subscription = productRepository.subscribe();
+        productRepository.addProduct(new Product(1, "Espresso Beans", Category.PRODUCT_1, 12.0));
+        assertThrows(DuplicateIdException.class, () ->
+                productRepository.addProduct(new Product(1, "Tea", Category.PRODUCT_1, 1.0)));
+        assertThrows(NoRecordFoundException.class, () -> productRepository.deleteProductById(2));
+        assertThrows(NoRecordFoundException.class, () -> productRepository.updateAllProducts(List.of(
+                new Product(1, "Tea", Category.PRODUCT_1, 1.0), new Product(2, "Cups", Category.PRODUCT_1, 2.0))));
+        assertEquals(subscription.poll(100).size(), 1);
+        assertEquals(productRepository.findAll().size(), 1);
+    }
+}
@@ -0,0 +1,87 @@
+package cdc;
+
+import org.example.cdc.ChangeEvent;
+import org.example.cdc.ChangeEventRingBuffer;
+import org.example.cdc.ChangeSubscription;
+import org.example.enums.ChangeType;
+import org.example.exceptions.BadArgumentsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeEventRingBufferTest {
+
+    @Test
+    public void verifyCapacityShouldBeAPowerOfTwo() {
+        assertThrows(BadArgumentsException.class, () -> new ChangeEventRingBuffer(0));
+        assertThrows(BadArgumentsException.class, () -> new ChangeEventRingBuffer(12));
+        assertEquals(new ChangeEventRingBuffer(16).capacity(), 16);
+    }
+
+    @Test
+    public void verifyPollShouldReturnBatchesInOrder() {
+        ChangeEventRingBuffer ringBuffer = new ChangeEventRingBuffer(8);
+        ringBuffer.publish(ChangeType.DELETE, 1, null);
+        ChangeSubscription subscription = ringBuffer.subscribe();
+        for (int productId = 2; productId <= 6; productId++) {
+            ringBuffer.publish(ChangeType.DELETE, productId, null);
+        }
+        assertEquals(subscription.lag(), 5L);
+        assertEquals(sequences(subscription.poll(3)), List.of(2L, 3L, 4L));
+        assertEquals(sequences(subscription.poll(10)), List.of(5L, 6L));
+        assertEquals(subscription.poll(10), List.of());
+        assertEquals(subscription.lag(), 0L);
+        assertThrows(BadArgumentsException.class, () -> subscription.poll(0));
+    }
+
+    @Test
+    public void verifyPollWithTimeoutShouldReturnEmptyBatchWhenNothingIsPublished() throws InterruptedException {
+        ChangeSubscription subscription = new ChangeEventRingBuffer(8).subscribe();
+        assertEquals(subscription.poll(10, 1, TimeUnit.MILLISECONDS), List.of());
+    }
+
+    @Test
+    public void verifyFullRingShouldHoldTheProducerBackUntilTheSubscriberCatchesUp() throws Exception {
+        ChangeEventRingBuffer ringBuffer = new ChangeEventRingBuffer(4);
+        ChangeSubscription subscription = ringBuffer.subscribe();
+        AtomicLong maxLag = new AtomicLong();
+        Thread producer = new Thread(() -> {
+            for (int productId = 1; productId <= 1000; productId++) {
+                ringBuffer.publish(ChangeType.DELETE, productId, null);
+                maxLag.accumulateAndGet(subscription.lag(), Math::max);
+            }
+        });
+        producer.start();
+        List<ChangeEvent> events = new ArrayList<>();
+        while (events.size() < 1000) {
+            events.addAll(subscription.poll(3, 10, TimeUnit.MILLISECONDS));
+        }
+        producer.join();
+        //the subscriber is never more than a ring behind
+        assertTrue(maxLag.get() <= 4);
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(events.get(i).getSequence(), i + 1L);
+            assertEquals(events.get(i).getProductId().get(), i + 1);
+        }
+    }
+
+    @Test
+    public void verifyClosedSubscriptionShouldNotHoldTheProducerBack() {
+        ChangeEventRingBuffer ringBuffer = new ChangeEventRingBuffer(4);
+        ringBuffer.subscribe().close();
+        for (int productId = 1; productId <= 100; productId++) {
+            ringBuffer.publish(ChangeType.DELETE, productId, null);
+        }
+        assertEquals(ringBuffer.publishedSequence(), 100L);
+    }
+
+    private static List<Long> sequences(List<ChangeEvent> events) {
+        return events.stream().map(ChangeEvent::getSequence).collect(Collectors.toList());
+    }
+}
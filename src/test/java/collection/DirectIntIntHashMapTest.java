@@ -0,0 +1,44 @@
+package collection;
+
+import org.example.collection.DirectIntIntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DirectIntIntHashMapTest {
+
+    @Test
+    public void verifyNegativeValueShouldThrowException() {
+        DirectIntIntHashMap map = new DirectIntIntHashMap(4);
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, -1));
+    }
+
+    @Test
+    public void verifyRandomOperationsShouldMatchHashMap() {
+        Random random = new Random(11);
+        Map<Integer, Integer> expected = new HashMap<>();
+        DirectIntIntHashMap actual = new DirectIntIntHashMap(0);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(10_000) - 5_000;
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(actual.remove(key), removed == null ? DirectIntIntHashMap.NO_VALUE : removed);
+            } else {
+                Integer previous = expected.put(key, i);
+                assertEquals(actual.put(key, i), previous == null ? DirectIntIntHashMap.NO_VALUE : previous);
+            }
+        }
+        assertEquals(actual.size(), expected.size());
+        for (int key = -5_000; key < 5_000; key++) {
+            Integer value = expected.get(key);
+            assertEquals(actual.get(key), value == null ? DirectIntIntHashMap.NO_VALUE : value);
+        }
+        actual.clear();
+        assertEquals(actual.size(), 0);
+        assertFalse(actual.containsKey(expected.keySet().iterator().next()));
+    }
+}
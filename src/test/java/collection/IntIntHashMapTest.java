@@ -0,0 +1,58 @@
+package collection;
+
+import org.example.collection.IntIntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntIntHashMapTest {
+
+    @Test
+    public void verifyPutGetAndRemoveShouldSucceed() {
+        IntIntHashMap map = new IntIntHashMap(0);
+        assertEquals(map.put(0, 10), IntIntHashMap.NO_VALUE);
+        assertEquals(map.put(-5, 20), IntIntHashMap.NO_VALUE);
+        assertEquals(map.put(0, 11), 10);
+        assertEquals(map.get(0), 11);
+        assertEquals(map.get(-5), 20);
+        assertEquals(map.get(7), IntIntHashMap.NO_VALUE);
+        assertEquals(map.remove(0), 11);
+        assertFalse(map.containsKey(0));
+        assertEquals(map.size(), 1);
+    }
+
+    @Test
+    public void verifyNegativeValueShouldThrowException() {
+        IntIntHashMap map = new IntIntHashMap(4);
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, -1));
+    }
+
+    @Test
+    public void verifyRandomOperationsShouldMatchHashMap() {
+        Random random = new Random(7);
+        Map<Integer, Integer> expected = new HashMap<>();
+        IntIntHashMap actual = new IntIntHashMap(4);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(10_000) - 5_000;
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(actual.remove(key), removed == null ? IntIntHashMap.NO_VALUE : removed);
+            } else {
+                expected.put(key, i);
+                actual.put(key, i);
+            }
+        }
+        assertEquals(actual.size(), expected.size());
+        for (int key = -5_000; key < 5_000; key++) {
+            Integer value = expected.get(key);
+            assertEquals(actual.get(key), value == null ? IntIntHashMap.NO_VALUE : value);
+        }
+        actual.clear();
+        assertEquals(actual.size(), 0);
+        assertFalse(actual.containsKey(expected.keySet().iterator().next()));
+    }
+}
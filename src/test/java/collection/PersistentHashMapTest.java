@@ -0,0 +1,101 @@
+package collection;
+
+import org.example.collection.PersistentHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentHashMapTest {
+
+    @Test
+    public void verifyPutShouldNotChangeThePreviousVersion() {
+        PersistentHashMap<Integer, String> first = PersistentHashMap.<Integer, String>empty().put(1, "one");
+        PersistentHashMap<Integer, String> second = first.put(2, "two").put(1, "uno");
+        assertEquals(first.size(), 1);
+        assertEquals(first.get(1), "one");
+        assertNull(first.get(2));
+        assertEquals(second.size(), 2);
+        assertEquals(second.get(1), "uno");
+    }
+
+    @Test
+    public void verifyRemoveMissingKeyShouldReturnSameInstance() {
+        PersistentHashMap<Integer, String> map = PersistentHashMap.<Integer, String>empty().put(1, "one");
+        assertSame(map.remove(2), map);
+        assertTrue(map.remove(1).isEmpty());
+    }
+
+    @Test
+    public void verifyCollidingHashesShouldBeKeptApart() {
+        PersistentHashMap<CollidingKey, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 10; i++) {
+            map = map.put(new CollidingKey(i), i);
+        }
+        //a key with another hash has to split the collision node
+        map = map.put(new CollidingKey(100, 1), 100);
+        assertEquals(map.size(), 11);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(map.get(new CollidingKey(i)), i);
+        }
+        for (int i = 0; i < 10; i++) {
+            map = map.remove(new CollidingKey(i));
+        }
+        assertEquals(map.size(), 1);
+        assertEquals(map.get(new CollidingKey(100, 1)), 100);
+    }
+
+    @Test
+    public void verifyRandomOperationsShouldMatchHashMap() {
+        Random random = new Random(42);
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentHashMap<Integer, Integer> actual = PersistentHashMap.empty();
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000) - 2_500;
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                actual = actual.remove(key);
+            } else {
+                expected.put(key, i);
+                actual = actual.put(key, i);
+            }
+        }
+        assertEquals(actual.size(), expected.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(actual.get(entry.getKey()), entry.getValue());
+        }
+        Set<Integer> iterated = new HashSet<>();
+        actual.forEach(iterated::add);
+        assertEquals(iterated, new HashSet<>(expected.values()));
+        assertEquals(actual.values().count(), expected.size());
+    }
+
+    private static final class CollidingKey {
+        private final int id;
+        private final int hash;
+
+        CollidingKey(int id) {
+            this(id, 7);
+        }
+
+        CollidingKey(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CollidingKey && ((CollidingKey) other).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
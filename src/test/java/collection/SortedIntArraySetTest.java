@@ -0,0 +1,64 @@
+package collection;
+
+import org.example.collection.SortedIntArraySet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SortedIntArraySetTest {
+
+    @Test
+    public void verifyValuesShouldBeKeptSortedAndUnique() {
+        SortedIntArraySet set = new SortedIntArraySet();
+        assertTrue(set.add(5));
+        assertTrue(set.add(-3));
+        assertTrue(set.add(9));
+        assertTrue(set.add(0));
+        assertFalse(set.add(5));
+        assertEquals(set.size(), 4);
+        assertEquals(set.get(0), -3);
+        assertEquals(set.get(1), 0);
+        assertEquals(set.get(2), 5);
+        assertEquals(set.get(3), 9);
+        assertTrue(set.remove(0));
+        assertFalse(set.remove(0));
+        assertFalse(set.contains(0));
+        assertTrue(set.contains(9));
+        assertThrows(IndexOutOfBoundsException.class, () -> set.get(3));
+    }
+
+    @Test
+    public void verifyAddAllShouldMergeAndDropDuplicates() {
+        SortedIntArraySet set = new SortedIntArraySet();
+        set.add(4);
+        set.add(2);
+        set.addAll(new int[]{7, 2, 1, 7, 99}, 4);
+        assertEquals(set.size(), 4);
+        assertEquals(set.get(0), 1);
+        assertEquals(set.get(3), 7);
+        assertFalse(set.contains(99));
+    }
+
+    @Test
+    public void verifyRandomOperationsShouldMatchTreeSet() {
+        SortedIntArraySet set = new SortedIntArraySet();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int value = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(set.remove(value), expected.remove(value));
+            } else {
+                assertEquals(set.add(value), expected.add(value));
+            }
+        }
+        assertEquals(set.size(), expected.size());
+        int index = 0;
+        for (Integer value : expected) {
+            assertEquals(set.get(index++), value);
+        }
+    }
+}
@@ -51,4 +51,21 @@ public class ProductTest {
         });
         assertEquals(exception.getMessage(), "Mandatory args are null");
     }
+
+    @Test
+    public void verifyProductsWithSameValuesShouldBeEqual() {
+        Product product = new Product(1, "Computer", Category.PRODUCT_1, 1000.0, 0.05);
+        Product same = new Product(1, "Computer", Category.PRODUCT_1, 1000.0, 0.05);
+        Product withoutDiscount = new Product(1, "Computer", Category.PRODUCT_1, 1000.0);
+        assertEquals(product, same);
+        assertEquals(product.hashCode(), same.hashCode());
+        assertNotEquals(product, withoutDiscount);
+        assertEquals(withoutDiscount, new Product(1, "Computer", Category.PRODUCT_1, 1000.0, null));
+    }
+
+    @Test
+    public void verifyEffectivePriceShouldSubtractTheDiscount() {
+        assertEquals(new Product(1, "Computer", Category.PRODUCT_1, 1000.0, 50.0).getEffectivePrice(), 950.0);
+        assertEquals(new Product(1, "Computer", Category.PRODUCT_1, 1000.0).getEffectivePrice(), 1000.0);
+    }
 }
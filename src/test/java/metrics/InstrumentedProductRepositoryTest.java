@@ -0,0 +1,105 @@
+package metrics;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.enums.RepositoryOperation;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.metrics.InstrumentedProductRepository;
+import org.example.metrics.JmxMetricsSink;
+import org.example.metrics.RepositoryMetrics;
+import org.example.repository.ProductRepositoryImpl;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InstrumentedProductRepositoryTest {
+    @Test
+    public void verifyCallsShouldBeCountedAndTimed() {
+        try (InstrumentedProductRepository productRepository = new InstrumentedProductRepository(
+                new ProductRepositoryImpl(), "counted", new JmxMetricsSink(), 1)) {
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+            productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_2, 200.0));
+            productRepository.findProductById(1);
+            RepositoryMetrics metrics = productRepository.getMetrics();
+            assertEquals(metrics.getCalls(RepositoryOperation.ADD), 2);
+            assertEquals(metrics.getCalls(RepositoryOperation.FIND_BY_ID), 1);
+            assertEquals(metrics.getLatency(RepositoryOperation.ADD).getCount(), 2);
+            assertTrue(metrics.getLatency(RepositoryOperation.ADD).getValueAtQuantile(1.0) > 0);
+        }
+    }
+
+    @Test
+    public void verifySampledLatencyShouldStillCountEveryCall() {
+        try (InstrumentedProductRepository productRepository = new InstrumentedProductRepository(
+                new ProductRepositoryImpl(), "sampled", new JmxMetricsSink(), 8)) {
+            for (int i = 0; i < 10_000; i++) {
+                productRepository.findProductById(i);
+            }
+            RepositoryMetrics metrics = productRepository.getMetrics();
+            assertEquals(metrics.getCalls(RepositoryOperation.FIND_BY_ID), 10_000);
+            long timed = metrics.getLatency(RepositoryOperation.FIND_BY_ID).getCount();
+            assertTrue(timed > 500 && timed < 2_500, "timed " + timed + " calls");
+        }
+    }
+
+    @Test
+    public void verifyLatencySamplingShouldBeAPowerOfTwo() {
+        assertThrows(BadArgumentsException.class, () -> new InstrumentedProductRepository(
+                new ProductRepositoryImpl(), "invalid", new JmxMetricsSink(), 6));
+    }
+
+    @Test
+    public void verifyFailuresShouldBeCountedPerExceptionAndRethrown() {
+        try (InstrumentedProductRepository productRepository = new InstrumentedProductRepository(
+                new ProductRepositoryImpl(), "failures")) {
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+            assertThrows(DuplicateIdException.class, () ->
+                    productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0)));
+            assertThrows(NoRecordFoundException.class, () -> productRepository.deleteProductById(7));
+            RepositoryMetrics metrics = productRepository.getMetrics();
+            assertEquals(metrics.getCalls(RepositoryOperation.ADD), 2);
+            assertEquals(metrics.getFailures(RepositoryOperation.ADD), 1);
+            assertEquals(metrics.getFailures(RepositoryOperation.DELETE), 1);
+            assertEquals(metrics.getExceptions(), Map.of("DuplicateIdException", 1L, "NoRecordFoundException", 1L));
+            assertEquals(metrics.getCatalogSize(), 1);
+        }
+    }
+
+    @Test
+    public void verifyCatalogSizeShouldFollowTheWrites() {
+        ProductRepositoryImpl delegate = new ProductRepositoryImpl();
+        delegate.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+        try (InstrumentedProductRepository productRepository = new InstrumentedProductRepository(
+                delegate, "catalog")) {
+            assertEquals(productRepository.getMetrics().getCatalogSize(), 1);
+            productRepository.addAllProducts(List.of(new Product(2, "Product 2", Category.PRODUCT_2, 200.0),
+                    new Product(3, "Product 3", Category.PRODUCT_3, 300.0)));
+            assertEquals(productRepository.getMetrics().getCatalogSize(), 3);
+            productRepository.deleteProductsByIds(List.of(1, 2));
+            assertEquals(productRepository.getMetrics().getCatalogSize(), 1);
+            productRepository.deleteAllProducts();
+            assertEquals(productRepository.getMetrics().getCatalogSize(), 0);
+        }
+    }
+
+    @Test
+    public void verifyMetricsShouldBePublishedThroughJmx() throws Exception {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = JmxMetricsSink.objectName("jmx");
+        try (InstrumentedProductRepository productRepository = new InstrumentedProductRepository(
+                new ProductRepositoryImpl(), "jmx")) {
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+            assertTrue(mBeanServer.isRegistered(objectName));
+            assertEquals(mBeanServer.getAttribute(objectName, "CatalogSize"), 1L);
+        }
+        assertFalse(mBeanServer.isRegistered(objectName));
+    }
+}
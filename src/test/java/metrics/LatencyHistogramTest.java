@@ -0,0 +1,60 @@
+package metrics;
+
+import org.example.metrics.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+    @Test
+    public void verifyEmptyHistogramShouldReportZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(histogram.getCount(), 0);
+        assertEquals(histogram.getValueAtQuantile(0.99), 0);
+    }
+
+    @Test
+    public void verifySmallValuesShouldBeExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+        assertEquals(histogram.getCount(), 10);
+        assertEquals(histogram.getValueAtQuantile(0.5), 5);
+        assertEquals(histogram.getValueAtQuantile(1.0), 10);
+    }
+
+    @Test
+    public void verifyQuantilesShouldBeWithinTheBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000L);
+        }
+        assertWithinPrecision(histogram.getValueAtQuantile(0.5), 50_000_000L);
+        assertWithinPrecision(histogram.getValueAtQuantile(0.99), 99_000_000L);
+        assertWithinPrecision(histogram.getValueAtQuantile(1.0), 100_000_000L);
+    }
+
+    @Test
+    public void verifyHugeValuesShouldBeCountedInTheLastBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5);
+        assertEquals(histogram.getCount(), 2);
+        assertEquals(histogram.getValueAtQuantile(0.0), 0);
+        assertTrue(histogram.getValueAtQuantile(1.0) > 0);
+    }
+
+    @Test
+    public void verifyResetShouldClearTheCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+        histogram.reset();
+        assertEquals(histogram.getCount(), 0);
+    }
+
+    private static void assertWithinPrecision(long actual, long expected) {
+        assertTrue(actual >= expected && actual <= expected + expected / 16,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
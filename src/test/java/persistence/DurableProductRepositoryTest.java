@@ -0,0 +1,242 @@
+package persistence;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.enums.FsyncPolicy;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.PersistenceException;
+import org.example.persistence.DurableProductRepository;
+import org.example.persistence.WriteAheadLog;
+import org.example.repository.IndexedProductRepositoryImpl;
+import org.example.repository.ProductRepositoryImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DurableProductRepositoryTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void verifyReopenWithPerOperationSyncShouldRestoreTheRepository() {
+        verifyReopenShouldRestoreTheRepository(FsyncPolicy.PER_OPERATION);
+    }
+
+    @Test
+    public void verifyReopenWithGroupCommitShouldRestoreTheRepository() {
+        verifyReopenShouldRestoreTheRepository(FsyncPolicy.GROUP_COMMIT);
+    }
+
+    @Test
+    public void verifyReopenWithPeriodicSyncShouldRestoreTheRepository() {
+        verifyReopenShouldRestoreTheRepository(FsyncPolicy.PERIODIC);
+    }
+
+    @Test
+    public void verifyFailedMutationShouldNotBeLogged() {
+        Path log = directory.resolve("inventory.wal");
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new IndexedProductRepositoryImpl(), log, FsyncPolicy.PER_OPERATION)) {
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+            assertThrows(DuplicateIdException.class, () ->
+                    productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0)));
+        }
+        try (WriteAheadLog writeAheadLog = WriteAheadLog.open(log, FsyncPolicy.PER_OPERATION)) {
+            assertEquals(writeAheadLog.replay(new IndexedProductRepositoryImpl()), 1);
+        }
+    }
+
+    @Test
+    public void verifyRecordTooLargeForTheLogShouldNotChangeTheRepository() {
+        Path log = directory.resolve("inventory.wal");
+        String name = "x".repeat(2 << 20);
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new ProductRepositoryImpl(), log, FsyncPolicy.PER_OPERATION)) {
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+            assertThrows(BadArgumentsException.class, () ->
+                    productRepository.addProduct(new Product(2, name, Category.PRODUCT_1, 100.0)));
+            assertThrows(BadArgumentsException.class, () ->
+                    productRepository.updateProduct(new Product(1, name, Category.PRODUCT_1, 100.0), 1));
+            assertThrows(BadArgumentsException.class, () -> productRepository.addAllProducts(
+                    List.of(new Product(3, "Product 3", Category.PRODUCT_1, 1.0),
+                            new Product(4, name, Category.PRODUCT_1, 1.0))));
+            assertEquals(productRepository.findAll(), List.of(new Product(1, "Product 1", Category.PRODUCT_1, 100.0)));
+            productRepository.addProduct(new Product(5, "Product 5", Category.PRODUCT_1, 100.0));
+        }
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new ProductRepositoryImpl(), log, FsyncPolicy.PER_OPERATION)) {
+            assertEquals(productRepository.findAll(), List.of(new Product(1, "Product 1", Category.PRODUCT_1, 100.0),
+                    new Product(5, "Product 5", Category.PRODUCT_1, 100.0)));
+        }
+    }
+
+    @Test
+    public void verifyRejectedBatchLargerThanTheBufferShouldNotBeReplayed() {
+        Path log = directory.resolve("inventory.wal");
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new IndexedProductRepositoryImpl(), log, FsyncPolicy.GROUP_COMMIT)) {
+            productRepository.addProduct(new Product(0, "Product 0", Category.PRODUCT_1, 100.0));
+            //more than a buffer full of records, the batch is partly written before the delegate rejects it
+            List<Product> products = new ArrayList<>();
+            for (int id = 1; id <= 100_000; id++) {
+                products.add(new Product(id, "Product " + id, Category.PRODUCT_1, 1.0));
+            }
+            products.add(new Product(0, "Product 0", Category.PRODUCT_1, 100.0));
+            assertThrows(DuplicateIdException.class, () -> productRepository.addAllProducts(products));
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_2, 5.0));
+        }
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new IndexedProductRepositoryImpl(), log, FsyncPolicy.GROUP_COMMIT)) {
+            assertEquals(productRepository.findAll(), List.of(new Product(0, "Product 0", Category.PRODUCT_1, 100.0),
+                    new Product(1, "Product 1", Category.PRODUCT_2, 5.0)));
+        }
+    }
+
+    @Test
+    public void verifyMismatchingUpdateShouldNotBeLogged() {
+        Path log = directory.resolve("inventory.wal");
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new ProductRepositoryImpl(), log, FsyncPolicy.PER_OPERATION)) {
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+            assertThrows(BadArgumentsException.class, () ->
+                    productRepository.updateProduct(new Product(5, "Product 5", Category.PRODUCT_1, 1.0), 1));
+        }
+        try (WriteAheadLog writeAheadLog = WriteAheadLog.open(log, FsyncPolicy.PER_OPERATION)) {
+            assertEquals(writeAheadLog.replay(new ProductRepositoryImpl()), 1);
+        }
+    }
+
+    @Test
+    public void verifyBatchEndWithoutBatchShouldBeSkipped() throws IOException {
+        Path log = directory.resolve("inventory.wal");
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new IndexedProductRepositoryImpl(), log, FsyncPolicy.PER_OPERATION)) {
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+        }
+        //length | crc32c | op of a batch end record
+        CRC32C crc = new CRC32C();
+        crc.update(6);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(9).putInt(1).putInt((int) crc.getValue()).put((byte) 6).flip());
+        }
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new IndexedProductRepositoryImpl(), log, FsyncPolicy.PER_OPERATION)) {
+            productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_1, 100.0));
+        }
+        try (WriteAheadLog writeAheadLog = WriteAheadLog.open(log, FsyncPolicy.PER_OPERATION)) {
+            assertEquals(writeAheadLog.replay(new IndexedProductRepositoryImpl()), 2);
+        }
+    }
+
+    @Test
+    public void verifyTornTailShouldBeCutOffOnReplay() throws IOException {
+        Path log = directory.resolve("inventory.wal");
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new IndexedProductRepositoryImpl(), log, FsyncPolicy.GROUP_COMMIT)) {
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+            productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_1, 100.0));
+        }
+        long completeSize = Files.size(log);
+        //simulate a crash in the middle of the last record
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(completeSize - 3);
+        }
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new IndexedProductRepositoryImpl(), log, FsyncPolicy.GROUP_COMMIT)) {
+            assertTrue(productRepository.findProductById(1).isPresent());
+            assertTrue(productRepository.findProductById(2).isEmpty());
+            productRepository.addProduct(new Product(3, "Product 3", Category.PRODUCT_2, 100.0));
+        }
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new IndexedProductRepositoryImpl(), log, FsyncPolicy.GROUP_COMMIT)) {
+            assertEquals(productRepository.findAll().size(), 2);
+            assertTrue(productRepository.findProductById(3).isPresent());
+        }
+    }
+
+    @Test
+    public void verifyBatchesShouldBeReplayed() {
+        Path log = directory.resolve("inventory.wal");
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new IndexedProductRepositoryImpl(), log, FsyncPolicy.PER_OPERATION)) {
+            productRepository.addAllProducts(List.of(new Product(1, "Product 1", Category.PRODUCT_1, 100.0),
+                    new Product(2, "Product 2", Category.PRODUCT_1, 100.0),
+                    new Product(3, "Product 3", Category.PRODUCT_1, 100.0)));
+            productRepository.updateAllProducts(List.of(new Product(2, "Product 2", Category.PRODUCT_2, 5.0)));
+            productRepository.deleteProductsByIds(List.of(1, 3));
+        }
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new IndexedProductRepositoryImpl(), log, FsyncPolicy.PER_OPERATION)) {
+            assertEquals(productRepository.findAll(), List.of(new Product(2, "Product 2", Category.PRODUCT_2, 5.0)));
+        }
+    }
+
+    @Test
+    public void verifyTornBatchShouldNotBeReplayed() throws IOException {
+        Path log = directory.resolve("inventory.wal");
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new IndexedProductRepositoryImpl(), log, FsyncPolicy.GROUP_COMMIT)) {
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+            productRepository.addAllProducts(List.of(new Product(2, "Product 2", Category.PRODUCT_1, 100.0),
+                    new Product(3, "Product 3", Category.PRODUCT_1, 100.0)));
+        }
+        //cut the batch end record off, the products of the batch are complete but the batch isn't
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(log) - 2);
+        }
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new IndexedProductRepositoryImpl(), log, FsyncPolicy.GROUP_COMMIT)) {
+            assertEquals(productRepository.findAll().size(), 1);
+            productRepository.addProduct(new Product(4, "Product 4", Category.PRODUCT_1, 100.0));
+        }
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new IndexedProductRepositoryImpl(), log, FsyncPolicy.GROUP_COMMIT)) {
+            assertEquals(productRepository.findAll().size(), 2);
+        }
+    }
+
+    @Test
+    public void verifyAppendAfterCloseShouldThrowException() {
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(directory.resolve("closed.wal"), FsyncPolicy.GROUP_COMMIT);
+        writeAheadLog.close();
+        assertThrows(PersistenceException.class, writeAheadLog::appendClear);
+    }
+
+    private void verifyReopenShouldRestoreTheRepository(FsyncPolicy fsyncPolicy) {
+        Path log = directory.resolve(fsyncPolicy + ".wal");
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new ProductRepositoryImpl(), log, fsyncPolicy)) {
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0, 0.25));
+            productRepository.addProduct(new Product(2, "Produkt \u00fc", null, 50.0));
+            productRepository.addProduct(new Product(3, "Product 3", Category.PRODUCT_2, 10.0));
+            productRepository.deleteAllProducts();
+            productRepository.addProduct(new Product(4, "Product 4", Category.PRODUCT_3, 70.0, 0.1));
+            productRepository.addProduct(new Product(5, "Produkt \u00fc", null, 50.0));
+            productRepository.updateProduct(new Product(4, "Product 4", Category.PRODUCT_1, 75.0), 4);
+            productRepository.addProduct(new Product(6, "Product 6", Category.PRODUCT_2, 10.0));
+            productRepository.deleteProductById(6);
+            productRepository.addProduct(new Product(7, "Product 7", Category.PRODUCT_2, 10.0));
+            assertEquals(productRepository.removeProductById(7).getProductId(), 7);
+        }
+        try (DurableProductRepository productRepository = DurableProductRepository.open(
+                new ProductRepositoryImpl(), log, fsyncPolicy)) {
+            assertEquals(productRepository.findAll().size(), 2);
+            assertEquals(productRepository.findProductById(4),
+                    Optional.of(new Product(4, "Product 4", Category.PRODUCT_1, 75.0)));
+            assertEquals(productRepository.findProductById(5), Optional.of(new Product(5, "Produkt \u00fc", null, 50.0)));
+        }
+    }
+}
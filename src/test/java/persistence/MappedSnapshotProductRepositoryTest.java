@@ -0,0 +1,145 @@
+package persistence;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.exceptions.PersistenceException;
+import org.example.persistence.MappedSnapshotProductRepository;
+import org.example.persistence.ProductSnapshotFile;
+import org.example.repository.IndexedProductRepositoryImpl;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedSnapshotProductRepositoryTest {
+    @TempDir
+    Path directory;
+    Path snapshot;
+
+    @BeforeEach
+    public void init() {
+        ProductRepository source = new IndexedProductRepositoryImpl();
+        source.addProduct(new Product(3, "Product 3", Category.PRODUCT_1, 100.0, 0.15));
+        source.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0, 0.25));
+        source.addProduct(new Product(2, "Produkt \u00fc", Category.PRODUCT_2, 100.0, 0.35));
+        source.addProduct(new Product(4, "Product 4", null, 100.0));
+        snapshot = directory.resolve("inventory.snapshot");
+        ProductSnapshotFile.write(source, snapshot);
+    }
+
+    @Test
+    public void verifyOpenedSnapshotShouldHaveEveryProduct() {
+        MappedSnapshotProductRepository productRepository = MappedSnapshotProductRepository.open(snapshot);
+        assertEquals(ids(productRepository.findAll()), "1-2-3-4");
+        assertEquals(productRepository.findProductById(2),
+                Optional.of(new Product(2, "Produkt \u00fc", Category.PRODUCT_2, 100.0, 0.35)));
+        assertEquals(productRepository.findProductById(4), Optional.of(new Product(4, "Product 4", null, 100.0)));
+        assertTrue(productRepository.findProductById(5).isEmpty());
+        assertEquals(ids(productRepository.findDiscountedProducts(Optional.of(0.1), Optional.of(0.3))), "1-3");
+        assertEquals(ids(productRepository.findByCategory(Category.PRODUCT_1)), "1-3");
+    }
+
+    @Test
+    public void verifyMutationsShouldOverlayTheSnapshot() {
+        MappedSnapshotProductRepository productRepository = MappedSnapshotProductRepository.open(snapshot);
+        assertThrows(DuplicateIdException.class, () ->
+                productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0)));
+        productRepository.addProduct(new Product(5, "Product 5", Category.PRODUCT_2, 10.0, 0.2));
+        productRepository.updateProduct(new Product(1, "Product 1", Category.PRODUCT_2, 90.0), 1);
+        assertEquals(ids(productRepository.deleteProductById(3)), "2-4-1-5");
+        assertThrows(NoRecordFoundException.class, () -> productRepository.deleteProductById(3));
+        assertTrue(productRepository.findProductById(3).isEmpty());
+        assertEquals(productRepository.findProductById(1).get().getPrice(), 90.0);
+        assertEquals(ids(productRepository.findDiscountedProducts(Category.PRODUCT_2, Optional.empty(),
+                Optional.empty())), "2-5");
+        assertEquals(ids(productRepository.findByCategory(Category.PRODUCT_2)), "2-1-5");
+        //a deleted id can be added again
+        productRepository.addProduct(new Product(3, "Product 3", Category.PRODUCT_3, 1.0));
+        assertEquals(productRepository.findProductById(3).get().getCategory(), Category.PRODUCT_3);
+    }
+
+    @Test
+    public void verifyKeysetPagesShouldMergeTheSnapshotAndTheOverlay() {
+        MappedSnapshotProductRepository productRepository = MappedSnapshotProductRepository.open(snapshot);
+        productRepository.addProduct(new Product(0, "Product 0", Category.PRODUCT_3, 5.0));
+        productRepository.addProduct(new Product(7, "Product 7", Category.PRODUCT_3, 5.0));
+        productRepository.updateProduct(new Product(3, "Product 3", Category.PRODUCT_2, 90.0), 3);
+        productRepository.deleteProductById(2);
+        assertEquals(ids(productRepository.findAllAfter(Optional.empty(), 3)), "0-1-3");
+        assertEquals(ids(productRepository.findAllAfter(Optional.of(1), 3)), "3-4-7");
+        assertEquals(ids(productRepository.findAllAfter(Optional.of(4), 3)), "7");
+        assertEquals(productRepository.streamAll().collect(Collectors.toList()), productRepository.findAll());
+        assertEquals(productRepository.findAll(1, 3), productRepository.findAll().subList(1, 4));
+    }
+
+    @Test
+    public void verifyDeleteAllShouldHideTheSnapshot() {
+        MappedSnapshotProductRepository productRepository = MappedSnapshotProductRepository.open(snapshot);
+        productRepository.deleteAllProducts();
+        assertTrue(productRepository.findAll().isEmpty());
+        assertTrue(productRepository.findProductById(1).isEmpty());
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+        assertEquals(ids(productRepository.findAll()), "1");
+    }
+
+    @Test
+    public void verifySnapshotOfAnOverlayShouldKeepTheChanges() {
+        MappedSnapshotProductRepository productRepository = MappedSnapshotProductRepository.open(snapshot);
+        productRepository.deleteProductById(2);
+        productRepository.addProduct(new Product(0, "Product 0", Category.PRODUCT_3, 5.0));
+        Path next = directory.resolve("next.snapshot");
+        ProductSnapshotFile.write(productRepository, next);
+        assertEquals(ids(MappedSnapshotProductRepository.open(next).findAll()), "0-1-3-4");
+    }
+
+    @Test
+    public void verifyOpenInvalidFileShouldThrowException() throws IOException {
+        Path invalid = Files.write(directory.resolve("invalid.snapshot"), new byte[]{1, 2, 3});
+        assertThrows(PersistenceException.class, () -> MappedSnapshotProductRepository.open(invalid));
+    }
+
+    @Test
+    public void verifyCorruptRecordShouldThrowPersistenceException() throws IOException {
+        byte[] bytes = Files.readAllBytes(snapshot);
+        ByteBuffer records = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        //the name of the first record points past the end of the file, the second one has an unknown category
+        records.putInt(ProductSnapshotFile.HEADER_BYTES + ProductSnapshotFile.NAME_OFFSET, bytes.length);
+        records.put(ProductSnapshotFile.HEADER_BYTES + ProductSnapshotFile.RECORD_BYTES + ProductSnapshotFile.CATEGORY,
+                (byte) 42);
+        Path corrupt = Files.write(directory.resolve("corrupt.snapshot"), bytes);
+        MappedSnapshotProductRepository productRepository = MappedSnapshotProductRepository.open(corrupt);
+        assertThrows(PersistenceException.class, () -> productRepository.findProductById(1));
+        assertThrows(PersistenceException.class, () -> productRepository.findProductById(2));
+        assertEquals(productRepository.findProductById(3).get().getName(), "Product 3");
+    }
+
+    @Test
+    public void verifyNameLargerThanTheBufferShouldBeWritten() {
+        String name = "x".repeat(3 << 20);
+        ProductRepository source = new IndexedProductRepositoryImpl();
+        source.addProduct(new Product(1, name, Category.PRODUCT_1, 100.0));
+        source.addProduct(new Product(2, "Product 2", Category.PRODUCT_1, 100.0));
+        Path large = directory.resolve("large.snapshot");
+        ProductSnapshotFile.write(source, large);
+        MappedSnapshotProductRepository productRepository = MappedSnapshotProductRepository.open(large);
+        assertEquals(productRepository.findProductById(1).get().getName(), name);
+        assertEquals(productRepository.findProductById(2).get().getName(), "Product 2");
+    }
+
+    private static String ids(List<Product> products) {
+        return products.stream().map(product -> product.getProductId().toString()).collect(Collectors.joining("-"));
+    }
+}
@@ -0,0 +1,71 @@
+package persistence;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.PersistenceException;
+import org.example.persistence.ProductCodec;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductCodecTest {
+    ProductCodec codec = new ProductCodec();
+
+    @Test
+    public void verifyDecodeShouldReturnTheEncodedProduct() {
+        List<Product> products = List.of(new Product(1, "Product 1", Category.PRODUCT_1, 500.21, 20.5),
+                new Product(300, "Product 300", null, 12.0),
+                new Product(-7, "Caf\u00e9 \u6771\u4eac \ud83d\ude00", Category.PRODUCT_3, 0.0, 0.0),
+                new Product(Integer.MAX_VALUE, "", Category.PRODUCT_2, -1.5));
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        for (Product product : products) {
+            int start = buffer.position();
+            codec.encode(product, buffer);
+            assertEquals(buffer.position() - start, ProductCodec.encodedSize(product));
+        }
+        buffer.flip();
+        for (Product product : products) {
+            assertEquals(codec.decode(buffer), product);
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void verifyEncodedProductShouldBeCompact() {
+        //1 byte id, 8 bytes price, 1 byte flags, 1 byte category, 1 byte name length, 2 bytes name
+        assertEquals(ProductCodec.encodedSize(new Product(5, "P5", Category.PRODUCT_1, 1.0)), 14);
+        assertEquals(ProductCodec.encodedSize(new Product(128, "P5", null, 1.0, 0.5)), 22);
+    }
+
+    @Test
+    public void verifyUnpairedSurrogateShouldBeEncodedLikeTheJdk() {
+        String name = "a\ud83db";
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        codec.encode(new Product(1, name, null, 1.0), buffer);
+        buffer.flip();
+        assertEquals(codec.decode(buffer).getName(), new String(name.getBytes(StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void verifyUnknownCategoryShouldThrowException() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.put((byte) 1).putDouble(1.0).put(ProductCodec.HAS_CATEGORY).put((byte) 42).put((byte) 0).flip();
+        Exception exception = assertThrows(PersistenceException.class, () -> codec.decode(buffer));
+        assertEquals(exception.getMessage(), "Unknown category 42");
+    }
+
+    @Test
+    public void verifyNameLengthPastTheBufferShouldThrowException() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        //a name of Integer.MAX_VALUE bytes as a varint, only 3 are there
+        buffer.put((byte) 1).putDouble(1.0).put((byte) 0).put(new byte[]{-1, -1, -1, -1, 7})
+                .put("abc".getBytes(StandardCharsets.UTF_8)).flip();
+        Exception exception = assertThrows(PersistenceException.class, () -> codec.decode(buffer));
+        assertEquals(exception.getMessage(), "Name length 2147483647 is past the end of the buffer");
+    }
+}
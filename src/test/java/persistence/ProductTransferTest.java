@@ -0,0 +1,99 @@
+package persistence;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.PersistenceException;
+import org.example.persistence.ProductTransfer;
+import org.example.repository.IndexedProductRepositoryImpl;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductSnapshot;
+import org.example.repository.SnapshotProductRepositoryImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductTransferTest {
+    private static final Category[] CATEGORIES = Category.values();
+
+    @Test
+    public void verifyImportShouldRestoreTheExportedRepository() {
+        ProductRepository source = new IndexedProductRepositoryImpl();
+        List<Product> products = new ArrayList<>();
+        //large enough for the export to go through the buffer a few times
+        for (int id = 0; id < 100_000; id++) {
+            products.add(new Product(id, "Product " + id, id % 4 == 0 ? null : CATEGORIES[id % 3], id * 1.5,
+                    id % 5 == 0 ? 1.0 : null));
+        }
+        source.addAllProducts(products);
+        byte[] export = export(source);
+
+        ProductRepository target = new SnapshotProductRepositoryImpl();
+        assertEquals(ProductTransfer.importFrom(Channels.newChannel(new ByteArrayInputStream(export)), target, 1000),
+                100_000L);
+        List<Product> imported = new ArrayList<>(target.findAll());
+        imported.sort(Comparator.comparing(Product::getProductId));
+        assertEquals(imported, products);
+    }
+
+    @Test
+    public void verifyExportedSnapshotShouldNotSeeLaterWrites() {
+        ProductRepository source = new IndexedProductRepositoryImpl();
+        source.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 500.21));
+        ProductSnapshot snapshot = source.snapshot();
+        source.addProduct(new Product(2, "Product 2", Category.PRODUCT_2, 1.0));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(ProductTransfer.exportTo(snapshot, Channels.newChannel(out)), 1L);
+
+        ProductRepository target = new IndexedProductRepositoryImpl();
+        ProductTransfer.importFrom(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())), target);
+        assertEquals(target.findAll(), List.of(new Product(1, "Product 1", Category.PRODUCT_1, 500.21)));
+    }
+
+    @Test
+    public void verifyEmptyRepositoryShouldExportOnlyTheHeader() {
+        byte[] export = export(new IndexedProductRepositoryImpl());
+        assertEquals(export.length, ProductTransfer.HEADER_BYTES);
+        assertEquals(ProductTransfer.importFrom(Channels.newChannel(new ByteArrayInputStream(export)),
+                new IndexedProductRepositoryImpl()), 0L);
+    }
+
+    @Test
+    public void verifyTruncatedExportShouldThrowException() {
+        ProductRepository source = new IndexedProductRepositoryImpl();
+        source.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 500.21));
+        byte[] export = export(source);
+        byte[] truncated = Arrays.copyOf(export, export.length - 3);
+        Exception exception = assertThrows(PersistenceException.class, () -> ProductTransfer.importFrom(
+                Channels.newChannel(new ByteArrayInputStream(truncated)), new IndexedProductRepositoryImpl()));
+        assertEquals(exception.getMessage(), "The export is truncated");
+
+        byte[] notAnExport = "not an export".getBytes();
+        exception = assertThrows(PersistenceException.class, () -> ProductTransfer.importFrom(
+                Channels.newChannel(new ByteArrayInputStream(notAnExport)), new IndexedProductRepositoryImpl()));
+        assertEquals(exception.getMessage(), "Not a product export");
+    }
+
+    @Test
+    public void verifyImportOfExistingIdShouldThrowException() {
+        ProductRepository source = new IndexedProductRepositoryImpl();
+        source.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 500.21));
+        byte[] export = export(source);
+        assertThrows(DuplicateIdException.class, () ->
+                ProductTransfer.importFrom(Channels.newChannel(new ByteArrayInputStream(export)), source));
+    }
+
+    private static byte[] export(ProductRepository productRepository) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProductTransfer.exportTo(productRepository, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,113 @@
+package query;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.BadArgumentsException;
+import org.example.query.ProductQueryEngine;
+import org.example.query.ProductStatistics;
+import org.example.repository.ProductRepository;
+import org.example.repository.SnapshotProductRepositoryImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductQueryEngineTest {
+    private static final int CATALOG_SIZE = 10_000;
+    private static ForkJoinPool pool;
+    private static ProductRepository productRepository;
+
+    @BeforeAll
+    public static void loadCatalog() {
+        pool = new ForkJoinPool(4);
+        productRepository = new SnapshotProductRepositoryImpl();
+        List<Product> catalog = new ArrayList<>();
+        //every seventh product has no discount, every tenth no category
+        for (int id = 0; id < CATALOG_SIZE; id++) {
+            Category category = id % 10 == 0 ? null : Category.values()[id % Category.values().length];
+            Double discount = id % 7 == 0 ? null : (double) (id % 50);
+            catalog.add(new Product(id, "Product " + id, category, (double) (id % 100), discount));
+        }
+        productRepository.addAllProducts(catalog);
+    }
+
+    @AfterAll
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void verifyParallelFilterShouldMatchTheSequentialScan() {
+        ProductQueryEngine queryEngine = new ProductQueryEngine(productRepository, pool, 64);
+        List<Product> expected = productRepository.findAll().stream()
+                .filter(product -> product.getPrice() > 90.0).collect(Collectors.toList());
+        assertEquals(queryEngine.filter(product -> product.getPrice() > 90.0), expected);
+        assertEquals(queryEngine.count(product -> product.getPrice() > 90.0), expected.size());
+    }
+
+    @Test
+    public void verifyDiscountedProductsShouldMatchTheRepository() {
+        ProductQueryEngine queryEngine = new ProductQueryEngine(productRepository, pool, 64);
+        assertEquals(queryEngine.findDiscountedProducts(Optional.of(10.0), Optional.of(20.0)),
+                productRepository.findDiscountedProducts(Optional.of(10.0), Optional.of(20.0)));
+    }
+
+    @Test
+    public void verifyStatisticsByCategoryShouldMatchTheSequentialScan() {
+        ProductQueryEngine queryEngine = new ProductQueryEngine(productRepository, pool, 64);
+        Map<Category, ProductStatistics> statistics = queryEngine.statisticsByCategory();
+        assertEquals(statistics.keySet().size(), Category.values().length);
+        for (Category category : Category.values()) {
+            List<Product> products = productRepository.findByCategory(category);
+            ProductStatistics categoryStatistics = statistics.get(category);
+            assertEquals(categoryStatistics.getCount(), products.size(), category.name());
+            assertEquals(categoryStatistics.getPriceSum(),
+                    products.stream().mapToDouble(Product::getPrice).sum(), 1e-6, category.name());
+            assertEquals(categoryStatistics.getAveragePrice().get(),
+                    products.stream().mapToDouble(Product::getPrice).average().getAsDouble(), 1e-9);
+            assertEquals(categoryStatistics.getMinDiscount().get(), products.stream()
+                    .filter(product -> product.getDiscount().isPresent())
+                    .mapToDouble(product -> product.getDiscount().get()).min().getAsDouble());
+            assertEquals(categoryStatistics.getMaxDiscount().get(), products.stream()
+                    .filter(product -> product.getDiscount().isPresent())
+                    .mapToDouble(product -> product.getDiscount().get()).max().getAsDouble());
+        }
+    }
+
+    @Test
+    public void verifySmallCatalogShouldBeScannedSequentially() {
+        //a pool of its own, the shared one may still account steals of the other tests
+        ForkJoinPool idlePool = new ForkJoinPool(2);
+        ProductQueryEngine queryEngine = new ProductQueryEngine(productRepository, idlePool, CATALOG_SIZE);
+        assertEquals(queryEngine.count(product -> true), CATALOG_SIZE);
+        assertEquals(idlePool.getStealCount(), 0L);
+        assertEquals(idlePool.getPoolSize(), 0);
+        idlePool.shutdown();
+        assertEquals(queryEngine.statistics(Category.PRODUCT_1).getCount(),
+                productRepository.findByCategory(Category.PRODUCT_1).size());
+    }
+
+    @Test
+    public void verifyEmptyStatisticsShouldHaveNoAverageOrDiscount() {
+        ProductQueryEngine queryEngine = new ProductQueryEngine(productRepository, pool, 64);
+        ProductStatistics statistics = queryEngine.statistics(product -> false);
+        assertEquals(statistics.getCount(), 0);
+        assertEquals(statistics.getAveragePrice(), Optional.empty());
+        assertEquals(statistics.getMinDiscount(), Optional.empty());
+    }
+
+    @Test
+    public void verifyInvalidThresholdShouldThrowBadArguments() {
+        assertThrows(BadArgumentsException.class, () -> new ProductQueryEngine(productRepository, pool, 0));
+        assertThrows(BadArgumentsException.class, () ->
+                new ProductQueryEngine(productRepository).statistics((Category) null));
+    }
+}
@@ -0,0 +1,134 @@
+package repository;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.InventoryException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.repository.AsyncProductRepository;
+import org.example.repository.SnapshotProductRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncProductRepositoryTest {
+    SnapshotProductRepositoryImpl productRepository = new SnapshotProductRepositoryImpl();
+    AsyncProductRepository asyncRepository = new AsyncProductRepository(productRepository, 16);
+
+    @AfterEach
+    public void close() {
+        asyncRepository.close();
+    }
+
+    @Test
+    public void verifyCompletedWriteShouldBeVisible() throws Exception {
+        Product product = new Product(1, "Product 1", Category.PRODUCT_1, 500.21);
+        assertEquals(asyncRepository.addProduct(product).get(), product);
+        assertEquals(productRepository.findProductById(1), Optional.of(product));
+
+        Product updated = new Product(1, "Product 1", Category.PRODUCT_1, 400.0);
+        assertEquals(asyncRepository.updateProduct(updated, 1).get(), updated);
+        assertEquals(productRepository.findProductById(1), Optional.of(updated));
+
+        assertEquals(asyncRepository.removeProductById(1).get(), updated);
+        assertEquals(productRepository.findAll(), List.of());
+    }
+
+    @Test
+    public void verifyFailedWriteShouldCompleteOnlyItsOwnFutureExceptionally() throws Exception {
+        CompletableFuture<Product> first = asyncRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 1.0));
+        CompletableFuture<Product> duplicate =
+                asyncRepository.addProduct(new Product(1, "Product 2", Category.PRODUCT_1, 2.0));
+        CompletableFuture<Product> missing =
+                asyncRepository.updateProduct(new Product(2, "Product 2", Category.PRODUCT_1, 2.0), 2);
+        CompletableFuture<Product> second = asyncRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_1, 2.0));
+        CompletableFuture<Product> notFound = asyncRepository.removeProductById(3);
+
+        assertEquals(first.get().getName(), "Product 1");
+        assertEquals(second.get().getName(), "Product 2");
+        ExecutionException exception = assertThrows(ExecutionException.class, duplicate::get);
+        assertEquals(exception.getCause().getClass(), DuplicateIdException.class);
+        assertEquals(exception.getCause().getMessage(), "This id 1 already exists");
+        exception = assertThrows(ExecutionException.class, missing::get);
+        assertEquals(exception.getCause().getClass(), NoRecordFoundException.class);
+        exception = assertThrows(ExecutionException.class, notFound::get);
+        assertEquals(exception.getCause().getMessage(), "No Record Found with the Id 3");
+        assertEquals(productRepository.findAll().size(), 2);
+    }
+
+    @Test
+    public void verifyVersionShouldCountTheSucceededWritesOfABatch() throws Exception {
+        long initial = productRepository.snapshot().version();
+        List<CompletableFuture<Product>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(asyncRepository.addProduct(new Product(i % 50, "Product " + i, Category.PRODUCT_1, 1.0)));
+        }
+        int failed = 0;
+        for (CompletableFuture<Product> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                failed++;
+            }
+        }
+        assertEquals(failed, 50);
+        assertEquals(productRepository.snapshot().version(), initial + 50);
+    }
+
+    @Test
+    public void verifyInvalidWriteShouldCompleteExceptionally() {
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> asyncRepository.addProduct(null).get());
+        assertEquals(exception.getCause().getClass(), BadArgumentsException.class);
+        assertThrows(BadArgumentsException.class, () -> new AsyncProductRepository(productRepository, 0));
+    }
+
+    @Test
+    public void verifyConcurrentWritesShouldAllBeApplied() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        List<CompletableFuture<Product>> futures = new CopyOnWriteArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int first = t * 1000;
+            threads.add(new Thread(() -> {
+                for (int id = first; id < first + 1000; id++) {
+                    futures.add(asyncRepository.addProduct(new Product(id, "Product " + id, Category.PRODUCT_1, 1.0)));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+        assertEquals(asyncRepository.pendingWrites(), 0);
+        assertEquals(productRepository.findAll().size(), 4000);
+    }
+
+    @Test
+    public void verifyClosedRepositoryShouldRejectWrites() {
+        asyncRepository.close();
+        ExecutionException exception = assertThrows(ExecutionException.class, () ->
+                asyncRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 1.0)).get());
+        assertEquals(exception.getCause().getClass(), InventoryException.class);
+    }
+
+    @Test
+    public void verifyInterruptedCloseShouldApplyQueuedWritesAndKeepTheInterrupt() {
+        CompletableFuture<Product> future = asyncRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1,
+                1.0));
+        Thread.currentThread().interrupt();
+        asyncRepository.close();
+        //interrupted() clears the flag again, so it doesn't leak into the next test
+        assertTrue(Thread.interrupted());
+        assertTrue(future.isDone());
+        assertEquals(productRepository.findProductById(1).get().getName(), "Product 1");
+    }
+}
@@ -0,0 +1,102 @@
+package repository;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.repository.CategoryPartitionedProductRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CategoryPartitionedProductRepositoryImplTest {
+    CategoryPartitionedProductRepositoryImpl productRepository = new CategoryPartitionedProductRepositoryImpl();
+
+    @AfterEach
+    public void clear() {
+        productRepository.deleteAllProducts();
+    }
+
+    @Test
+    public void verifyDuplicateIdInAnotherCategoryShouldThrowException() {
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 500.21));
+        Exception exception = assertThrows(DuplicateIdException.class, () -> {
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_2, 500.21));
+        });
+        assertEquals(exception.getMessage(), "This id 1 already exists");
+    }
+
+    @Test
+    public void verifyFindByCategoryShouldOnlyReturnThatCategory() {
+        addDummyProducts();
+        assertEquals(ids(productRepository.findByCategory(Category.PRODUCT_1)), "1-3");
+        assertEquals(ids(productRepository.findByCategory(Category.PRODUCT_2)), "2-4");
+        assertTrue(productRepository.findByCategory(Category.PRODUCT_3).isEmpty());
+        assertEquals(productRepository.findAll().size(), 5);
+    }
+
+    @Test
+    public void verifyFindByNullCategoryShouldThrowException() {
+        Exception exception = assertThrows(BadArgumentsException.class, () -> {
+            productRepository.findByCategory(null);
+        });
+        assertEquals(exception.getMessage(), "Category is null");
+    }
+
+    @Test
+    public void verifyDiscountedProductsByCategoryShouldOnlyReturnThatCategory() {
+        addDummyProducts();
+        assertEquals(ids(productRepository.findDiscountedProducts(Category.PRODUCT_2, Optional.empty(),
+                Optional.of(0.3))), "4");
+        assertEquals(ids(productRepository.findDiscountedProducts(Category.PRODUCT_1, Optional.of(0.1),
+                Optional.empty())), "3-1");
+        assertEquals(productRepository.findDiscountedProducts(Optional.empty(), Optional.empty()).size(), 4);
+    }
+
+    @Test
+    public void verifyUpdateWithAnotherCategoryShouldMoveTheProduct() {
+        addDummyProducts();
+        Product moved = new Product(1, "Product 1", Category.PRODUCT_3, 100.0, 0.25);
+        productRepository.updateProduct(moved, 1);
+        assertEquals(productRepository.findProductById(1), Optional.of(moved));
+        assertEquals(ids(productRepository.findByCategory(Category.PRODUCT_1)), "3");
+        assertEquals(ids(productRepository.findByCategory(Category.PRODUCT_3)), "1");
+        assertEquals(productRepository.findAll().size(), 5);
+    }
+
+    @Test
+    public void verifyProductWithoutCategoryShouldBeFoundById() {
+        addDummyProducts();
+        assertTrue(productRepository.findProductById(5).isPresent());
+        assertEquals(ids(productRepository.deleteProductById(5)), "1-3-2-4");
+        assertTrue(productRepository.findProductById(5).isEmpty());
+    }
+
+    @Test
+    public void verifyUpdateAndDeleteNonExistingProductShouldThrowException() {
+        Product product = new Product(1, "Product 1", Category.PRODUCT_1, 500.21);
+        assertThrows(NoRecordFoundException.class, () -> productRepository.updateProduct(product, 1));
+        Exception exception = assertThrows(NoRecordFoundException.class, () -> {
+            productRepository.deleteProductById(1);
+        });
+        assertEquals(exception.getMessage(), "No Record Found with the Id 1");
+    }
+
+    private void addDummyProducts() {
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0, 0.25));
+        productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_2, 100.0, 0.35));
+        productRepository.addProduct(new Product(3, "Product 3", Category.PRODUCT_1, 100.0, 0.15));
+        productRepository.addProduct(new Product(4, "Product 4", Category.PRODUCT_2, 100.0, 0.05));
+        productRepository.addProduct(new Product(5, "Product 5", null, 100.0));
+    }
+
+    private static String ids(List<Product> products) {
+        return products.stream().map(product -> product.getProductId().toString()).collect(Collectors.joining("-"));
+    }
+}
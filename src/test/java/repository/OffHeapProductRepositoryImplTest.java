@@ -0,0 +1,203 @@
+package repository;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.repository.OffHeapProductRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapProductRepositoryImplTest {
+    OffHeapProductRepositoryImpl productRepository = new OffHeapProductRepositoryImpl();
+
+    @AfterEach
+    public void clear() {
+        productRepository.deleteAllProducts();
+    }
+
+    @Test
+    public void verifyAddProductWithValidIdShouldSucceed() {
+        Product product = new Product(1, "Product 1", Category.PRODUCT_1, 500.21);
+        productRepository.addProduct(product);
+        assertEquals(productRepository.findProductById(1), Optional.of(product));
+    }
+
+    @Test
+    public void verifyAddProductWithEmptyValueShouldThrowException() {
+        Exception exception = assertThrows(BadArgumentsException.class, () -> {
+            productRepository.addProduct(null);
+        });
+        assertEquals(exception.getMessage(), "Product is null");
+    }
+
+    @Test
+    public void verifyAddProductWithDuplicateValidIdShouldThrowException() {
+        Product product = new Product(1, "Product 1", Category.PRODUCT_1, 500.21);
+        productRepository.addProduct(product);
+        Exception exception = assertThrows(DuplicateIdException.class, () -> {
+            productRepository.addProduct(product);
+        });
+        assertEquals(exception.getMessage(), "This id 1 already exists");
+    }
+
+    @Test
+    public void verifyFindByIdWithNullIdShouldThrowException() {
+        Exception exception = assertThrows(BadArgumentsException.class, () -> {
+            productRepository.findProductById(null);
+        });
+        assertEquals(exception.getMessage(), "ProductId is null");
+    }
+
+    @Test
+    public void verifyUpdateExistingProductShouldKeepItsPlace() {
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 500.21, 0.1));
+        productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_1, 100.0));
+        Product updated = new Product(1, "Product 1", null, 505.21);
+        productRepository.updateProduct(updated, 1);
+        Product found = productRepository.findProductById(1).get();
+        assertEquals(found.getName(), "Product 1");
+        assertNull(found.getCategory());
+        assertEquals(found.getPrice(), 505.21);
+        assertTrue(found.getDiscount().isEmpty());
+        assertEquals(ids(productRepository.findAll()), "1-2");
+    }
+
+    @Test
+    public void verifyUpdateNonExistingProductShouldThrowException() {
+        Product product = new Product(1, "Product 1", Category.PRODUCT_1, 500.21);
+        Exception exception = assertThrows(NoRecordFoundException.class, () -> {
+            productRepository.updateProduct(product, 1);
+        });
+        assertEquals(exception.getMessage(), "No Record Found with the Id 1");
+    }
+
+    @Test
+    public void verifyUpdateWithMismatchingIdShouldThrowException() {
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 500.21));
+        productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_1, 100.0));
+        Exception exception = assertThrows(BadArgumentsException.class, () -> {
+            productRepository.updateProduct(new Product(2, "Product 2", Category.PRODUCT_1, 10.0), 1);
+        });
+        assertEquals(exception.getMessage(), "ProductId doesn't match the product");
+        assertEquals(productRepository.findProductById(2).get().getPrice(), 100.0);
+    }
+
+    @Test
+    public void verifyDeleteProductShouldMoveTheLastProductIntoItsPlace() {
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0, 0.5));
+        productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_1, 100.0));
+        productRepository.addProduct(new Product(3, "Product 3", Category.PRODUCT_2, 100.0, 0.25));
+        List<Product> remaining = productRepository.deleteProductById(1);
+        assertEquals(ids(remaining), "3-2");
+        assertTrue(productRepository.findProductById(1).isEmpty());
+        assertEquals(productRepository.findProductById(3).get().getDiscount(), Optional.of(0.25));
+        assertTrue(productRepository.findProductById(2).get().getDiscount().isEmpty());
+    }
+
+    @Test
+    public void deleteProductWithNonExistingIdShouldFail() {
+        Exception exception = assertThrows(NoRecordFoundException.class, () -> {
+            productRepository.deleteProductById(1);
+        });
+        assertEquals(exception.getMessage(), "No Record Found with the Id 1");
+    }
+
+    @Test
+    public void verifyDiscountedProductsKeepTheExistingBounds() {
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0, 0.25));
+        productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_2, 100.0, 0.35));
+        productRepository.addProduct(new Product(3, "Product 3", Category.PRODUCT_1, 100.0, 0.15));
+        productRepository.addProduct(new Product(4, "Product 4", Category.PRODUCT_2, 100.0, 0.05));
+        productRepository.addProduct(new Product(5, "Product 5", Category.PRODUCT_1, 100.0));
+        productRepository.addProduct(new Product(6, "Product 6", Category.PRODUCT_1, 100.0, 0.0));
+        //lower bound is exclusive and upper bound is inclusive
+        assertEquals(ids(productRepository.findDiscountedProducts(Optional.of(0.05), Optional.of(0.25))), "1-3");
+        assertEquals(ids(productRepository.findDiscountedProducts(Optional.empty(), Optional.empty())), "1-2-3-4");
+        assertEquals(ids(productRepository.findDiscountedProducts(Category.PRODUCT_2, Optional.empty(),
+                Optional.empty())), "2-4");
+        assertEquals(ids(productRepository.findByCategory(Category.PRODUCT_1)), "1-3-5-6");
+    }
+
+    @Test
+    public void verifyDiscountShouldFollowUpdatesAndDeletes() {
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0, 0.25));
+        productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_2, 100.0, 0.25));
+        productRepository.addProduct(new Product(3, "Product 3", Category.PRODUCT_1, 100.0, 0.15));
+        productRepository.updateProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0), 1);
+        productRepository.updateProduct(new Product(3, "Product 3", Category.PRODUCT_1, 100.0, 0.5), 3);
+        productRepository.deleteProductById(2);
+        assertEquals(ids(productRepository.findDiscountedProducts(Optional.empty(), Optional.empty())), "3");
+        productRepository.deleteAllProducts();
+        assertTrue(productRepository.findDiscountedProducts(Optional.empty(), Optional.empty()).isEmpty());
+    }
+
+    @Test
+    public void verifyBulkLoadShouldKeepEveryProduct() {
+        int size = 200_000;
+        for (int i = 0; i < size; i++) {
+            productRepository.addProduct(new Product(i, "Product " + i, Category.PRODUCT_1, 10.0));
+        }
+        assertEquals(productRepository.findAll().size(), size);
+        assertTrue(productRepository.findProductById(size - 1).isPresent());
+    }
+
+    @Test
+    public void verifyRenamingProductsShouldReclaimTheNameArea() {
+        for (int i = 0; i < 2_000; i++) {
+            productRepository.addProduct(new Product(i, "Product " + i, Category.PRODUCT_1, 10.0));
+        }
+        //every round replaces all names, the replaced ones are garbage to compact away
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 2_000; i += 2) {
+                productRepository.updateProduct(new Product(i, "Produkt \u00fc " + round + " " + i,
+                        Category.PRODUCT_2, 10.0), i);
+            }
+        }
+        productRepository.deleteProductById(0);
+        assertEquals(productRepository.findAll().size(), 1_999);
+        assertEquals(productRepository.findProductById(10).get().getName(), "Produkt \u00fc 19 10");
+        assertEquals(productRepository.findProductById(11).get().getName(), "Product 11");
+        assertEquals(productRepository.findByCategory(Category.PRODUCT_2).size(), 999);
+    }
+
+    @Test
+    public void verifySharedNamesShouldFollowRenamesAndDeletes() {
+        //"Aa" and "BB" have the same hash, so their entries share a chain
+        List<String> names = List.of("Aa", "BB", "AaAa", "BBBB", "AaBB", "Product \u00fc");
+        for (int i = 0; i < 3_000; i++) {
+            productRepository.addProduct(new Product(i, names.get(i % names.size()), Category.PRODUCT_1, 1.0));
+        }
+        //renames to unique names and back again, so the shared entries are released and interned over and over
+        for (int round = 0; round < 10; round++) {
+            for (int i = round % 2; i < 3_000; i += 2) {
+                productRepository.updateProduct(new Product(i, "Product " + round + " " + i, Category.PRODUCT_1,
+                        1.0), i);
+            }
+            for (int i = round % 2; i < 3_000; i += 2) {
+                productRepository.updateProduct(new Product(i, names.get(i % names.size()), Category.PRODUCT_1,
+                        1.0), i);
+            }
+        }
+        for (int i = 0; i < 3_000; i += 3) {
+            productRepository.removeProductById(i);
+        }
+        productRepository.updateProduct(new Product(1, "BB", Category.PRODUCT_1, 1.0), 1);
+        assertEquals(productRepository.findAll().size(), 2_000);
+        for (Product product : productRepository.findAll()) {
+            String expected = product.getProductId() == 1 ? "BB" : names.get(product.getProductId() % names.size());
+            assertEquals(product.getName(), expected);
+        }
+    }
+
+    private static String ids(List<Product> products) {
+        return products.stream().map(product -> product.getProductId().toString()).collect(Collectors.joining("-"));
+    }
+}
@@ -0,0 +1,133 @@
+package repository;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.enums.RepositoryType;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductRepositoryFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//the batch methods have to behave the same for every repository type, so every test runs on all of them
+public class ProductRepositoryBulkOperationsTest {
+
+    @Test
+    public void verifyAddAllShouldAddEveryProduct() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = ProductRepositoryFactory.create(type);
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+            List<Product> added = productRepository.addAllProducts(products(2, 3, 4));
+            assertEquals(added.size(), 3, type.name());
+            assertEquals(sortedIds(productRepository.findAll()), "1-2-3-4", type.name());
+        }
+    }
+
+    @Test
+    public void verifyAddAllWithExistingIdShouldAddNothing() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = ProductRepositoryFactory.create(type);
+            productRepository.addProduct(new Product(3, "Product 3", Category.PRODUCT_1, 100.0));
+            Exception exception = assertThrows(DuplicateIdException.class, () ->
+                    productRepository.addAllProducts(products(1, 2, 3)), type.name());
+            assertEquals(exception.getMessage(), "This id 3 already exists");
+            assertEquals(sortedIds(productRepository.findAll()), "3", type.name());
+        }
+    }
+
+    @Test
+    public void verifyAddAllWithRepeatedIdShouldAddNothing() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = ProductRepositoryFactory.create(type);
+            Exception exception = assertThrows(DuplicateIdException.class, () ->
+                    productRepository.addAllProducts(products(1, 2, 1)), type.name());
+            assertEquals(exception.getMessage(), "The id 1 is repeated in the batch");
+            assertTrue(productRepository.findAll().isEmpty(), type.name());
+        }
+    }
+
+    @Test
+    public void verifyAddAllWithNullShouldThrowException() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = ProductRepositoryFactory.create(type);
+            Exception exception = assertThrows(BadArgumentsException.class, () ->
+                    productRepository.addAllProducts(null), type.name());
+            assertEquals(exception.getMessage(), "Products are null");
+            exception = assertThrows(BadArgumentsException.class, () ->
+                    productRepository.addAllProducts(Arrays.asList(products(1).get(0), null)), type.name());
+            assertEquals(exception.getMessage(), "Product is null");
+            assertTrue(productRepository.findAll().isEmpty(), type.name());
+        }
+    }
+
+    @Test
+    public void verifyUpdateAllShouldBeAllOrNothing() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = ProductRepositoryFactory.create(type);
+            productRepository.addAllProducts(products(1, 2, 3));
+            List<Product> updates = new ArrayList<>();
+            updates.add(new Product(1, "Product 1", Category.PRODUCT_3, 1.0, 0.5));
+            updates.add(new Product(5, "Product 5", Category.PRODUCT_3, 1.0));
+            Exception exception = assertThrows(NoRecordFoundException.class, () ->
+                    productRepository.updateAllProducts(updates), type.name());
+            assertEquals(exception.getMessage(), "No Record Found with the Id 5");
+            assertEquals(productRepository.findProductById(1).get().getPrice(), 10.0, type.name());
+
+            productRepository.updateAllProducts(updates.subList(0, 1));
+            assertEquals(productRepository.findProductById(1).get(),
+                    new Product(1, "Product 1", Category.PRODUCT_3, 1.0, 0.5), type.name());
+            assertEquals(sortedIds(productRepository.findByCategory(Category.PRODUCT_3)), "1", type.name());
+            assertEquals(productRepository.findAll().size(), 3, type.name());
+        }
+    }
+
+    @Test
+    public void verifyDeleteByIdsShouldBeAllOrNothing() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = ProductRepositoryFactory.create(type);
+            productRepository.addAllProducts(products(1, 2, 3, 4));
+            Exception exception = assertThrows(NoRecordFoundException.class, () ->
+                    productRepository.deleteProductsByIds(List.of(1, 9)), type.name());
+            assertEquals(exception.getMessage(), "No Record Found with the Id 9");
+            assertEquals(productRepository.findAll().size(), 4, type.name());
+
+            productRepository.deleteProductsByIds(List.of(1, 3));
+            assertEquals(sortedIds(productRepository.findAll()), "2-4", type.name());
+            assertTrue(productRepository.findProductById(3).isEmpty(), type.name());
+        }
+    }
+
+    @Test
+    public void verifyBulkLoadShouldBeLinear() {
+        List<Product> catalog = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            catalog.add(new Product(i, "Product " + i, Category.PRODUCT_1, 10.0));
+        }
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = ProductRepositoryFactory.create(type);
+            productRepository.addAllProducts(catalog);
+            assertEquals(productRepository.findAll().size(), catalog.size(), type.name());
+        }
+    }
+
+    private static List<Product> products(int... ids) {
+        List<Product> products = new ArrayList<>();
+        for (int id : ids) {
+            products.add(new Product(id, "Product " + id, Category.PRODUCT_1, 10.0));
+        }
+        return products;
+    }
+
+    private static String sortedIds(List<Product> products) {
+        return products.stream().map(Product::getProductId).sorted().map(String::valueOf)
+                .collect(Collectors.joining("-"));
+    }
+}
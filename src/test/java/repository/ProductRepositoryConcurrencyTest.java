@@ -0,0 +1,215 @@
+package repository;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.DuplicateIdException;
+import org.example.repository.CategoryPartitionedProductRepositoryImpl;
+import org.example.repository.ColumnarProductRepositoryImpl;
+import org.example.repository.IndexedProductRepositoryImpl;
+import org.example.repository.OffHeapProductRepositoryImpl;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductRepositoryImpl;
+import org.example.repository.SnapshotProductRepositoryImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//stress tests for the thread safety of the repositories, every scenario runs on 64 threads released at once
+public class ProductRepositoryConcurrencyTest {
+    private static final int THREADS = 64;
+
+    @Test
+    public void verifyConcurrentAddsShouldNotLoseWritesInListRepository() throws Exception {
+        verifyConcurrentAddsShouldNotLoseWrites(ProductRepositoryImpl::new, 100);
+    }
+
+    @Test
+    public void verifyConcurrentAddsShouldNotLoseWritesInIndexedRepository() throws Exception {
+        verifyConcurrentAddsShouldNotLoseWrites(IndexedProductRepositoryImpl::new, 1_000);
+    }
+
+    @Test
+    public void verifyConcurrentAddsShouldNotLoseWritesInSnapshotRepository() throws Exception {
+        verifyConcurrentAddsShouldNotLoseWrites(SnapshotProductRepositoryImpl::new, 1_000);
+    }
+
+    @Test
+    public void verifyConcurrentAddsShouldNotLoseWritesInPartitionedRepository() throws Exception {
+        verifyConcurrentAddsShouldNotLoseWrites(CategoryPartitionedProductRepositoryImpl::new, 1_000);
+    }
+
+    @Test
+    public void verifyConcurrentAddsShouldNotLoseWritesInColumnarRepository() throws Exception {
+        verifyConcurrentAddsShouldNotLoseWrites(ColumnarProductRepositoryImpl::new, 1_000);
+    }
+
+    @Test
+    public void verifyConcurrentAddsShouldNotLoseWritesInOffHeapRepository() throws Exception {
+        verifyConcurrentAddsShouldNotLoseWrites(OffHeapProductRepositoryImpl::new, 1_000);
+    }
+
+    @Test
+    public void verifyContendedAddsShouldNotCreateDuplicatesInListRepository() throws Exception {
+        verifyContendedAddsShouldNotCreateDuplicates(ProductRepositoryImpl::new, 100);
+    }
+
+    @Test
+    public void verifyContendedAddsShouldNotCreateDuplicatesInIndexedRepository() throws Exception {
+        verifyContendedAddsShouldNotCreateDuplicates(IndexedProductRepositoryImpl::new, 1_000);
+    }
+
+    @Test
+    public void verifyContendedAddsShouldNotCreateDuplicatesInSnapshotRepository() throws Exception {
+        verifyContendedAddsShouldNotCreateDuplicates(SnapshotProductRepositoryImpl::new, 1_000);
+    }
+
+    @Test
+    public void verifyContendedAddsShouldNotCreateDuplicatesInPartitionedRepository() throws Exception {
+        verifyContendedAddsShouldNotCreateDuplicates(CategoryPartitionedProductRepositoryImpl::new, 1_000);
+    }
+
+    @Test
+    public void verifyContendedAddsShouldNotCreateDuplicatesInColumnarRepository() throws Exception {
+        verifyContendedAddsShouldNotCreateDuplicates(ColumnarProductRepositoryImpl::new, 1_000);
+    }
+
+    @Test
+    public void verifyContendedAddsShouldNotCreateDuplicatesInOffHeapRepository() throws Exception {
+        verifyContendedAddsShouldNotCreateDuplicates(OffHeapProductRepositoryImpl::new, 1_000);
+    }
+
+    @Test
+    public void verifyConcurrentUpdatesShouldKeepLastWriteInListRepository() throws Exception {
+        verifyConcurrentUpdatesShouldKeepLastWrite(ProductRepositoryImpl::new, 10);
+    }
+
+    @Test
+    public void verifyConcurrentUpdatesShouldKeepLastWriteInIndexedRepository() throws Exception {
+        verifyConcurrentUpdatesShouldKeepLastWrite(IndexedProductRepositoryImpl::new, 100);
+    }
+
+    @Test
+    public void verifyConcurrentUpdatesShouldKeepLastWriteInSnapshotRepository() throws Exception {
+        verifyConcurrentUpdatesShouldKeepLastWrite(SnapshotProductRepositoryImpl::new, 100);
+    }
+
+    @Test
+    public void verifyConcurrentUpdatesShouldKeepLastWriteInPartitionedRepository() throws Exception {
+        verifyConcurrentUpdatesShouldKeepLastWrite(CategoryPartitionedProductRepositoryImpl::new, 100);
+    }
+
+    @Test
+    public void verifyConcurrentUpdatesShouldKeepLastWriteInColumnarRepository() throws Exception {
+        verifyConcurrentUpdatesShouldKeepLastWrite(ColumnarProductRepositoryImpl::new, 100);
+    }
+
+    @Test
+    public void verifyConcurrentUpdatesShouldKeepLastWriteInOffHeapRepository() throws Exception {
+        verifyConcurrentUpdatesShouldKeepLastWrite(OffHeapProductRepositoryImpl::new, 100);
+    }
+
+    //every thread adds its own ids, every one of them has to be there at the end
+    private void verifyConcurrentAddsShouldNotLoseWrites(Supplier<ProductRepository> factory, int perThread)
+            throws Exception {
+        ProductRepository productRepository = factory.get();
+        runConcurrently(thread -> {
+            for (int i = 0; i < perThread; i++) {
+                int id = thread * perThread + i;
+                productRepository.addProduct(new Product(id, "Product " + id, Category.PRODUCT_1, 10.0));
+            }
+        });
+        List<Product> products = productRepository.findAll();
+        assertEquals(products.size(), THREADS * perThread);
+        for (int id = 0; id < THREADS * perThread; id++) {
+            assertTrue(productRepository.findProductById(id).isPresent());
+        }
+    }
+
+    //every thread tries to add the same ids, each id must be accepted exactly once
+    private void verifyContendedAddsShouldNotCreateDuplicates(Supplier<ProductRepository> factory, int ids)
+            throws Exception {
+        ProductRepository productRepository = factory.get();
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(thread -> {
+            for (int i = 0; i < ids; i++) {
+                //spread the starting point so threads collide on different ids
+                int id = (i + thread * 7) % ids;
+                try {
+                    productRepository.addProduct(new Product(id, "Product " + thread, Category.PRODUCT_1, 10.0));
+                    accepted.incrementAndGet();
+                } catch (DuplicateIdException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(accepted.get(), ids);
+        assertEquals(rejected.get(), ids * (THREADS - 1));
+        List<Product> products = productRepository.findAll();
+        Set<Integer> distinctIds = new HashSet<>();
+        products.forEach(product -> distinctIds.add(product.getProductId()));
+        assertEquals(products.size(), ids);
+        assertEquals(distinctIds.size(), ids);
+    }
+
+    //threads update their own products while the others add and delete scratch products,
+    //the last price every thread wrote must survive
+    private void verifyConcurrentUpdatesShouldKeepLastWrite(Supplier<ProductRepository> factory, int rounds)
+            throws Exception {
+        ProductRepository productRepository = factory.get();
+        for (int thread = 0; thread < THREADS; thread++) {
+            productRepository.addProduct(new Product(thread, "Product " + thread, Category.PRODUCT_1, 0.0));
+        }
+        runConcurrently(thread -> {
+            for (int round = 1; round <= rounds; round++) {
+                productRepository.updateProduct(new Product(thread, "Product " + thread, Category.PRODUCT_1,
+                        (double) round), thread);
+                int scratchId = THREADS + thread;
+                productRepository.addProduct(new Product(scratchId, "Scratch", Category.PRODUCT_2, 1.0));
+                productRepository.deleteProductById(scratchId);
+            }
+        });
+        assertEquals(productRepository.findAll().size(), THREADS);
+        for (int thread = 0; thread < THREADS; thread++) {
+            assertEquals(productRepository.findProductById(thread).get().getPrice(), (double) rounds);
+        }
+    }
+
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                int threadNumber = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(threadNumber);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
@@ -0,0 +1,46 @@
+package repository;
+
+import org.example.enums.RepositoryType;
+import org.example.exceptions.BadArgumentsException;
+import org.example.repository.OffHeapProductRepositoryImpl;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductRepositoryFactory;
+import org.example.repository.ProductRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductRepositoryFactoryTest {
+
+    @AfterEach
+    public void clear() {
+        System.clearProperty(ProductRepositoryFactory.REPOSITORY_TYPE_PROPERTY);
+    }
+
+    @Test
+    public void verifyDefaultRepositoryShouldBeTheListRepository() {
+        assertTrue(ProductRepositoryFactory.create() instanceof ProductRepositoryImpl);
+    }
+
+    @Test
+    public void verifyRepositoryTypeShouldBeSelectableWithProperty() {
+        System.setProperty(ProductRepositoryFactory.REPOSITORY_TYPE_PROPERTY, "off_heap");
+        assertTrue(ProductRepositoryFactory.create() instanceof OffHeapProductRepositoryImpl);
+    }
+
+    @Test
+    public void verifyEveryRepositoryTypeShouldBeCreated() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = ProductRepositoryFactory.create(type);
+            assertTrue(productRepository.findAll().isEmpty());
+        }
+    }
+
+    @Test
+    public void verifyUnknownRepositoryTypeShouldThrowException() {
+        System.setProperty(ProductRepositoryFactory.REPOSITORY_TYPE_PROPERTY, "unknown");
+        Exception exception = assertThrows(BadArgumentsException.class, ProductRepositoryFactory::create);
+        assertEquals(exception.getMessage(), "Unknown repository type unknown");
+    }
+}
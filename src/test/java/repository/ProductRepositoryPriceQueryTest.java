@@ -0,0 +1,133 @@
+package repository;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.enums.RepositoryType;
+import org.example.exceptions.BadArgumentsException;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductRepositoryFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//the price queries have to give the same answer for every repository type, with or without a price index
+public class ProductRepositoryPriceQueryTest {
+
+    @Test
+    public void verifyPriceRangeShouldBeInclusiveAndOrderedByPrice() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = catalog(type);
+            assertEquals(ids(productRepository.findByPriceRange(Optional.of(20.0), Optional.of(50.0))),
+                    "2-5-4", type.name());
+            assertEquals(ids(productRepository.findByPriceRange(Optional.empty(), Optional.of(20.0))),
+                    "1-2", type.name());
+            assertEquals(ids(productRepository.findByPriceRange(Optional.of(60.0), Optional.empty())),
+                    "3", type.name());
+            assertEquals(ids(productRepository.findByPriceRange(Optional.of(50.0), Optional.of(20.0))),
+                    "", type.name());
+        }
+    }
+
+    @Test
+    public void verifyPriceRangeShouldBeLimitedToTheCategory() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = catalog(type);
+            assertEquals(ids(productRepository.findByPriceRange(Category.PRODUCT_1, Optional.empty(),
+                    Optional.empty())), "1-5-3", type.name());
+        }
+    }
+
+    @Test
+    public void verifyCheapestShouldUseTheEffectivePrice() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = catalog(type);
+            //4 costs 50 but 8 after its discount
+            assertEquals(ids(productRepository.findCheapestProducts(3)), "4-1-2", type.name());
+            assertEquals(ids(productRepository.findCheapestProducts(10)), "4-1-2-5-3", type.name());
+            assertEquals(ids(productRepository.findCheapestProducts(0)), "", type.name());
+            assertEquals(ids(productRepository.findCheapestProducts(Category.PRODUCT_1, 2)), "1-5", type.name());
+        }
+    }
+
+    @Test
+    public void verifyCategoryPriceRangeShouldFollowCategoryChanges() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = catalog(type);
+            assertEquals(ids(productRepository.findByPriceRange(Category.PRODUCT_1, Optional.of(20.0),
+                    Optional.of(80.0))), "5-3", type.name());
+            //4 has no category, it's never in a category range
+            assertEquals(ids(productRepository.findByPriceRange(Category.PRODUCT_2, Optional.of(40.0),
+                    Optional.of(60.0))), "", type.name());
+            productRepository.updateProduct(new Product(1, "Product 1", Category.PRODUCT_2, 10.0), 1);
+            assertEquals(ids(productRepository.findByPriceRange(Category.PRODUCT_1, Optional.empty(),
+                    Optional.empty())), "5-3", type.name());
+            assertEquals(ids(productRepository.findByPriceRange(Category.PRODUCT_2, Optional.empty(),
+                    Optional.empty())), "1-2", type.name());
+            assertEquals(ids(productRepository.findCheapestProducts(Category.PRODUCT_2, 1)), "1", type.name());
+        }
+    }
+
+    @Test
+    public void verifyCheapestInRangeShouldBeInclusiveOnTheEffectivePrice() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = catalog(type);
+            assertEquals(ids(productRepository.findCheapestProducts(Optional.of(9.0), Optional.of(25.0), 2)),
+                    "1-2", type.name());
+            assertEquals(ids(productRepository.findCheapestProducts(Optional.of(20.0), Optional.empty(), 10)),
+                    "2-5-3", type.name());
+            //4 costs 50, only its effective price of 8 counts
+            assertEquals(ids(productRepository.findCheapestProducts(Optional.empty(), Optional.of(10.0), 10)),
+                    "4-1", type.name());
+            assertEquals(ids(productRepository.findCheapestProducts(Optional.of(40.0), Optional.of(60.0), 10)),
+                    "", type.name());
+            assertThrows(BadArgumentsException.class, () ->
+                    productRepository.findCheapestProducts(Optional.empty(), Optional.empty(), -1), type.name());
+        }
+    }
+
+    @Test
+    public void verifyPriceQueriesShouldFollowTheWrites() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = catalog(type);
+            productRepository.updateProduct(new Product(3, "Product 3", Category.PRODUCT_1, 1.0), 3);
+            productRepository.deleteProductById(4);
+            productRepository.addAllProducts(List.of(new Product(6, "Product 6", Category.PRODUCT_2, 25.0, 23.0)));
+            assertEquals(ids(productRepository.findCheapestProducts(3)), "3-6-1", type.name());
+            assertEquals(ids(productRepository.findByPriceRange(Optional.of(20.0), Optional.of(50.0))),
+                    "2-6-5", type.name());
+            productRepository.deleteAllProducts();
+            assertEquals(ids(productRepository.findCheapestProducts(3)), "", type.name());
+        }
+    }
+
+    @Test
+    public void verifyInvalidArgumentsShouldThrowBadArguments() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = catalog(type);
+            assertThrows(BadArgumentsException.class, () -> productRepository.findCheapestProducts(-1), type.name());
+            assertThrows(BadArgumentsException.class, () ->
+                    productRepository.findCheapestProducts(null, 3), type.name());
+            assertThrows(BadArgumentsException.class, () ->
+                    productRepository.findByPriceRange(null, Optional.empty(), Optional.empty()), type.name());
+        }
+    }
+
+    private static ProductRepository catalog(RepositoryType type) {
+        ProductRepository productRepository = ProductRepositoryFactory.create(type);
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 10.0));
+        productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_2, 20.0));
+        productRepository.addProduct(new Product(3, "Product 3", Category.PRODUCT_1, 70.0));
+        productRepository.addProduct(new Product(4, "Product 4", null, 50.0, 42.0));
+        productRepository.addProduct(new Product(5, "Product 5", Category.PRODUCT_1, 30.0, 5.0));
+        return productRepository;
+    }
+
+    private static String ids(List<Product> products) {
+        return products.stream().map(product -> String.valueOf(product.getProductId()))
+                .collect(Collectors.joining("-"));
+    }
+}
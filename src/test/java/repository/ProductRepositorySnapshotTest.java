@@ -0,0 +1,125 @@
+package repository;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.enums.RepositoryType;
+import org.example.exceptions.DuplicateIdException;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductRepositoryFactory;
+import org.example.repository.ProductSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//snapshots have to be isolated from later writes and numbered the same way for every repository type
+public class ProductRepositorySnapshotTest {
+
+    @Test
+    public void verifySnapshotShouldNotSeeLaterWrites() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = ProductRepositoryFactory.create(type);
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0, 10.0));
+            productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_2, 200.0));
+            ProductSnapshot snapshot = productRepository.snapshot();
+
+            productRepository.updateProduct(new Product(1, "Product 1", Category.PRODUCT_2, 90.0), 1);
+            productRepository.deleteProductById(2);
+            productRepository.addProduct(new Product(3, "Product 3", Category.PRODUCT_1, 50.0, 5.0));
+
+            assertEquals(snapshot.size(), 2, type.name());
+            assertEquals(snapshot.findProductById(1),
+                    Optional.of(new Product(1, "Product 1", Category.PRODUCT_1, 100.0, 10.0)), type.name());
+            assertTrue(snapshot.findProductById(2).isPresent(), type.name());
+            assertEquals(snapshot.findProductById(3), Optional.empty(), type.name());
+            assertEquals(snapshot.findDiscountedProducts(Optional.empty(), Optional.empty()).size(), 1, type.name());
+            assertEquals(snapshot.findByCategory(Category.PRODUCT_1).size(), 1, type.name());
+            assertEquals(snapshot.findByPriceRange(Optional.of(150.0), Optional.empty()).size(), 1, type.name());
+            assertEquals(productRepository.snapshot().size(), 2, type.name());
+            assertEquals(productRepository.snapshot().findProductById(3).get().getName(), "Product 3", type.name());
+        }
+    }
+
+    @Test
+    public void verifySnapshotPriceQueriesShouldMatchTheRepository() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = ProductRepositoryFactory.create(type);
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 10.0));
+            productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_2, 20.0));
+            productRepository.addProduct(new Product(3, "Product 3", null, 50.0, 42.0));
+            productRepository.addProduct(new Product(4, "Product 4", Category.PRODUCT_1, 30.0, 5.0));
+            ProductSnapshot snapshot = productRepository.snapshot();
+            productRepository.deleteAllProducts();
+
+            assertEquals(snapshot.findCheapestProducts(2), List.of(new Product(3, "Product 3", null, 50.0, 42.0),
+                    new Product(1, "Product 1", Category.PRODUCT_1, 10.0)), type.name());
+            assertEquals(snapshot.findCheapestProducts(Category.PRODUCT_1, 1),
+                    List.of(new Product(1, "Product 1", Category.PRODUCT_1, 10.0)), type.name());
+            assertEquals(snapshot.findCheapestProducts(Optional.of(20.0), Optional.of(25.0), 5),
+                    List.of(new Product(2, "Product 2", Category.PRODUCT_2, 20.0),
+                            new Product(4, "Product 4", Category.PRODUCT_1, 30.0, 5.0)), type.name());
+            assertEquals(snapshot.findByPriceRange(Category.PRODUCT_1, Optional.of(20.0), Optional.empty()),
+                    List.of(new Product(4, "Product 4", Category.PRODUCT_1, 30.0, 5.0)), type.name());
+        }
+    }
+
+    @Test
+    public void verifyVersionShouldOnlyChangeWithSuccessfulWrites() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = ProductRepositoryFactory.create(type);
+            long initial = productRepository.snapshot().version();
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0));
+            long afterAdd = productRepository.snapshot().version();
+            assertTrue(afterAdd > initial, type.name());
+            assertThrows(DuplicateIdException.class, () ->
+                    productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0)));
+            assertEquals(productRepository.snapshot().version(), afterAdd, type.name());
+            productRepository.addAllProducts(List.of(new Product(2, "Product 2", Category.PRODUCT_1, 1.0),
+                    new Product(3, "Product 3", Category.PRODUCT_1, 1.0)));
+            productRepository.deleteAllProducts();
+            assertTrue(productRepository.snapshot().version() > afterAdd, type.name());
+        }
+    }
+
+    //with adds only, every write adds exactly one product, so a consistent snapshot has as many products as its
+    //version says, a torn snapshot (list of one version, number of another) would break that
+    @Test
+    public void verifySnapshotsTakenDuringWritesShouldBeConsistent() throws Exception {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = ProductRepositoryFactory.create(type);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            AtomicBoolean writing = new AtomicBoolean(true);
+            try {
+                Future<?> writer = executor.submit(() -> {
+                    for (int id = 0; id < 2_000; id++) {
+                        productRepository.addProduct(new Product(id, "Product " + id, Category.PRODUCT_1, 1.0));
+                    }
+                    writing.set(false);
+                });
+                Future<?>[] readers = new Future<?>[3];
+                for (int reader = 0; reader < readers.length; reader++) {
+                    readers[reader] = executor.submit(() -> {
+                        do {
+                            ProductSnapshot snapshot = productRepository.snapshot();
+                            assertEquals((long) snapshot.size(), snapshot.version(), type.name());
+                            assertEquals(snapshot.findAll().size(), snapshot.size(), type.name());
+                        } while (writing.get());
+                    });
+                }
+                writer.get(30, TimeUnit.SECONDS);
+                for (Future<?> reader : readers) {
+                    reader.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package repository;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.enums.RepositoryType;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductRepositoryFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//streams, pages and removeProductById have to behave the same for every repository type
+public class ProductRepositoryStreamingTest {
+
+    @Test
+    public void verifyStreamAllShouldContainTheWholeCatalog() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = catalog(type, 10);
+            assertEquals(productRepository.streamAll().count(), 10L, type.name());
+            assertEquals(sortedIds(productRepository.streamAll().collect(Collectors.toList())),
+                    sortedIds(productRepository.findAll()), type.name());
+        }
+    }
+
+    @Test
+    public void verifyStreamDiscountedShouldMatchFindDiscounted() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = catalog(type, 10);
+            assertEquals(sortedIds(productRepository.streamDiscountedProducts(Optional.of(2.0), Optional.of(6.0))
+                    .collect(Collectors.toList())), "3-4-5-6", type.name());
+            assertEquals(sortedIds(productRepository.streamDiscountedProducts(Optional.empty(), Optional.empty())
+                    .collect(Collectors.toList())), sortedIds(productRepository.findDiscountedProducts(
+                            Optional.empty(), Optional.empty())), type.name());
+        }
+    }
+
+    @Test
+    public void verifyOffsetPagesShouldCoverTheCatalogOnce() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = catalog(type, 10);
+            List<Product> pages = new ArrayList<>();
+            for (int offset = 0; offset < 12; offset += 3) {
+                List<Product> page = productRepository.findAll(offset, 3);
+                assertTrue(page.size() <= 3, type.name());
+                pages.addAll(page);
+            }
+            assertEquals(pages, productRepository.streamAll().collect(Collectors.toList()), type.name());
+            assertEquals(productRepository.findAll(20, 3).size(), 0, type.name());
+            assertEquals(productRepository.findAll(0, 0).size(), 0, type.name());
+        }
+    }
+
+    @Test
+    public void verifyOffsetPagesShouldFollowTheStreamOrder() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = ProductRepositoryFactory.create(type);
+            //ids out of order and in different partitions
+            productRepository.addProduct(new Product(3, "Product 3", Category.PRODUCT_1, 1.0));
+            productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_2, 1.0));
+            productRepository.addProduct(new Product(4, "Product 4", null, 1.0));
+            productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_1, 1.0));
+            List<Product> streamed = productRepository.streamAll().collect(Collectors.toList());
+            assertEquals(productRepository.findAll(0, 4), streamed, type.name());
+            assertEquals(productRepository.findAll(1, 2), streamed.subList(1, 3), type.name());
+            assertEquals(productRepository.findAll(3, Integer.MAX_VALUE), streamed.subList(3, 4), type.name());
+        }
+    }
+
+    @Test
+    public void verifyKeysetPagesShouldBeOrderedById() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = catalog(type, 10);
+            List<Product> firstPage = productRepository.findAllAfter(Optional.empty(), 4);
+            assertEquals(ids(firstPage), "1-2-3-4", type.name());
+            List<Product> secondPage = productRepository.findAllAfter(Optional.of(4), 4);
+            assertEquals(ids(secondPage), "5-6-7-8", type.name());
+            //a product deleted from an earlier page doesn't shift the later ones
+            productRepository.deleteProductById(2);
+            assertEquals(ids(productRepository.findAllAfter(Optional.of(8), 4)), "9-10", type.name());
+        }
+    }
+
+    @Test
+    public void verifyKeysetPagesShouldMatchTheSortedCatalog() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = ProductRepositoryFactory.create(type);
+            //ids out of insertion order and spread over the categories
+            for (int i = 0; i < 1000; i++) {
+                int id = (i * 7919) % 1000;
+                productRepository.addProduct(new Product(id, "Product " + id, Category.values()[id % 3], 1.0));
+            }
+            List<Product> pages = new ArrayList<>();
+            Optional<Integer> afterId = Optional.empty();
+            for (List<Product> page = productRepository.findAllAfter(afterId, 64); !page.isEmpty();
+                 page = productRepository.findAllAfter(afterId, 64)) {
+                pages.addAll(page);
+                afterId = Optional.of(page.get(page.size() - 1).getProductId());
+            }
+            assertEquals(ids(pages), sortedIds(productRepository.findAll()), type.name());
+            assertEquals(productRepository.streamAll().count(), 1000L, type.name());
+        }
+    }
+
+    @Test
+    public void verifyWriteWhileStreamingShouldNotRepeatProducts() {
+        for (RepositoryType type : List.of(RepositoryType.INDEXED, RepositoryType.PARTITIONED)) {
+            ProductRepository productRepository = catalog(type, 1000);
+            Iterator<Product> products = productRepository.streamAll().iterator();
+            List<Product> streamed = new ArrayList<>();
+            streamed.add(products.next());
+            //deletes and adds between two chunks, the products there the whole time are streamed once
+            productRepository.deleteProductById(500);
+            productRepository.addProduct(new Product(2000, "Product 2000", Category.PRODUCT_1, 100.0));
+            products.forEachRemaining(streamed::add);
+            assertEquals(streamed.size(), 1000, type.name());
+            assertEquals(streamed.stream().map(Product::getProductId).distinct().count(), 1000L, type.name());
+        }
+        for (RepositoryType type : List.of(RepositoryType.COLUMNAR, RepositoryType.OFF_HEAP)) {
+            ProductRepository productRepository = catalog(type, 1000);
+            Iterator<Product> products = productRepository.streamAll().iterator();
+            products.next();
+            //slots move on a delete, so the stream fails instead of skipping a product
+            productRepository.deleteProductById(1);
+            assertThrows(ConcurrentModificationException.class, () -> products.forEachRemaining(product -> { }),
+                    type.name());
+        }
+    }
+
+    @Test
+    public void verifyInvalidPageShouldThrowBadArguments() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = catalog(type, 3);
+            assertThrows(BadArgumentsException.class, () -> productRepository.findAll(-1, 3), type.name());
+            assertThrows(BadArgumentsException.class, () -> productRepository.findAll(0, -3), type.name());
+            assertThrows(BadArgumentsException.class, () ->
+                    productRepository.findAllAfter(Optional.empty(), -1), type.name());
+        }
+    }
+
+    @Test
+    public void verifyRemoveShouldReturnOnlyTheRemovedProduct() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = catalog(type, 5);
+            Product removed = productRepository.removeProductById(3);
+            assertEquals(removed.getProductId(), 3, type.name());
+            assertEquals(removed.getDiscount(), Optional.of(3.0), type.name());
+            assertEquals(productRepository.findProductById(3), Optional.empty(), type.name());
+            assertEquals(sortedIds(productRepository.findAll()), "1-2-4-5", type.name());
+            assertEquals(sortedIds(productRepository.findDiscountedProducts(Optional.of(2.0), Optional.of(4.0))),
+                    "4", type.name());
+        }
+    }
+
+    @Test
+    public void verifyRemoveOfMissingIdShouldThrowNoRecordFound() {
+        for (RepositoryType type : RepositoryType.values()) {
+            ProductRepository productRepository = catalog(type, 3);
+            Exception exception = assertThrows(NoRecordFoundException.class, () ->
+                    productRepository.removeProductById(7), type.name());
+            assertEquals(exception.getMessage(), "No Record Found with the Id 7");
+            assertThrows(BadArgumentsException.class, () -> productRepository.removeProductById(null), type.name());
+        }
+    }
+
+    //product i has a discount of i
+    private static ProductRepository catalog(RepositoryType type, int size) {
+        ProductRepository productRepository = ProductRepositoryFactory.create(type);
+        for (int id = 1; id <= size; id++) {
+            productRepository.addProduct(new Product(id, "Product " + id, Category.PRODUCT_1, 100.0, (double) id));
+        }
+        return productRepository;
+    }
+
+    private static String ids(List<Product> products) {
+        return products.stream().map(product -> String.valueOf(product.getProductId()))
+                .collect(Collectors.joining("-"));
+    }
+
+    private static String sortedIds(List<Product> products) {
+        return products.stream().map(Product::getProductId).sorted().map(String::valueOf)
+                .collect(Collectors.joining("-"));
+    }
+}
@@ -111,6 +111,17 @@ public class ProductServiceImplTest {
         assertEquals(exception.getMessage(), "No Record Found with the Id 1");
     }
 
+    @Test
+    public void verifyUpdateWithMismatchingIdShouldThrowException() {
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 500.21));
+        Exception exception = assertThrows(BadArgumentsException.class, () -> {
+            productRepository.updateProduct(new Product(5, "Product 5", Category.PRODUCT_1, 10.0), 1);
+        });
+        assertEquals(exception.getMessage(), "ProductId doesn't match the product");
+        assertEquals(productRepository.findProductById(1).get().getPrice(), 500.21);
+        assertEquals(productRepository.findProductById(5), Optional.empty());
+    }
+
     @Test
     public void verifyUpdateWithNullProductIdShouldThrowException() {
         Product product1 = new Product(1, "Product 1", Category.PRODUCT_1, 500.21);
@@ -259,4 +270,22 @@ public class ProductServiceImplTest {
         //since we have the products all in the specified range except 5th and 6th since it doesn't have any discount
         assertEquals(discountedIds, "1-2-3-4");
     }
+
+    @Test
+    public void verifyFindByCategoryShouldOnlyReturnThatCategory() {
+        Product product1 = new Product(1, "Product 1", Category.PRODUCT_1, 100.0, 0.25);
+        Product product2 = new Product(2, "Product 2", Category.PRODUCT_2, 100.0, 0.35);
+        Product product3 = new Product(3, "Product 3", Category.PRODUCT_1, 100.0, 0.15);
+        productRepository.addProduct(product1);
+        productRepository.addProduct(product2);
+        productRepository.addProduct(product3);
+
+        String categoryIds = productRepository.findByCategory(Category.PRODUCT_1).stream()
+                .map(product -> product.getProductId().toString()).collect(Collectors.joining("-"));
+        assertEquals(categoryIds, "1-3");
+        String discountedIds = productRepository.findDiscountedProducts(Category.PRODUCT_2, Optional.empty(),
+                Optional.empty()).stream().map(product -> product.getProductId().toString())
+                .collect(Collectors.joining("-"));
+        assertEquals(discountedIds, "2");
+    }
 }
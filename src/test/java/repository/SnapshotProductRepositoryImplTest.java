@@ -0,0 +1,133 @@
+package repository;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.DuplicateIdException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.repository.SnapshotProductRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotProductRepositoryImplTest {
+    SnapshotProductRepositoryImpl productRepository = new SnapshotProductRepositoryImpl();
+
+    @AfterEach
+    public void clear() {
+        productRepository.deleteAllProducts();
+    }
+
+    @Test
+    public void verifyAddProductWithValidIdShouldSucceed() {
+        Product product = new Product(1, "Product 1", Category.PRODUCT_1, 500.21);
+        productRepository.addProduct(product);
+        assertEquals(productRepository.findProductById(1), Optional.of(product));
+    }
+
+    @Test
+    public void verifyAddProductWithEmptyValueShouldThrowException() {
+        Exception exception = assertThrows(BadArgumentsException.class, () -> {
+            productRepository.addProduct(null);
+        });
+        assertEquals(exception.getMessage(), "Product is null");
+    }
+
+    @Test
+    public void verifyAddProductWithDuplicateValidIdShouldThrowException() {
+        Product product = new Product(1, "Product 1", Category.PRODUCT_1, 500.21);
+        productRepository.addProduct(product);
+        Exception exception = assertThrows(DuplicateIdException.class, () -> {
+            productRepository.addProduct(product);
+        });
+        assertEquals(exception.getMessage(), "This id 1 already exists");
+    }
+
+    @Test
+    public void verifyFindByIdWithNullIdShouldThrowException() {
+        Exception exception = assertThrows(BadArgumentsException.class, () -> {
+            productRepository.findProductById(null);
+        });
+        assertEquals(exception.getMessage(), "ProductId is null");
+    }
+
+    @Test
+    public void verifyUpdateExistingProductShouldNotChangeEarlierReads() {
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 500.21));
+        productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_1, 100.0));
+        List<Product> before = productRepository.findAll();
+        Product updated = new Product(1, "Product 1", Category.PRODUCT_2, 505.21);
+        productRepository.updateProduct(updated, 1);
+        assertEquals(productRepository.findProductById(1), Optional.of(updated));
+        assertEquals(before.get(0).getPrice(), 500.21);
+        assertEquals(productRepository.findAll().size(), 2);
+    }
+
+    @Test
+    public void verifyUpdateNonExistingProductShouldThrowException() {
+        Product product = new Product(1, "Product 1", Category.PRODUCT_1, 500.21);
+        Exception exception = assertThrows(NoRecordFoundException.class, () -> {
+            productRepository.updateProduct(product, 1);
+        });
+        assertEquals(exception.getMessage(), "No Record Found with the Id 1");
+    }
+
+    @Test
+    public void verifyUpdateWithMismatchingIdShouldThrowException() {
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 500.21));
+        productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_1, 100.0));
+        Exception exception = assertThrows(BadArgumentsException.class, () -> {
+            productRepository.updateProduct(new Product(2, "Product 2", Category.PRODUCT_1, 10.0), 1);
+        });
+        assertEquals(exception.getMessage(), "ProductId doesn't match the product");
+        assertEquals(productRepository.findProductById(2).get().getPrice(), 100.0);
+    }
+
+    @Test
+    public void verifyDeleteProductShouldReturnRemainingProducts() {
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0, 0.5));
+        productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_1, 100.0, 0.5));
+        List<Product> remaining = productRepository.deleteProductById(1);
+        assertEquals(ids(remaining), "2");
+        assertTrue(productRepository.findProductById(1).isEmpty());
+    }
+
+    @Test
+    public void deleteProductWithNonExistingIdShouldFail() {
+        Exception exception = assertThrows(NoRecordFoundException.class, () -> {
+            productRepository.deleteProductById(1);
+        });
+        assertEquals(exception.getMessage(), "No Record Found with the Id 1");
+    }
+
+    @Test
+    public void verifyDiscountedProductsKeepTheExistingBounds() {
+        productRepository.addProduct(new Product(1, "Product 1", Category.PRODUCT_1, 100.0, 0.25));
+        productRepository.addProduct(new Product(2, "Product 2", Category.PRODUCT_2, 100.0, 0.35));
+        productRepository.addProduct(new Product(3, "Product 3", Category.PRODUCT_1, 100.0, 0.15));
+        productRepository.addProduct(new Product(4, "Product 4", Category.PRODUCT_2, 100.0, 0.05));
+        productRepository.addProduct(new Product(5, "Product 5", Category.PRODUCT_1, 100.0));
+        //lower bound is exclusive and upper bound is inclusive
+        assertEquals(ids(productRepository.findDiscountedProducts(Optional.of(0.05), Optional.of(0.25))), "1-3");
+        assertEquals(ids(productRepository.findDiscountedProducts(Optional.empty(), Optional.empty())), "1-2-3-4");
+    }
+
+    @Test
+    public void verifyBulkLoadShouldKeepEveryProduct() {
+        int size = 200_000;
+        for (int i = 0; i < size; i++) {
+            productRepository.addProduct(new Product(i, "Product " + i, Category.PRODUCT_1, 10.0));
+        }
+        assertEquals(productRepository.findAll().size(), size);
+        assertTrue(productRepository.findProductById(size - 1).isPresent());
+    }
+
+    private static String ids(List<Product> products) {
+        return products.stream().map(product -> product.getProductId().toString()).collect(Collectors.joining("-"));
+    }
+}
@@ -0,0 +1,87 @@
+package search;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.BadArgumentsException;
+import org.example.search.NameIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NameIndexTest {
+
+    @Test
+    public void verifyPrefixSearchShouldBeCaseInsensitive() {
+        NameIndex nameIndex = index();
+        assertEquals(nameIndex.search("APP", 10), List.of(1, 3, 2));
+        assertEquals(nameIndex.search("apple", 10), List.of(1, 3, 2));
+        assertEquals(nameIndex.search("apple ", 10), List.of(1, 3));
+        assertEquals(nameIndex.search("juice", 10), List.of(1, 4));
+        assertEquals(nameIndex.search("kiwi", 10), List.of());
+    }
+
+    @Test
+    public void verifySearchShouldStopAtTheLimit() {
+        NameIndex nameIndex = index();
+        assertEquals(nameIndex.search("app", 2), List.of(1, 3));
+        assertEquals(nameIndex.search("app", 0), List.of());
+    }
+
+    @Test
+    public void verifyEveryTermShouldMatch() {
+        NameIndex nameIndex = index();
+        assertEquals(nameIndex.search("red app", 10), List.of(1, 2));
+        assertEquals(nameIndex.search("juice red", 10), List.of(1));
+        //a trailing separator makes the last term a whole word
+        assertEquals(nameIndex.search("red app ", 10), List.of());
+        assertEquals(nameIndex.search("  ", 10), List.of());
+    }
+
+    @Test
+    public void verifyPrefixOfSeveralTermsShouldFollowRemovesAndAddAll() {
+        NameIndex nameIndex = index();
+        nameIndex.remove(new Product(2, "Red Applesauce", Category.PRODUCT_1, 100.0));
+        assertEquals(nameIndex.search("red a", 10), List.of(1));
+        nameIndex.addAll(List.of(new Product(5, "Red Apricot", Category.PRODUCT_1, 100.0),
+                new Product(6, "Red Cherry", Category.PRODUCT_1, 100.0)));
+        assertEquals(nameIndex.search("red a", 10), List.of(1, 5));
+        assertEquals(nameIndex.search("red ch", 10), List.of(6));
+        nameIndex.clear();
+        assertEquals(nameIndex.search("red a", 10), List.of());
+    }
+
+    @Test
+    public void verifyRemovedProductShouldNotBeFound() {
+        NameIndex nameIndex = index();
+        nameIndex.remove(new Product(1, "Red Apple-Juice", Category.PRODUCT_1, 100.0));
+        assertEquals(nameIndex.search("apple", 10), List.of(3, 2));
+        assertEquals(nameIndex.search("red", 10), List.of(2));
+        nameIndex.clear();
+        assertEquals(nameIndex.tokenCount(), 0);
+    }
+
+    @Test
+    public void verifyUnicodeNamesShouldBeTokenized() {
+        NameIndex nameIndex = new NameIndex();
+        nameIndex.add(new Product(1, "M\u00fcsli Crunchy", Category.PRODUCT_1, 4.0));
+        assertEquals(nameIndex.search("M\u00dcS", 10), List.of(1));
+    }
+
+    @Test
+    public void verifyInvalidQueryShouldThrowBadArguments() {
+        NameIndex nameIndex = index();
+        assertThrows(BadArgumentsException.class, () -> nameIndex.search(null, 10));
+        assertThrows(BadArgumentsException.class, () -> nameIndex.search("app", -1));
+    }
+
+    private static NameIndex index() {
+        NameIndex nameIndex = new NameIndex();
+        nameIndex.add(new Product(1, "Red Apple-Juice", Category.PRODUCT_1, 100.0));
+        nameIndex.add(new Product(2, "Red Applesauce", Category.PRODUCT_1, 100.0));
+        nameIndex.addAll(List.of(new Product(3, "Green apple", Category.PRODUCT_2, 100.0),
+                new Product(4, "Orange Juice", Category.PRODUCT_3, 100.0)));
+        return nameIndex;
+    }
+}
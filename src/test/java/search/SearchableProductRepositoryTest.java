@@ -0,0 +1,77 @@
+package search;
+
+import org.example.entity.Product;
+import org.example.enums.Category;
+import org.example.exceptions.BadArgumentsException;
+import org.example.exceptions.NoRecordFoundException;
+import org.example.repository.IndexedProductRepositoryImpl;
+import org.example.repository.ProductRepository;
+import org.example.repository.ProductRepositoryImpl;
+import org.example.search.SearchableProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchableProductRepositoryTest {
+
+    @Test
+    public void verifyExistingProductsShouldBeIndexed() {
+        ProductRepository delegate = new IndexedProductRepositoryImpl();
+        delegate.addProduct(new Product(1, "Espresso Beans", Category.PRODUCT_1, 12.0));
+        SearchableProductRepository productRepository = new SearchableProductRepository(delegate);
+        assertEquals(productRepository.searchIds("esp", 10), List.of(1));
+        assertEquals(productRepository.search("bean", 10), delegate.findAll());
+    }
+
+    @Test
+    public void verifyWritesShouldKeepTheIndexInSync() {
+        SearchableProductRepository productRepository =
+                new SearchableProductRepository(new IndexedProductRepositoryImpl());
+        productRepository.addProduct(new Product(1, "Espresso Beans", Category.PRODUCT_1, 12.0));
+        productRepository.addAllProducts(List.of(new Product(2, "Espresso Machine", Category.PRODUCT_2, 300.0),
+                new Product(3, "Tea Pot", Category.PRODUCT_2, 30.0)));
+        assertEquals(productRepository.searchIds("espresso", 10), List.of(1, 2));
+
+        productRepository.updateProduct(new Product(1, "Filter Coffee", Category.PRODUCT_1, 10.0), 1);
+        assertEquals(productRepository.searchIds("espresso", 10), List.of(2));
+        assertEquals(productRepository.searchIds("coff", 10), List.of(1));
+
+        productRepository.updateAllProducts(List.of(new Product(3, "Espresso Cups", Category.PRODUCT_2, 20.0)));
+        assertEquals(productRepository.searchIds("espresso", 10), List.of(2, 3));
+        assertEquals(productRepository.searchIds("tea", 10), List.of());
+
+        productRepository.deleteProductById(2);
+        assertEquals(productRepository.removeProductById(3).getName(), "Espresso Cups");
+        assertEquals(productRepository.searchIds("espresso", 10), List.of());
+
+        productRepository.addProduct(new Product(4, "Coffee Grinder", Category.PRODUCT_2, 80.0));
+        productRepository.deleteProductsByIds(List.of(1));
+        assertEquals(productRepository.searchIds("coffee", 10), List.of(4));
+        productRepository.deleteAllProducts();
+        assertEquals(productRepository.searchIds("coffee", 10), List.of());
+    }
+
+    @Test
+    public void verifyMismatchingUpdateShouldNotChangeTheIndex() {
+        SearchableProductRepository productRepository = new SearchableProductRepository(new ProductRepositoryImpl());
+        productRepository.addProduct(new Product(1, "Espresso Beans", Category.PRODUCT_1, 12.0));
+        assertThrows(BadArgumentsException.class, () ->
+                productRepository.updateProduct(new Product(5, "Tea", Category.PRODUCT_1, 1.0), 1));
+        assertEquals(productRepository.searchIds("espresso", 10), List.of(1));
+        assertEquals(productRepository.searchIds("tea", 10), List.of());
+    }
+
+    @Test
+    public void verifyFailedWriteShouldNotChangeTheIndex() {
+        SearchableProductRepository productRepository =
+                new SearchableProductRepository(new IndexedProductRepositoryImpl());
+        productRepository.addProduct(new Product(1, "Espresso Beans", Category.PRODUCT_1, 12.0));
+        assertThrows(NoRecordFoundException.class, () ->
+                productRepository.updateAllProducts(List.of(new Product(1, "Tea", Category.PRODUCT_1, 1.0),
+                        new Product(9, "Tea", Category.PRODUCT_1, 1.0))));
+        assertEquals(productRepository.searchIds("espresso", 10), List.of(1));
+        assertEquals(productRepository.searchIds("tea", 10), List.of());
+    }
+}